@@ -0,0 +1,96 @@
+#!/bin/bash
+
+# Worker scale-out test
+# Runs the same load against 1, 2, 4, ... worker-only instances of the app,
+# all polling one local Temporal test server, and prints the throughput per
+# worker count. The load generator acts as the API tier (client only).
+#
+# Each worker is capped at MAX_ACTIVITIES concurrent activities so a single
+# instance saturates and the gain from adding workers is visible.
+#
+# Usage: ./scale-out-test.sh
+# Tunables (environment): WORKER_COUNTS, MIX, CONCURRENCY, DURATION, WARMUP,
+#   MAX_ACTIVITIES, TEMPORAL_PORT, FIRST_WORKER_PORT
+
+set -e
+
+WORKER_COUNTS=${WORKER_COUNTS:-"1 2 4"}
+MIX=${MIX:-"approval:1"}
+CONCURRENCY=${CONCURRENCY:-32}
+DURATION=${DURATION:-45s}
+WARMUP=${WARMUP:-10s}
+MAX_ACTIVITIES=${MAX_ACTIVITIES:-4}
+TEMPORAL_PORT=${TEMPORAL_PORT:-7244}
+FIRST_WORKER_PORT=${FIRST_WORKER_PORT:-8100}
+REPORT_DIR=target/scale-out
+
+PIDS=()
+
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+    wait 2>/dev/null || true
+    PIDS=()
+}
+trap cleanup EXIT
+
+wait_for_readiness() {
+    local port=$1
+    for i in {1..60}; do
+        if curl -s "http://localhost:$port/actuator/health/readiness" | grep -q '"status":"UP"'; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "❌ Worker on port $port did not become ready, see $REPORT_DIR/worker-$port.log"
+    exit 1
+}
+
+echo "🔨 Building application and load generator..."
+mvn -B -q -Pbenchmarks -DskipTests package
+mvn -B -q -Pbenchmarks dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/scale-out.classpath
+CLASSPATH="target/test-classes:target/classes:$(cat target/scale-out.classpath)"
+JAR=$(ls target/temporal-helloworld-demo-*.jar | grep -v original | head -1)
+mkdir -p "$REPORT_DIR"
+
+for workers in $WORKER_COUNTS; do
+    echo ""
+    echo "🚀 $workers worker(s), at most $MAX_ACTIVITIES concurrent activities each"
+
+    # Fresh test server per round so earlier histories don't skew the result
+    java -cp "$CLASSPATH" com.temporal.demos.helloworld.benchmarks.LocalTestServer "$TEMPORAL_PORT" \
+        > "$REPORT_DIR/test-server.log" 2>&1 &
+    PIDS+=($!)
+    sleep 3
+
+    for ((i = 0; i < workers; i++)); do
+        port=$((FIRST_WORKER_PORT + i))
+        java -jar "$JAR" --spring.profiles.active=worker --server.port="$port" \
+            --temporal.target="127.0.0.1:$TEMPORAL_PORT" \
+            --temporal.worker.max-concurrent-activities="$MAX_ACTIVITIES" \
+            --logging.level.com.temporal.demos.helloworld=INFO \
+            > "$REPORT_DIR/worker-$port.log" 2>&1 &
+        PIDS+=($!)
+    done
+    for ((i = 0; i < workers; i++)); do
+        wait_for_readiness $((FIRST_WORKER_PORT + i))
+    done
+
+    java -cp "$CLASSPATH" com.temporal.demos.helloworld.benchmarks.LoadGenerator \
+        --target="127.0.0.1:$TEMPORAL_PORT" --local-worker=false --task-queue=HelloWorldTaskQueue \
+        --mix="$MIX" --concurrency="$CONCURRENCY" --duration="$DURATION" --warmup="$WARMUP" \
+        --report-dir="$REPORT_DIR/workers-$workers"
+
+    cleanup
+done
+
+echo ""
+echo "📊 Throughput by worker count (completed workflows per second, measured window)"
+for workers in $WORKER_COUNTS; do
+    throughput=$(grep -o '"completedPerSecond":[0-9.]*' "$REPORT_DIR/workers-$workers/load-report.json" \
+        | cut -d: -f2 | awk '{ total += $1 } END { printf "%.2f", total }')
+    echo "   $workers worker(s): $throughput/s"
+done
+echo ""
+echo "Reports: $REPORT_DIR/workers-<n>/load-report.json"
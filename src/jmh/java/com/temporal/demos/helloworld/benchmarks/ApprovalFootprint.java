@@ -0,0 +1,198 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.models.ApprovalPolicy;
+import com.temporal.demos.helloworld.workflows.ApprovalSearchAttributes;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflow;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflowImpl;
+import io.temporal.api.history.v1.History;
+import io.temporal.api.history.v1.HistoryEvent;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerFactoryOptions;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what waiting approvals cost a worker: heap and threads per
+ * parked workflow, and how large each run's history gets over a full
+ * reminder and escalation schedule.
+ *
+ *   mvn -Pbenchmarks test-compile exec:exec@approval-footprint -Dfootprint.args="--count=2000"
+ *
+ * Options (--name=value):
+ *   --count=2000         approvals started and left waiting for a decision
+ *   --cache-size=600     worker sticky cache size (temporal.worker.workflow-cache-size)
+ *   --details-bytes=2048 size of each request's details text
+ *   --reminder-interval=4h, --escalate-after=12h, --timeout=24h  escalation schedule
+ *   --target=            host:port of a separate frontend (e.g. exec:exec@test-server);
+ *                        without one, the in-process test server's copy of every
+ *                        history is counted in the heap figures too, and the
+ *                        schedule is then fast-forwarded with time skipping
+ *
+ * Heap is measured after repeated full GCs, so it is the retained size, not
+ * allocation. Parked workflows beyond the cache size are evicted and only
+ * cost a replay when their next timer or signal arrives.
+ */
+public class ApprovalFootprint {
+
+    private static final String TASK_QUEUE = "approval-footprint";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Unrecognised argument '" + arg + "', expected --name=value "
+                        + "(see the ApprovalFootprint class comment for the option list)");
+                System.exit(2);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        int count = Integer.parseInt(options.getOrDefault("count", "2000"));
+        int cacheSize = Integer.parseInt(options.getOrDefault("cache-size", "600"));
+        String details = "x".repeat(Integer.parseInt(options.getOrDefault("details-bytes", "2048")));
+        String target = options.getOrDefault("target", "");
+        ApprovalPolicy policy = new ApprovalPolicy(
+                LoadGenerator.parseDuration(options.getOrDefault("reminder-interval", "4h")).getSeconds(),
+                LoadGenerator.parseDuration(options.getOrDefault("escalate-after", "12h")).getSeconds(),
+                LoadGenerator.parseDuration(options.getOrDefault("timeout", "24h")).getSeconds());
+
+        TestEnvironmentOptions.Builder environmentOptions = TestEnvironmentOptions.newBuilder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                        .setDataConverter(CompactPayloadConverter.newDataConverter())
+                        .build())
+                .setWorkerFactoryOptions(WorkerFactoryOptions.newBuilder()
+                        .setWorkflowCacheSize(cacheSize)
+                        .setMaxWorkflowThreadCount(cacheSize)
+                        .build());
+        if (!target.isEmpty()) {
+            environmentOptions.setUseExternalService(true).setTarget(target);
+        }
+        TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance(environmentOptions.build());
+        ApprovalSearchAttributes.ALL.forEach(key -> environment.registerSearchAttribute(key.getName(),
+                key.getValueType()));
+
+        // One extra for the warmup approval
+        CountDownLatch parked = new CountDownLatch(count + 1);
+        Worker worker = environment.newWorker(TASK_QUEUE);
+        worker.registerWorkflowImplementationTypes(ApprovalWorkflowImpl.class);
+        worker.registerActivitiesImplementations(new InstantActivities.Approval() {
+            @Override
+            public void notifyApprovers(String requestId, String requestDetails, String requesterEmail) {
+                parked.countDown();
+            }
+        });
+        environment.start();
+        WorkflowClient client = environment.getWorkflowClient();
+
+        try {
+            // IDs are unique per run so a long-lived external server can be reused
+            String prefix = "footprint-" + System.currentTimeMillis() + "-";
+            // Settle the client, worker and server before the baseline
+            startApproval(client, prefix + "warmup", details, policy);
+            while (parked.getCount() > count) {
+                Thread.sleep(10);
+            }
+            long baselineHeap = retainedHeap();
+            int baselineThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            long started = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                startApproval(client, prefix + i, details, policy);
+            }
+            if (!parked.await(10, TimeUnit.MINUTES)) {
+                throw new IllegalStateException(parked.getCount() + " approvals never reached their wait");
+            }
+            // The last notifyApprovers completions still have a workflow task to run
+            Thread.sleep(2000);
+            long parkedHeap = retainedHeap();
+            int parkedThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            String sampleId = prefix + (count - 1);
+            WorkflowExecutionHistory waiting = client.fetchHistory(sampleId);
+            System.out.printf("%n%d approvals parked in %.1fs, sticky cache size %d%s%n", count,
+                    (System.nanoTime() - started) / 1e9, cacheSize,
+                    target.isEmpty() ? " (heap includes the in-process test server)" : "");
+            System.out.printf("  heap per parked approval:    %,d bytes%n", (parkedHeap - baselineHeap) / count);
+            System.out.printf("  heap per cached approval:    %,d bytes%n",
+                    (parkedHeap - baselineHeap) / Math.min(count, cacheSize));
+            System.out.printf("  threads added:               %d%n", parkedThreads - baselineThreads);
+            System.out.printf("  history while waiting:       %d events, %,d bytes%n",
+                    waiting.getEvents().size(), waiting.getHistory().getSerializedSize());
+
+            if (target.isEmpty()) {
+                // Walk the whole schedule for every parked approval, a reminder interval at a time
+                long step = policy.getReminderIntervalSeconds() > 0
+                        ? policy.getReminderIntervalSeconds()
+                        : policy.getTimeoutSeconds();
+                for (long waited = 0; waited <= policy.getTimeoutSeconds(); waited += step) {
+                    environment.sleep(Duration.ofSeconds(step));
+                }
+                String result = client.newUntypedWorkflowStub(sampleId).getResult(String.class);
+                printRuns(client, sampleId, result);
+            }
+        } finally {
+            environment.close();
+        }
+        System.exit(0);
+    }
+
+    private static void startApproval(WorkflowClient client, String workflowId, String details,
+            ApprovalPolicy policy) {
+        ApprovalWorkflow approval = client.newWorkflowStub(ApprovalWorkflow.class, WorkflowOptions.newBuilder()
+                .setWorkflowId(workflowId)
+                .setTaskQueue(TASK_QUEUE)
+                .build());
+        WorkflowClient.start(approval::processApprovalRequest, workflowId, "ACCESS_REQUEST",
+                details, "requester@example.com", policy, null);
+    }
+
+    /**
+     * Follows the continue-as-new chain back from the last run and prints
+     * the history size of each run.
+     */
+    private static void printRuns(WorkflowClient client, String workflowId, String result) {
+        StringBuilder runs = new StringBuilder();
+        int runCount = 0;
+        int totalEvents = 0;
+        int largestRun = 0;
+        String runId = null;
+        do {
+            WorkflowExecutionHistory run = runId == null
+                    ? client.fetchHistory(workflowId)
+                    : client.fetchHistory(workflowId, runId);
+            History history = run.getHistory();
+            runs.insert(0, history.getEventsCount() + " ");
+            runCount++;
+            totalEvents += history.getEventsCount();
+            largestRun = Math.max(largestRun, history.getEventsCount());
+            HistoryEvent first = history.getEvents(0);
+            runId = first.getWorkflowExecutionStartedEventAttributes().getContinuedExecutionRunId();
+        } while (!runId.isEmpty());
+
+        System.out.printf("%nSample approval after its full schedule: %s%n", result);
+        System.out.printf("  runs:                        %d (events per run: %s)%n", runCount, runs.toString().trim());
+        System.out.printf("  largest run history:         %d events%n", largestRun);
+        System.out.printf("  events across all runs:      %d%n", totalEvents);
+    }
+
+    private static long retainedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
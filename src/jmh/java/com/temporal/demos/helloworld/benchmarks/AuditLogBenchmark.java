@@ -0,0 +1,91 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.audit.AuditLog;
+import com.temporal.demos.helloworld.audit.AuditRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable appends to {@link AuditLog} from 16 threads, as concurrent
+ * decision activities would make them. "none" syncs every record on its own
+ * (batch size 1), the baseline of one synchronous write per event; "group"
+ * shares each fsync with whatever queued while the previous one ran, and
+ * "group-2ms" also waits up to 2 ms for a batch to fill.
+ *
+ * Throughput is appends per millisecond across all threads; sample time is
+ * the latency of one append until its record is durable. Results depend on
+ * the disk's fsync cost, so compare configurations on the same machine.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class AuditLogBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedLog {
+
+        @Param({ "none", "group", "group-2ms" })
+        public String batching;
+
+        Path directory;
+        AuditLog auditLog;
+
+        @Setup
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("audit-benchmark");
+            int maxBatchSize = "none".equals(batching) ? 1 : 256;
+            Duration maxBatchDelay = "group-2ms".equals(batching) ? Duration.ofMillis(2) : Duration.ZERO;
+            auditLog = new AuditLog(directory.resolve("audit.log").toString(), maxBatchSize, maxBatchDelay,
+                    Duration.ofSeconds(10));
+            auditLog.start();
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            auditLog.stop();
+            System.out.printf("%n%d records in %d fsyncs%n", auditLog.getRecordsWritten(),
+                    auditLog.getBatchesWritten());
+            Files.deleteIfExists(auditLog.getPath());
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Decisions {
+        String prefix;
+        long next;
+
+        @Setup
+        public void setup(ThreadParams threadParams) {
+            prefix = "approval-" + threadParams.getThreadIndex() + "-";
+        }
+    }
+
+    @Benchmark
+    public void append(SharedLog shared, Decisions decisions) throws InterruptedException {
+        String requestId = decisions.prefix + decisions.next++;
+        shared.auditLog.append(new AuditRecord(requestId + "/5", requestId, "APPROVED", "manager@company.com",
+                "Approved in benchmark", System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.converters.CompressionAlgorithm;
+import com.temporal.demos.helloworld.converters.CompressionPayloadCodec;
+import com.temporal.demos.helloworld.models.NotificationServiceResult;
+import com.temporal.demos.helloworld.models.OrderServiceResult;
+import com.temporal.demos.helloworld.models.PaymentServiceResult;
+import com.temporal.demos.helloworld.models.RecommendationServiceResult;
+import com.temporal.demos.helloworld.models.UserServiceResult;
+import io.temporal.api.common.v1.Payload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of {@link CompressionPayloadCodec} on a compiled
+ * orchestration result, with the recommendation list scaled up to mimic real
+ * payloads. Original and compressed payload bytes are printed during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionCodecBenchmark {
+
+    @Param({ "DEFLATE", "GZIP" })
+    public CompressionAlgorithm algorithm;
+
+    @Param({ "3", "100", "1000" })
+    public int recommendations;
+
+    private CompressionPayloadCodec codec;
+    private List<Payload> original;
+    private List<Payload> encoded;
+
+    @Setup
+    public void setup() {
+        List<String> products = new ArrayList<>(recommendations);
+        for (int i = 0; i < recommendations; i++) {
+            products.add("Product " + i);
+        }
+        String result = "{\"orchestrationResult\":{\"userId\":\"user-123\",\"totalServices\":5,"
+                + "\"paymentMode\":\"sync\",\"services\":["
+                + new UserServiceResult("user-123", "John Doe", "john.doe@example.com").toJson() + ","
+                + new OrderServiceResult("user-123", 5, 1250.50).toJson() + ","
+                + new PaymentServiceResult("user-123", "**** 1234", 750).toJson() + ","
+                + new NotificationServiceResult("user-123", 3).toJson() + ","
+                + new RecommendationServiceResult("user-123", products).toJson() + "]}}";
+
+        codec = new CompressionPayloadCodec(algorithm, 0);
+        original = List.of(CompactPayloadConverter.newDataConverter().toPayload(result).orElseThrow());
+        encoded = codec.encode(original);
+        System.out.printf("%n[%s, %d recommendations] payload bytes: %d -> %d%n", algorithm, recommendations,
+                original.get(0).getSerializedSize(), encoded.get(0).getSerializedSize());
+    }
+
+    @Benchmark
+    public List<Payload> encode() {
+        return codec.encode(original);
+    }
+
+    @Benchmark
+    public List<Payload> decode() {
+        return codec.decode(encoded);
+    }
+
+    @Benchmark
+    public List<Payload> decodeUncompressed() {
+        return codec.decode(original);
+    }
+}
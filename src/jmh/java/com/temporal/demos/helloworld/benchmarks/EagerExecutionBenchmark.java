@@ -0,0 +1,219 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.activities.HelloWorldActivitiesImpl;
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.workflows.HelloWorldWorkflow;
+import com.temporal.demos.helloworld.workflows.HelloWorldWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflow;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflowImpl;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.temporal.api.command.v1.Command;
+import io.temporal.api.workflowservice.v1.RespondWorkflowTaskCompletedRequest;
+import io.temporal.api.workflowservice.v1.RespondWorkflowTaskCompletedResponse;
+import io.temporal.api.workflowservice.v1.StartWorkflowExecutionResponse;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.serviceclient.WorkflowServiceStubsOptions;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerFactory;
+import io.temporal.worker.WorkerOptions;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of hello-world and orchestration executions started through the
+ * WorkflowClient the worker polls with, as the API does when both roles run
+ * in one process, with and without eager execution. An eager start gets the
+ * first workflow task back in the start response, and eager activities come
+ * back in the response to the workflow task that scheduled them, so each
+ * skips a round trip through the task queue.
+ *
+ * With workflowTaskSlots=2 four clients compete for two workflow task slots,
+ * so an eager start often finds none free; the SDK then starts the workflow
+ * the normal way. The eagerStarts and queuedStarts counters show how many
+ * starts took each path, and the trial prints how many activities were
+ * dispatched eagerly. Runs on the in-memory test server, where a round trip
+ * costs far less than over the network, so the savings are a lower bound;
+ * the test server also never dispatches activities eagerly, so only the
+ * request count shows there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class EagerExecutionBenchmark {
+
+    private static final String TASK_QUEUE = "eager-execution-benchmark";
+
+    @Param({ "true", "false" })
+    public boolean eager;
+
+    @Param({ "200", "2" })
+    public int workflowTaskSlots;
+
+    private final EagerDispatchCounter dispatch = new EagerDispatchCounter();
+    private TestWorkflowEnvironment environment;
+    private WorkflowClient client;
+    private WorkerFactory workerFactory;
+
+    /**
+     * How each start made by this benchmark thread was dispatched.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Starts {
+        public long eagerStarts;
+        public long queuedStarts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            eagerStarts = 0;
+            queuedStarts = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startEnvironment() {
+        environment = TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                .setWorkflowServiceStubsOptions(WorkflowServiceStubsOptions.newBuilder()
+                        .setGrpcClientInterceptors(List.of(dispatch))
+                        .build())
+                .build());
+        // The environment's own client is not linked to its workers, so it never starts eagerly
+        client = WorkflowClient.newInstance(environment.getWorkflowServiceStubs(), WorkflowClientOptions.newBuilder()
+                .setNamespace(environment.getNamespace())
+                .setDataConverter(CompactPayloadConverter.newDataConverter())
+                .build());
+        workerFactory = WorkerFactory.newInstance(client);
+        Worker worker = workerFactory.newWorker(TASK_QUEUE, WorkerOptions.newBuilder()
+                .setMaxConcurrentWorkflowTaskExecutionSize(workflowTaskSlots)
+                .setDisableEagerExecution(!eager)
+                .build());
+        worker.registerWorkflowImplementationTypes(HelloWorldWorkflowImpl.class, OrchestrationWorkflowImpl.class);
+        worker.registerActivitiesImplementations(new HelloWorldActivitiesImpl(),
+                new InstantActivities.ExternalApi(3, 0));
+        environment.start();
+        workerFactory.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeEnvironment() {
+        System.out.printf("%nEager activities: %d of %d requested were dispatched eagerly%n",
+                dispatch.eagerActivities.get(), dispatch.requestedActivities.get());
+        workerFactory.shutdownNow();
+        environment.close();
+    }
+
+    @Benchmark
+    public String helloWorld(Starts starts) {
+        HelloWorldWorkflow workflow = client.newWorkflowStub(HelloWorldWorkflow.class, newOptions("hello-world-"));
+        WorkflowClient.start(workflow::executeHelloWorld, "Benchmark");
+        count(starts);
+        return WorkflowStub.fromTyped(workflow).getResult(String.class);
+    }
+
+    @Benchmark
+    public String orchestration(Starts starts) {
+        OrchestrationWorkflow workflow = client.newWorkflowStub(OrchestrationWorkflow.class,
+                newOptions("orchestration-"));
+        WorkflowClient.start(workflow::orchestrateExternalApiCalls, "user-123", false, null, null);
+        count(starts);
+        return WorkflowStub.fromTyped(workflow).getResult(String.class);
+    }
+
+    private void count(Starts starts) {
+        if (dispatch.lastStartEager.get()) {
+            starts.eagerStarts++;
+        } else {
+            starts.queuedStarts++;
+        }
+    }
+
+    private WorkflowOptions newOptions(String prefix) {
+        return WorkflowOptions.newBuilder()
+                .setWorkflowId(prefix + UUID.randomUUID())
+                .setTaskQueue(TASK_QUEUE)
+                .setDisableEagerExecution(!eager)
+                .build();
+    }
+
+    /**
+     * Reads off the responses whether a start came with its first workflow
+     * task, and how many of the activities a workflow task asked to run
+     * eagerly came back with its completion.
+     */
+    private static final class EagerDispatchCounter implements ClientInterceptor {
+
+        // Starts go through blocking stubs, which deliver the response on the calling thread
+        final ThreadLocal<Boolean> lastStartEager = ThreadLocal.withInitial(() -> false);
+        final AtomicLong requestedActivities = new AtomicLong();
+        final AtomicLong eagerActivities = new AtomicLong();
+
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                CallOptions callOptions, Channel next) {
+            return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+                @Override
+                public void start(Listener<RespT> responseListener, Metadata headers) {
+                    super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(
+                            responseListener) {
+                        @Override
+                        public void onMessage(RespT message) {
+                            if (message instanceof StartWorkflowExecutionResponse response) {
+                                lastStartEager.set(response.hasEagerWorkflowTask());
+                            } else if (message instanceof RespondWorkflowTaskCompletedResponse response) {
+                                eagerActivities.addAndGet(response.getActivityTasksCount());
+                            }
+                            super.onMessage(message);
+                        }
+                    }, headers);
+                }
+
+                @Override
+                public void sendMessage(ReqT message) {
+                    if (message instanceof RespondWorkflowTaskCompletedRequest request) {
+                        for (Command command : request.getCommandsList()) {
+                            if (command.hasScheduleActivityTaskCommandAttributes() && command
+                                    .getScheduleActivityTaskCommandAttributes().getRequestEagerExecution()) {
+                                requestedActivities.incrementAndGet();
+                            }
+                        }
+                    }
+                    super.sendMessage(message);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.faults.BrownoutWindow;
+import com.temporal.demos.helloworld.faults.FaultDecision;
+import com.temporal.demos.helloworld.faults.FaultInjector;
+import com.temporal.demos.helloworld.faults.FaultProfile;
+import com.temporal.demos.helloworld.faults.LatencyProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and failure decision made at the start of every simulated service
+ * call, run from several threads as concurrent activities would.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class FaultInjectorBenchmark {
+
+    private static final String SERVICE = "BenchmarkService";
+
+    @Param({ "uniform", "lognormal", "bimodal-brownout" })
+    public String profile;
+
+    private FaultInjector faultInjector;
+
+    @State(Scope.Thread)
+    public static class Calls {
+        long count;
+    }
+
+    @Setup
+    public void setUp() {
+        faultInjector = new FaultInjector(42);
+        faultInjector.setEnabled(true);
+        switch (profile) {
+            case "uniform":
+                faultInjector.setProfile(SERVICE, FaultProfile.uniform(500, 2000, 25));
+                break;
+            case "lognormal":
+                faultInjector.setProfile(SERVICE,
+                        new FaultProfile(LatencyProfile.lognormal(800, 0.6, 30000), 5, 1, 60000, null));
+                break;
+            default:
+                faultInjector.setProfile(SERVICE, new FaultProfile(
+                        LatencyProfile.bimodal(200, 5000, 0.05, 0.4, 30000), 5, 1, 60000,
+                        new BrownoutWindow(60, 30, 4, 50)));
+        }
+    }
+
+    @Benchmark
+    public FaultDecision decide(Calls calls) {
+        String callKey = "workflow-" + Thread.currentThread().getId() + "/" + ++calls.count + "/1";
+        return faultInjector.decide(SERVICE, callKey);
+    }
+}
@@ -0,0 +1,115 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.activities.ApprovalActivities;
+import com.temporal.demos.helloworld.activities.ExternalApiActivities;
+import com.temporal.demos.helloworld.models.NotificationServiceResult;
+import com.temporal.demos.helloworld.models.OrderServiceResult;
+import com.temporal.demos.helloworld.models.PaymentInitiationResult;
+import com.temporal.demos.helloworld.models.PaymentServiceResult;
+import com.temporal.demos.helloworld.models.PaymentStatusResult;
+import com.temporal.demos.helloworld.models.RecommendationServiceResult;
+import com.temporal.demos.helloworld.models.UserServiceResult;
+import io.temporal.activity.Activity;
+import io.temporal.failure.ApplicationFailure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Activity implementations without simulated latency or random errors, so
+ * benchmarks measure Temporal and workflow code rather than Thread.sleep.
+ */
+final class InstantActivities {
+
+    private InstantActivities() {
+    }
+
+    static class ExternalApi implements ExternalApiActivities {
+
+        private final int recommendations;
+        private final int paymentPollRetries;
+
+        ExternalApi(int recommendations, int paymentPollRetries) {
+            this.recommendations = recommendations;
+            this.paymentPollRetries = paymentPollRetries;
+        }
+
+        @Override
+        public UserServiceResult callUserService(String userId) {
+            return new UserServiceResult(userId, "John Doe", "john.doe@example.com");
+        }
+
+        @Override
+        public OrderServiceResult callOrderService(String userId) {
+            return new OrderServiceResult(userId, 5, 1250.50);
+        }
+
+        @Override
+        public PaymentServiceResult callPaymentService(String userId) {
+            return new PaymentServiceResult(userId, "**** 1234", 750);
+        }
+
+        @Override
+        public NotificationServiceResult callNotificationService(String userId) {
+            return new NotificationServiceResult(userId, 3);
+        }
+
+        @Override
+        public RecommendationServiceResult callRecommendationService(String userId) {
+            List<String> products = new ArrayList<>(recommendations);
+            for (int i = 0; i < recommendations; i++) {
+                products.add("Product " + i);
+            }
+            return new RecommendationServiceResult(userId, products);
+        }
+
+        @Override
+        public PaymentInitiationResult initiateAsyncPaymentProcess(String userId, double amount) {
+            return new PaymentInitiationResult("payment-" + userId, userId, amount, "INITIATED");
+        }
+
+        @Override
+        public PaymentStatusResult pollPaymentStatus(String paymentId) {
+            int attempt = Activity.getExecutionContext().getInfo().getAttempt();
+            if (attempt <= paymentPollRetries) {
+                throw ApplicationFailure.newFailure("Payment " + paymentId + " is still processing. Poll #" + attempt,
+                        PAYMENT_STILL_PROCESSING);
+            }
+            return new PaymentStatusResult(paymentId, "COMPLETED", attempt, "txn-" + attempt);
+        }
+    }
+
+    static class Approval implements ApprovalActivities {
+
+        @Override
+        public String validateRequest(String requestId, String requestDetails) {
+            return "VALID";
+        }
+
+        @Override
+        public void notifyApprovers(String requestId, String requestDetails, String requesterEmail) {
+        }
+
+        @Override
+        public void notifyRequester(String requesterEmail, String message) {
+        }
+
+        @Override
+        public void remindApprovers(String requestId, String requestDetails, int tier, long waitingSeconds) {
+        }
+
+        @Override
+        public void escalateRequest(String requestId, String requestDetails, String requesterEmail,
+                long waitingSeconds) {
+        }
+
+        @Override
+        public String executeApprovedAction(String requestId, String requestDetails) {
+            return "Access granted. Access token: TOK-" + requestId;
+        }
+
+        @Override
+        public void logApprovalDecision(String requestId, String decision, String approverEmail, String comments) {
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.activities.ApprovalActivitiesImpl;
+import com.temporal.demos.helloworld.activities.ExternalApiActivitiesImpl;
+import com.temporal.demos.helloworld.activities.HelloWorldActivitiesImpl;
+import com.temporal.demos.helloworld.approvals.ApprovalDetailsStore;
+import com.temporal.demos.helloworld.audit.AuditLog;
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.converters.CompressionAlgorithm;
+import com.temporal.demos.helloworld.converters.CompressionPayloadCodec;
+import com.temporal.demos.helloworld.faults.FaultInjector;
+import com.temporal.demos.helloworld.notifications.NotificationDigester;
+import com.temporal.demos.helloworld.workflows.ApprovalSearchAttributes;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflow;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.HelloWorldWorkflow;
+import com.temporal.demos.helloworld.workflows.HelloWorldWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflow;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflowImpl;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.activity.ActivityInfo;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.common.converter.CodecDataConverter;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerFactoryOptions;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the HelloWorld, Orchestration and Approval workflows (approvals are
+ * approved or rejected automatically by signal) at a target rate and/or
+ * concurrency, and writes an HdrHistogram latency report per workflow and
+ * phase. By default everything runs in-process against the Temporal test
+ * server, so it works fully offline:
+ *
+ *   mvn -Pbenchmarks test-compile exec:exec@load-test -Dload.args="--rate=50 --duration=2m"
+ *
+ * Options (--name=value):
+ *   --mix=hello:1,orchestration:1,approval:1  workflows and their relative weights
+ *   --rate=0               workflow starts per second, 0 = as fast as --concurrency allows
+ *   --concurrency=50       maximum workflows in flight
+ *   --duration=60s         measured run time, after --warmup=10s
+ *   --drain-timeout=2m     how long to wait for in-flight workflows at the end
+ *   --activities=instant   instant (no simulated latency or errors) or real
+ *   --faults=false         with real activities, also inject the default errors
+ *   --approval-think-time=0ms  delay between starting an approval and deciding it
+ *   --reject-ratio=0.2     share of approvals that are rejected
+ *   --client-threads=16    threads issuing start and signal calls
+ *   --target=              host:port of a real frontend instead of the test server
+ *   --local-worker=true    false to only start workflows, leaving them to worker processes
+ *                          already polling --task-queue on --target (see scale-out-test.sh)
+ *   --task-queue=load-test
+ *   --report-dir=target/load-test
+ *   --seed=42
+ *
+ * With --rate set, latencies are measured from the intended start time rather
+ * than from when the call was actually issued, so a saturated system shows up
+ * as latency instead of quietly lowering the offered load.
+ */
+public class LoadGenerator {
+
+    enum Scenario {
+        HELLO("hello", "HelloWorldWorkflow", "load-hello-world-"),
+        ORCHESTRATION("orchestration", "OrchestrationWorkflow", "load-orchestration-"),
+        APPROVAL("approval", "ApprovalWorkflow", "load-approval-");
+
+        final String id;
+        final String workflowType;
+        final String workflowIdPrefix;
+
+        Scenario(String id, String workflowType, String workflowIdPrefix) {
+            this.id = id;
+            this.workflowType = workflowType;
+            this.workflowIdPrefix = workflowIdPrefix;
+        }
+
+        static Scenario fromId(String id) {
+            for (Scenario scenario : values()) {
+                if (scenario.id.equalsIgnoreCase(id)) {
+                    return scenario;
+                }
+            }
+            throw new IllegalArgumentException("Unknown workflow '" + id + "', expected hello, orchestration or approval");
+        }
+
+        static Scenario fromWorkflowType(String workflowType) {
+            for (Scenario scenario : values()) {
+                if (scenario.workflowType.equals(workflowType)) {
+                    return scenario;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Map<String, String> options;
+    private final Scenario[] mix;
+    private final double rate;
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration drainTimeout;
+    private final Duration approvalThinkTime;
+    private final double rejectRatio;
+    private final String taskQueue;
+    private final Random random;
+
+    private final LoadReport report;
+    private final Semaphore inFlight;
+    private final ExecutorService clientPool;
+    private final ScheduledExecutorService signalScheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private TestWorkflowEnvironment environment;
+    private WorkflowClient client;
+    private NotificationDigester notifications;
+    private File notificationJournal;
+    private File approvalDetails;
+    private AuditLog auditLog;
+
+    LoadGenerator(Map<String, String> options) {
+        this.options = options;
+        this.mix = parseMix(option("mix", "hello:1,orchestration:1,approval:1"));
+        this.rate = Double.parseDouble(option("rate", "0"));
+        this.concurrency = Integer.parseInt(option("concurrency", "50"));
+        this.duration = parseDuration(option("duration", "60s"));
+        this.warmup = parseDuration(option("warmup", "10s"));
+        this.drainTimeout = parseDuration(option("drain-timeout", "2m"));
+        this.approvalThinkTime = parseDuration(option("approval-think-time", "0ms"));
+        this.rejectRatio = Double.parseDouble(option("reject-ratio", "0.2"));
+        this.taskQueue = option("task-queue", "load-test");
+        this.random = new Random(Long.parseLong(option("seed", "42")));
+        this.report = new LoadReport(options, duration);
+        this.inFlight = new Semaphore(concurrency);
+        this.clientPool = Executors.newFixedThreadPool(Integer.parseInt(option("client-threads", "16")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Unrecognised argument '" + arg + "', expected --name=value "
+                        + "(see the LoadGenerator class comment for the option list)");
+                System.exit(2);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadGenerator generator = new LoadGenerator(options);
+        try {
+            generator.start();
+            generator.run();
+        } finally {
+            generator.close();
+        }
+        generator.report.print(System.out);
+        generator.report.write(new File(generator.option("report-dir", "target/load-test")));
+        System.exit(0);
+    }
+
+    private void start() {
+        String target = option("target", "");
+        WorkerInterceptorBase scheduleToStart = new WorkerInterceptorBase() {
+            @Override
+            public ActivityInboundCallsInterceptor interceptActivity(ActivityInboundCallsInterceptor next) {
+                return new ActivityInboundCallsInterceptorBase(next) {
+                    @Override
+                    public void init(ActivityExecutionContext context) {
+                        ActivityInfo info = context.getInfo();
+                        Scenario scenario = Scenario.fromWorkflowType(info.getWorkflowType());
+                        if (scenario != null) {
+                            long waitedMillis = System.currentTimeMillis() - info.getCurrentAttemptScheduledTimestamp();
+                            report.recordScheduleToStart(scenario, TimeUnit.MILLISECONDS.toNanos(waitedMillis));
+                        }
+                        super.init(context);
+                    }
+                };
+            }
+        };
+
+        TestEnvironmentOptions.Builder environmentOptions = TestEnvironmentOptions.newBuilder()
+                .setUseTimeskipping(false)
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                        .setDataConverter(new CodecDataConverter(CompactPayloadConverter.newDataConverter(),
+                                Collections.singletonList(
+                                        new CompressionPayloadCodec(CompressionAlgorithm.DEFLATE, 1024))))
+                        .build())
+                .setWorkerFactoryOptions(WorkerFactoryOptions.newBuilder()
+                        .setWorkerInterceptors(scheduleToStart)
+                        .build());
+        if (!target.isEmpty()) {
+            environmentOptions.setUseExternalService(true).setTarget(target);
+        }
+        environment = TestWorkflowEnvironment.newInstance(environmentOptions.build());
+
+        if (Boolean.parseBoolean(option("local-worker", "true"))) {
+            ApprovalSearchAttributes.ALL.forEach(key -> environment.registerSearchAttribute(key.getName(),
+                    key.getValueType()));
+            Worker worker = environment.newWorker(taskQueue);
+            worker.registerWorkflowImplementationTypes(HelloWorldWorkflowImpl.class, OrchestrationWorkflowImpl.class,
+                    ApprovalWorkflowImpl.class);
+            if ("real".equals(option("activities", "instant"))) {
+                notificationJournal = new File(System.getProperty("java.io.tmpdir"),
+                        "loadgen-notifications-" + UUID.randomUUID() + ".journal");
+                notifications = new NotificationDigester(notificationJournal.getPath(), Duration.ofSeconds(5), 50,
+                        Duration.ofMillis(100), Duration.ofSeconds(10));
+                notifications.start();
+                auditLog = new AuditLog(notificationJournal.getPath() + ".audit", 256, Duration.ZERO,
+                        Duration.ofSeconds(10));
+                auditLog.start();
+                approvalDetails = new File(notificationJournal.getPath() + ".details");
+                worker.registerActivitiesImplementations(new HelloWorldActivitiesImpl(),
+                        new ExternalApiActivitiesImpl(faultInjector()),
+                        new ApprovalActivitiesImpl(notifications, List.of("approvers@company.com"),
+                                List.of("approval-managers@company.com"), auditLog,
+                                new ApprovalDetailsStore(approvalDetails.getPath(), Duration.ofDays(1)),
+                                environment.getWorkflowClient()));
+            } else {
+                worker.registerActivitiesImplementations(new HelloWorldActivitiesImpl(),
+                        new InstantActivities.ExternalApi(3, 0), new InstantActivities.Approval());
+            }
+        } else if (target.isEmpty()) {
+            throw new IllegalArgumentException("--local-worker=false needs --target, nothing else polls the test server");
+        }
+        environment.start();
+        client = environment.getWorkflowClient();
+    }
+
+    private FaultInjector faultInjector() {
+        FaultInjector faultInjector = new FaultInjector(Long.parseLong(option("seed", "42")));
+        faultInjector.setEnabled(Boolean.parseBoolean(option("faults", "false")));
+        return faultInjector;
+    }
+
+    private void run() throws InterruptedException {
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        long begin = System.nanoTime();
+        long measureFrom = begin + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long next = begin;
+        long sequence = 0;
+
+        System.out.printf("Running %s for %s after %s warmup (rate=%s, concurrency=%d)%n",
+                option("mix", "hello:1,orchestration:1,approval:1"), duration, warmup,
+                rate > 0 ? rate + "/s" : "unlimited", concurrency);
+        while (true) {
+            long intended;
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(next - System.nanoTime());
+                intended = next;
+                next += intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                inFlight.acquire();
+            } else {
+                inFlight.acquire();
+                intended = System.nanoTime();
+                if (intended >= end) {
+                    inFlight.release();
+                    break;
+                }
+            }
+            if (intended >= measureFrom) {
+                report.startMeasuring();
+            }
+
+            Scenario scenario = mix[(int) (sequence++ % mix.length)];
+            // Orchestrations pick sync or async payment at random, approvals are rejected at --reject-ratio
+            boolean variant = scenario == Scenario.APPROVAL ? random.nextDouble() < rejectRatio : random.nextBoolean();
+            boolean measured = intended >= measureFrom;
+            clientPool.execute(() -> launch(scenario, intended, measured, variant));
+        }
+
+        System.out.printf("Waiting up to %s for %d in-flight workflows%n", drainTimeout,
+                concurrency - inFlight.availablePermits());
+        if (!inFlight.tryAcquire(concurrency, drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            System.out.printf("%d workflows still running after the drain timeout%n",
+                    concurrency - inFlight.availablePermits());
+        }
+    }
+
+    private void launch(Scenario scenario, long intended, boolean measured, boolean variant) {
+        WorkflowOptions workflowOptions = WorkflowOptions.newBuilder()
+                .setWorkflowId(scenario.workflowIdPrefix + UUID.randomUUID())
+                .setTaskQueue(taskQueue)
+                .build();
+        try {
+            WorkflowStub stub;
+            switch (scenario) {
+                case HELLO: {
+                    HelloWorldWorkflow workflow = client.newWorkflowStub(HelloWorldWorkflow.class, workflowOptions);
+                    WorkflowClient.start(workflow::executeHelloWorld, "LoadTest");
+                    stub = WorkflowStub.fromTyped(workflow);
+                    break;
+                }
+                case ORCHESTRATION: {
+                    OrchestrationWorkflow workflow = client.newWorkflowStub(OrchestrationWorkflow.class,
+                            workflowOptions);
+                    WorkflowClient.start(workflow::orchestrateExternalApiCalls, "load-user", variant, null, null);
+                    stub = WorkflowStub.fromTyped(workflow);
+                    break;
+                }
+                default: {
+                    ApprovalWorkflow workflow = client.newWorkflowStub(ApprovalWorkflow.class, workflowOptions);
+                    WorkflowClient.start(workflow::processApprovalRequest, workflowOptions.getWorkflowId(),
+                            "ACCESS_REQUEST", "Load test access request for the reporting database",
+                            "load-requester@example.com", null, null);
+                    stub = WorkflowStub.fromTyped(workflow);
+                    signalScheduler.schedule(() -> clientPool.execute(() -> decide(workflow, variant, measured)),
+                            approvalThinkTime.toMillis(), TimeUnit.MILLISECONDS);
+                    break;
+                }
+            }
+            if (measured) {
+                report.record(scenario, LoadReport.Phase.START, System.nanoTime() - intended);
+            }
+            report.started(scenario, measured);
+
+            stub.getResultAsync(String.class).whenComplete((result, failure) -> {
+                if (failure == null) {
+                    if (measured) {
+                        report.record(scenario, LoadReport.Phase.COMPLETION, System.nanoTime() - intended);
+                    }
+                    report.completed(scenario, measured);
+                } else {
+                    report.failed(scenario, measured, failure);
+                }
+                inFlight.release();
+            });
+        } catch (RuntimeException e) {
+            report.failed(scenario, measured, e);
+            inFlight.release();
+        }
+    }
+
+    private void decide(ApprovalWorkflow workflow, boolean reject, boolean measured) {
+        long signalStart = System.nanoTime();
+        try {
+            if (reject) {
+                workflow.reject("load-approver@example.com", "Rejected by load test");
+            } else {
+                workflow.approve("load-approver@example.com", "Approved by load test");
+            }
+            if (measured) {
+                report.record(Scenario.APPROVAL, LoadReport.Phase.SIGNAL, System.nanoTime() - signalStart);
+            }
+        } catch (RuntimeException e) {
+            report.signalFailed(Scenario.APPROVAL, measured, e);
+        }
+    }
+
+    private void close() {
+        signalScheduler.shutdownNow();
+        clientPool.shutdownNow();
+        if (environment != null) {
+            environment.close();
+        }
+        if (notifications != null) {
+            notifications.stop();
+            auditLog.stop();
+            notificationJournal.delete();
+            auditLog.getPath().toFile().delete();
+            File[] details = approvalDetails.listFiles();
+            if (details != null) {
+                for (File file : details) {
+                    file.delete();
+                }
+            }
+            approvalDetails.delete();
+        }
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static Scenario[] parseMix(String mix) {
+        List<Scenario> weighted = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Scenario scenario = Scenario.fromId(parts[0]);
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("--mix selects no workflows");
+        }
+        return weighted.toArray(new Scenario[0]);
+    }
+
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim().toLowerCase();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(amount);
+            case 'm':
+                return Duration.ofMinutes(amount);
+            case 'h':
+                return Duration.ofHours(amount);
+            default:
+                throw new IllegalArgumentException("Invalid duration '" + value + "', expected e.g. 500ms, 30s or 5m");
+        }
+    }
+}
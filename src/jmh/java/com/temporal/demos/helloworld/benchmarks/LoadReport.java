@@ -0,0 +1,219 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.benchmarks.LoadGenerator.Scenario;
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and HdrHistogram latencies (microsecond resolution) collected by
+ * {@link LoadGenerator}. Written as a console table, load-report.json and one
+ * percentile distribution file per workflow and phase, which can be plotted
+ * with the HdrHistogram plotter.
+ */
+final class LoadReport {
+
+    enum Phase {
+        START("start"),
+        SCHEDULE_TO_START("schedule-to-start"),
+        SIGNAL("signal"),
+        COMPLETION("completion");
+
+        final String id;
+
+        Phase(String id) {
+            this.id = id;
+        }
+    }
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final Map<String, String> options;
+    private final Duration measuredDuration;
+    private final Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+    private volatile boolean measuring;
+
+    LoadReport(Map<String, String> options, Duration measuredDuration) {
+        this.options = options;
+        this.measuredDuration = measuredDuration;
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats());
+        }
+    }
+
+    void startMeasuring() {
+        measuring = true;
+    }
+
+    void record(Scenario scenario, Phase phase, long nanos) {
+        stats.get(scenario).latencies.get(phase).recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Activity schedule-to-start is observed in the worker, which cannot tell
+     * warmup workflows apart, so it is recorded from the end of the warmup on.
+     */
+    void recordScheduleToStart(Scenario scenario, long nanos) {
+        if (measuring) {
+            record(scenario, Phase.SCHEDULE_TO_START, nanos);
+        }
+    }
+
+    void started(Scenario scenario, boolean measured) {
+        if (measured) {
+            stats.get(scenario).started.increment();
+        }
+    }
+
+    void completed(Scenario scenario, boolean measured) {
+        if (measured) {
+            stats.get(scenario).completed.increment();
+        }
+    }
+
+    void failed(Scenario scenario, boolean measured, Throwable failure) {
+        if (measured) {
+            ScenarioStats scenarioStats = stats.get(scenario);
+            scenarioStats.failed.increment();
+            scenarioStats.failures.computeIfAbsent(rootCause(failure).getClass().getSimpleName(),
+                    key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * A failed approve/reject call is listed with the failures but not counted
+     * as a failed workflow; the workflow itself still completes or times out.
+     */
+    void signalFailed(Scenario scenario, boolean measured, Throwable failure) {
+        if (measured) {
+            stats.get(scenario).failures.computeIfAbsent("signal " + rootCause(failure).getClass().getSimpleName(),
+                    key -> new LongAdder()).increment();
+        }
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%-14s %8s %8s %8s %10s%n", "Workflow", "Started", "Done", "Failed", "Done/s");
+        for (Map.Entry<Scenario, ScenarioStats> entry : stats.entrySet()) {
+            ScenarioStats scenarioStats = entry.getValue();
+            if (scenarioStats.started.sum() == 0 && scenarioStats.failed.sum() == 0) {
+                continue;
+            }
+            out.printf("%-14s %8d %8d %8d %10.1f%n", entry.getKey().id, scenarioStats.started.sum(),
+                    scenarioStats.completed.sum(), scenarioStats.failed.sum(), throughput(scenarioStats));
+            for (Map.Entry<String, LongAdder> failure : new TreeMap<>(scenarioStats.failures).entrySet()) {
+                out.printf("%14s %s x%d%n", "", failure.getKey(), failure.getValue().sum());
+            }
+        }
+
+        out.printf("%n%-14s %-18s %8s %9s %9s %9s %9s %9s %9s%n", "Workflow", "Phase (ms)", "Count", "Mean",
+                "p50", "p90", "p99", "p99.9", "Max");
+        for (Map.Entry<Scenario, ScenarioStats> entry : stats.entrySet()) {
+            for (Map.Entry<Phase, Histogram> latency : entry.getValue().latencies.entrySet()) {
+                Histogram histogram = latency.getValue();
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                out.printf("%-14s %-18s %8d %9.2f", entry.getKey().id, latency.getKey().id,
+                        histogram.getTotalCount(), histogram.getMean() / 1000.0);
+                for (double percentile : PERCENTILES) {
+                    out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+                }
+                out.printf(" %9.2f%n", histogram.getMaxValue() / 1000.0);
+            }
+        }
+    }
+
+    void write(File directory) throws IOException {
+        Files.createDirectories(directory.toPath());
+
+        JsonResultWriter json = JsonResultWriter.forCurrentThread().beginObject();
+        json.name("options").beginObject();
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            json.field(option.getKey(), option.getValue());
+        }
+        json.endObject();
+        json.field("measuredSeconds", measuredDuration.toMillis() / 1000.0, 3);
+        json.name("workflows").beginArray();
+        for (Map.Entry<Scenario, ScenarioStats> entry : stats.entrySet()) {
+            ScenarioStats scenarioStats = entry.getValue();
+            json.beginObject()
+                    .field("workflow", entry.getKey().id)
+                    .field("started", scenarioStats.started.sum())
+                    .field("completed", scenarioStats.completed.sum())
+                    .field("failed", scenarioStats.failed.sum())
+                    .field("completedPerSecond", throughput(scenarioStats), 3);
+            json.name("failures").beginObject();
+            for (Map.Entry<String, LongAdder> failure : new TreeMap<>(scenarioStats.failures).entrySet()) {
+                json.field(failure.getKey(), failure.getValue().sum());
+            }
+            json.endObject();
+            json.name("latencyMillis").beginObject();
+            for (Map.Entry<Phase, Histogram> latency : scenarioStats.latencies.entrySet()) {
+                Histogram histogram = latency.getValue();
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                json.name(latency.getKey().id).beginObject()
+                        .field("count", histogram.getTotalCount())
+                        .field("mean", histogram.getMean() / 1000.0, 3);
+                for (double percentile : PERCENTILES) {
+                    json.field("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile)
+                            : String.valueOf(percentile)), histogram.getValueAtPercentile(percentile) / 1000.0, 3);
+                }
+                json.field("max", histogram.getMaxValue() / 1000.0, 3).endObject();
+
+                try (PrintStream distribution = new PrintStream(
+                        new File(directory, entry.getKey().id + "-" + latency.getKey().id + ".hgrm"),
+                        StandardCharsets.UTF_8)) {
+                    histogram.outputPercentileDistribution(distribution, 1000.0);
+                }
+            }
+            json.endObject().endObject();
+        }
+        json.endArray().endObject();
+
+        File reportFile = new File(directory, "load-report.json");
+        Files.write(reportFile.toPath(), json.toJson().getBytes(StandardCharsets.UTF_8));
+        System.out.printf("%nReport written to %s%n", reportFile.getPath());
+    }
+
+    private double throughput(ScenarioStats scenarioStats) {
+        return scenarioStats.completed.sum() / (measuredDuration.toMillis() / 1000.0);
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static final class ScenarioStats {
+
+        final Map<Phase, Histogram> latencies = new EnumMap<>(Phase.class);
+        final LongAdder started = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+        ScenarioStats() {
+            for (Phase phase : Phase.values()) {
+                latencies.put(phase, new ConcurrentHistogram(3));
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import io.temporal.testserver.TestServer;
+
+/**
+ * Runs the in-memory Temporal test server on a local port until killed, as a
+ * lightweight frontend for multi-process tests such as scale-out-test.sh.
+ * Time skipping is locked, so timers fire in real time as they would on a
+ * real server.
+ *
+ * Usage: LocalTestServer [port]   (default 7233)
+ */
+public class LocalTestServer {
+
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7233;
+        TestServer.createPortBoundServer(port, true);
+        System.out.println("Temporal test server listening on localhost:" + port);
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,134 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.models.OrchestrationProgress;
+import com.temporal.demos.helloworld.models.PaymentStatusResult;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflow;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflowImpl;
+import io.temporal.activity.Activity;
+import io.temporal.api.history.v1.History;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs one async-payment orchestration whose payment stays processing for
+ * many poll rounds, twice: once with a small history budget, so it continues
+ * as new along the way, and once with no budget. Fails unless both return
+ * the same result, and prints the runs and history size of each.
+ *
+ *   mvn -Pbenchmarks test-compile exec:exec@orchestration-history -Dhistory-guard.args="--polls=500"
+ *
+ * Options (--name=value):
+ *   --polls=300        poll attempts that see the payment still processing;
+ *                      each poll round is 10 attempts
+ *   --max-events=200   history budget of the first orchestration
+ *
+ * Timers and retry backoff are fast-forwarded by the in-process test server.
+ */
+public class OrchestrationHistoryGuard {
+
+    private static final String TASK_QUEUE = "orchestration-history-guard";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Unrecognised argument '" + arg + "', expected --name=value "
+                        + "(see the OrchestrationHistoryGuard class comment for the option list)");
+                System.exit(2);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        int polls = Integer.parseInt(options.getOrDefault("polls", "300"));
+        int maxEvents = Integer.parseInt(options.getOrDefault("max-events", "200"));
+
+        TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                        .setDataConverter(CompactPayloadConverter.newDataConverter())
+                        .build())
+                .build());
+        // Poll attempts per workflow ID, across every run of it
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        Worker worker = environment.newWorker(TASK_QUEUE);
+        worker.registerWorkflowImplementationTypes(OrchestrationWorkflowImpl.class);
+        worker.registerActivitiesImplementations(new InstantActivities.ExternalApi(5, 0) {
+            @Override
+            public PaymentStatusResult pollPaymentStatus(String paymentId) {
+                String workflowId = Activity.getExecutionContext().getInfo().getWorkflowId();
+                int attempt = attempts.computeIfAbsent(workflowId, id -> new AtomicInteger()).incrementAndGet();
+                if (attempt <= polls) {
+                    throw ApplicationFailure.newFailure("Payment " + paymentId + " is still processing. Poll #"
+                            + attempt, PAYMENT_STILL_PROCESSING);
+                }
+                return new PaymentStatusResult(paymentId, "COMPLETED", attempt, "txn-" + attempt);
+            }
+        });
+        environment.start();
+        WorkflowClient client = environment.getWorkflowClient();
+
+        try {
+            String budgeted = orchestrate(client, "history-guard-budgeted",
+                    OrchestrationProgress.withHistoryBudget(maxEvents, 0));
+            String unbounded = orchestrate(client, "history-guard-unbounded",
+                    OrchestrationProgress.withHistoryBudget(Integer.MAX_VALUE, Long.MAX_VALUE));
+            if (!budgeted.equals(unbounded)) {
+                throw new IllegalStateException("Results differ:\n  budgeted:  " + budgeted
+                        + "\n  unbounded: " + unbounded);
+            }
+
+            System.out.printf("%nPayment still processing for %d polls, history budget %d events%n", polls,
+                    maxEvents);
+            printRuns(client, "history-guard-budgeted");
+            printRuns(client, "history-guard-unbounded");
+            System.out.printf("  results identical:  %s%n", budgeted);
+        } finally {
+            environment.close();
+        }
+        System.exit(0);
+    }
+
+    private static String orchestrate(WorkflowClient client, String workflowId, OrchestrationProgress budget) {
+        OrchestrationWorkflow workflow = client.newWorkflowStub(OrchestrationWorkflow.class,
+                WorkflowOptions.newBuilder()
+                        .setWorkflowId(workflowId)
+                        .setTaskQueue(TASK_QUEUE)
+                        .build());
+        return workflow.orchestrateExternalApiCalls("history-guard-user", true, budget, null);
+    }
+
+    /**
+     * Follows the continue-as-new chain back from the last run and prints
+     * the history size of each run.
+     */
+    private static void printRuns(WorkflowClient client, String workflowId) {
+        StringBuilder runs = new StringBuilder();
+        int runCount = 0;
+        int largestEvents = 0;
+        int largestBytes = 0;
+        String runId = null;
+        do {
+            History history = (runId == null
+                    ? client.fetchHistory(workflowId)
+                    : client.fetchHistory(workflowId, runId)).getHistory();
+            runs.insert(0, history.getEventsCount() + " ");
+            runCount++;
+            largestEvents = Math.max(largestEvents, history.getEventsCount());
+            largestBytes = Math.max(largestBytes, history.getSerializedSize());
+            runId = history.getEvents(0).getWorkflowExecutionStartedEventAttributes().getContinuedExecutionRunId();
+        } while (!runId.isEmpty());
+
+        System.out.printf("  %s: %d runs (events per run: %s), largest %d events / %,d bytes%n", workflowId,
+                runCount, runs.toString().trim(), largestEvents, largestBytes);
+    }
+}
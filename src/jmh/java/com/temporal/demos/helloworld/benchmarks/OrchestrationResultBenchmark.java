@@ -0,0 +1,102 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.models.NotificationServiceResult;
+import com.temporal.demos.helloworld.models.OrderServiceResult;
+import com.temporal.demos.helloworld.models.PaymentServiceResult;
+import com.temporal.demos.helloworld.models.RecommendationServiceResult;
+import com.temporal.demos.helloworld.models.ServiceResult;
+import com.temporal.demos.helloworld.models.UserServiceResult;
+import com.temporal.demos.helloworld.utils.OrchestrationResults;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orchestration result assembly: the original String.format + ArrayList +
+ * default-sized StringBuilder path against {@link OrchestrationResults}.
+ * Run with "-prof gc" to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrchestrationResultBenchmark {
+
+    private static final String USER_ID = "user-123";
+
+    private final ServiceResult[] results = {
+            new UserServiceResult(USER_ID, "John Doe", "john.doe@example.com"),
+            new OrderServiceResult(USER_ID, 5, 1250.50),
+            new PaymentServiceResult(USER_ID, "**** 1234", 750),
+            new NotificationServiceResult(USER_ID, 3),
+            new RecommendationServiceResult(USER_ID, List.of("Product A", "Product B", "Product C")) };
+
+    private final String paymentInitJson = String.format(
+            "{\"service\":\"AsyncPaymentService\",\"paymentId\":\"%s\",\"userId\":\"%s\",\"amount\":%.2f,\"status\":\"INITIATED\"}",
+            "payment-0b6f8d1e-8a8e-4c62-9f0e-2f4f5d1c9a77", USER_ID, 150.75);
+
+    @Benchmark
+    public String legacyCompile() {
+        // Activities built their results with String.format before typed results
+        String user = String.format(
+                "{\"service\":\"UserService\",\"userId\":\"%s\",\"name\":\"John Doe\",\"email\":\"john.doe@example.com\"}",
+                USER_ID);
+        String order = String.format(
+                "{\"service\":\"OrderService\",\"userId\":\"%s\",\"totalOrders\":5,\"totalAmount\":1250.50}", USER_ID);
+        String payment = String.format(
+                "{\"service\":\"PaymentService\",\"userId\":\"%s\",\"defaultMethod\":\"**** 1234\",\"creditScore\":750}",
+                USER_ID);
+        String notification = String.format(
+                "{\"service\":\"NotificationService\",\"userId\":\"%s\",\"unreadCount\":3}", USER_ID);
+        String recommendation = String.format(
+                "{\"service\":\"RecommendationService\",\"userId\":\"%s\",\"recommendations\":[\"Product A\",\"Product B\",\"Product C\"]}",
+                USER_ID);
+
+        List<String> allResults = new ArrayList<>();
+        allResults.add(user);
+        allResults.add(order);
+        allResults.add(payment);
+        allResults.add(notification);
+        allResults.add(recommendation);
+
+        StringBuilder result = new StringBuilder();
+        result.append("{");
+        result.append("\"orchestrationResult\":{");
+        result.append("\"userId\":\"").append(USER_ID).append("\",");
+        result.append("\"totalServices\":").append(allResults.size()).append(",");
+        result.append("\"paymentMode\":\"").append("sync").append("\",");
+        result.append("\"services\":[");
+        for (int i = 0; i < allResults.size(); i++) {
+            if (i > 0)
+                result.append(",");
+            result.append(allResults.get(i));
+        }
+        result.append("]}");
+        result.append("}");
+        return result.toString();
+    }
+
+    @Benchmark
+    public String compile() {
+        return OrchestrationResults.compile(USER_ID, false, results);
+    }
+
+    @Benchmark
+    public String legacyExtractPaymentId() {
+        int startIndex = paymentInitJson.indexOf("\"paymentId\":\"") + 13;
+        int endIndex = paymentInitJson.indexOf("\"", startIndex);
+        return paymentInitJson.substring(startIndex, endIndex);
+    }
+}
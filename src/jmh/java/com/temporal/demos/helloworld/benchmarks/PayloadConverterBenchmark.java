@@ -0,0 +1,98 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.models.NotificationServiceResult;
+import com.temporal.demos.helloworld.models.OrderServiceResult;
+import com.temporal.demos.helloworld.models.PaymentServiceResult;
+import com.temporal.demos.helloworld.models.RecommendationServiceResult;
+import com.temporal.demos.helloworld.models.ServiceResult;
+import com.temporal.demos.helloworld.models.UserServiceResult;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost and payload size of the orchestration's activity results.
+ *
+ * "legacy" is the format before typed results: hand-built JSON strings
+ * through the default JSON converter. "json" is the typed models through the
+ * default JSON converter and "compact" the typed models through
+ * {@link CompactPayloadConverter}. Payload bytes per format are printed during
+ * setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadConverterBenchmark {
+
+    @Param({ "legacy", "json", "compact" })
+    public String format;
+
+    private DataConverter dataConverter;
+    private Object[] values;
+    private Class<?>[] types;
+    private Payload[] payloads;
+
+    @Setup
+    public void setup() {
+        List<ServiceResult> results = List.of(
+                new UserServiceResult("user-123", "John Doe", "john.doe@example.com"),
+                new OrderServiceResult("user-123", 5, 1250.50),
+                new PaymentServiceResult("user-123", "**** 1234", 750),
+                new NotificationServiceResult("user-123", 3),
+                new RecommendationServiceResult("user-123", List.of("Product A", "Product B", "Product C")));
+
+        values = new Object[results.size()];
+        types = new Class<?>[results.size()];
+        for (int i = 0; i < results.size(); i++) {
+            boolean legacy = "legacy".equals(format);
+            values[i] = legacy ? results.get(i).toJson() : results.get(i);
+            types[i] = values[i].getClass();
+        }
+
+        dataConverter = "compact".equals(format)
+                ? CompactPayloadConverter.newDataConverter()
+                : DefaultDataConverter.newDefaultInstance();
+
+        payloads = new Payload[values.length];
+        long totalBytes = 0;
+        for (int i = 0; i < values.length; i++) {
+            payloads[i] = dataConverter.toPayload(values[i]).orElseThrow();
+            totalBytes += payloads[i].getSerializedSize();
+        }
+        System.out.printf("%n[%s] activity result payload bytes: %d%n", format, totalBytes);
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) {
+        for (Object value : values) {
+            blackhole.consume(dataConverter.toPayload(value));
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void decode(Blackhole blackhole) {
+        for (int i = 0; i < payloads.length; i++) {
+            blackhole.consume(dataConverter.fromPayload(payloads[i], (Class) types[i], types[i]));
+        }
+    }
+}
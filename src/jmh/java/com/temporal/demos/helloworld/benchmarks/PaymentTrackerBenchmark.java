@@ -0,0 +1,71 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.activities.PaymentTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PaymentTracker} under contention: every thread runs full payment
+ * lifecycles (initiate, three polls, finish) against one shared tracker, and
+ * all threads also poll one shared hot payment.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class PaymentTrackerBenchmark {
+
+    private static final String HOT_PAYMENT_ID = "payment-hot";
+
+    @State(Scope.Benchmark)
+    public static class SharedTracker {
+        final PaymentTracker tracker = new PaymentTracker();
+
+        @Setup
+        public void setup() {
+            tracker.initiate(HOT_PAYMENT_ID, "user-hot", 10.0, Integer.MAX_VALUE / 2);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PaymentIds {
+        String prefix;
+        long next;
+
+        @Setup
+        public void setup(ThreadParams threadParams) {
+            prefix = "payment-" + threadParams.getThreadIndex() + "-";
+        }
+    }
+
+    @Benchmark
+    public OptionalInt paymentLifecycle(SharedTracker shared, PaymentIds ids) {
+        String paymentId = ids.prefix + ids.next++;
+        shared.tracker.initiate(paymentId, "user", 150.75, 3);
+        shared.tracker.recordPoll(paymentId);
+        shared.tracker.recordPoll(paymentId);
+        OptionalInt pollCount = shared.tracker.recordPoll(paymentId);
+        shared.tracker.finish(paymentId);
+        return pollCount;
+    }
+
+    @Benchmark
+    public OptionalInt pollHotPayment(SharedTracker shared) {
+        return shared.tracker.recordPoll(HOT_PAYMENT_ID);
+    }
+}
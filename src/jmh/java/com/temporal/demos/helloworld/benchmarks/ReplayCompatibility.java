@@ -0,0 +1,340 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.converters.CompressionAlgorithm;
+import com.temporal.demos.helloworld.converters.CompressionPayloadCodec;
+import com.temporal.demos.helloworld.models.ApprovalPolicy;
+import com.temporal.demos.helloworld.models.ApprovalVote;
+import com.temporal.demos.helloworld.models.OrchestrationProgress;
+import com.temporal.demos.helloworld.activities.PrewarmActivities;
+import com.temporal.demos.helloworld.models.PartialResultsPolicy;
+import com.temporal.demos.helloworld.models.PaymentStatusResult;
+import com.temporal.demos.helloworld.models.PrewarmPlan;
+import com.temporal.demos.helloworld.models.PrewarmedResults;
+import com.temporal.demos.helloworld.models.RecommendationServiceResult;
+import com.temporal.demos.helloworld.workflows.ApprovalSearchAttributes;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflow;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.HelloWorldWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflow;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.PrewarmWorkflow;
+import com.temporal.demos.helloworld.workflows.PrewarmWorkflowImpl;
+import io.temporal.activity.Activity;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.common.converter.CodecDataConverter;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.serviceclient.WorkflowServiceStubs;
+import io.temporal.serviceclient.WorkflowServiceStubsOptions;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowReplayer;
+import io.temporal.worker.Worker;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Replays captured workflow histories against the current workflow code and
+ * fails if any of them no longer replays, i.e. if a change to a workflow's
+ * steps would break executions still running on an older version.
+ *
+ *   mvn -Pbenchmarks test-compile exec:exec@replay-check
+ *
+ * Histories live under src/jmh/histories, one directory per workflow
+ * version, one JSON file per run; WorkflowReplayTest replays the same files
+ * in mvn test. 00-baseline was captured from the code that predates the
+ * typed results, whose activities returned JSON strings. Before changing a
+ * workflow, capture the current version:
+ *
+ *   mvn -Pbenchmarks test-compile exec:exec@replay-check -Dreplay.args="--capture=09-my-change"
+ *
+ * Options (--name=value):
+ *   --dir=src/jmh/histories  where histories are read from and captured to
+ *   --capture=name           run the scenarios below with the current code and
+ *                            save their histories under dir/name instead
+ *   --target=host:port       with --capture and --workflow-ids, fetch every run
+ *                            of those executions from a live frontend instead
+ *   --workflow-ids=a,b
+ *
+ * The scenarios cover completed, in-flight and continued-as-new executions
+ * of both long-running workflows, and a pre-warm run; timers are
+ * fast-forwarded by the in-process test server.
+ */
+public class ReplayCompatibility {
+
+    private static final String TASK_QUEUE = "replay-compatibility";
+
+    private static final ApprovalPolicy POLICY = new ApprovalPolicy(
+            Duration.ofHours(4).getSeconds(), Duration.ofHours(12).getSeconds(), Duration.ofHours(24).getSeconds());
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Unrecognised argument '" + arg + "', expected --name=value "
+                        + "(see the ReplayCompatibility class comment for the option list)");
+                System.exit(2);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        Path dir = Paths.get(options.getOrDefault("dir", "src/jmh/histories"));
+        String capture = options.get("capture");
+
+        int status;
+        if (capture == null) {
+            status = replayAll(dir);
+        } else if (options.containsKey("target")) {
+            fetch(options.get("target"), options.getOrDefault("workflow-ids", "").split(","), dir.resolve(capture));
+            status = 0;
+        } else {
+            captureScenarios(dir.resolve(capture));
+            status = 0;
+        }
+        System.exit(status);
+    }
+
+    private static int replayAll(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(file -> file.toString().endsWith(".json")).sorted().toList();
+        }
+        TestWorkflowEnvironment environment = newEnvironment();
+        Worker worker = environment.newWorker(TASK_QUEUE);
+        worker.registerWorkflowImplementationTypes(OrchestrationWorkflowImpl.class, ApprovalWorkflowImpl.class,
+                HelloWorldWorkflowImpl.class, PrewarmWorkflowImpl.class);
+
+        List<String> failed = new ArrayList<>();
+        try {
+            for (Path file : files) {
+                String name = dir.relativize(file).toString();
+                // Replayed under its own workflow ID, which workflows may derive child IDs from
+                String workflowId = file.getFileName().toString().replaceFirst("-run\\d+\\.json$", "");
+                WorkflowExecutionHistory history = WorkflowExecutionHistory.fromJson(
+                        Files.readString(file, StandardCharsets.UTF_8), workflowId);
+                try {
+                    WorkflowReplayer.replayWorkflowExecution(history, worker);
+                    System.out.printf("  ok      %s (%d events)%n", name, history.getEvents().size());
+                } catch (Exception e) {
+                    failed.add(name);
+                    System.out.printf("  FAILED  %s: %s%n", name, describe(e));
+                }
+            }
+        } finally {
+            environment.close();
+        }
+        System.out.printf("%n%d of %d histories replay against the current workflow code%n",
+                files.size() - failed.size(), files.size());
+        if (!failed.isEmpty()) {
+            System.out.println("Keep the old steps behind Workflow.getVersion (see WorkflowVersions) for: " + failed);
+            return 1;
+        }
+        return 0;
+    }
+
+    private static void captureScenarios(Path out) throws Exception {
+        TestWorkflowEnvironment environment = newEnvironment();
+        ApprovalSearchAttributes.ALL.forEach(key -> environment.registerSearchAttribute(key.getName(),
+                key.getValueType()));
+        // Poll attempts per workflow; poll-rounds stays processing past one round of retries
+        Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+        Map<String, CountDownLatch> notified = new ConcurrentHashMap<>();
+        Worker worker = environment.newWorker(TASK_QUEUE);
+        worker.registerWorkflowImplementationTypes(OrchestrationWorkflowImpl.class, ApprovalWorkflowImpl.class,
+                PrewarmWorkflowImpl.class);
+        worker.registerActivitiesImplementations(new InstantActivities.ExternalApi(3, 0) {
+            @Override
+            public PaymentStatusResult pollPaymentStatus(String paymentId) {
+                String workflowId = Activity.getExecutionContext().getInfo().getWorkflowId();
+                int poll = polls.computeIfAbsent(workflowId, id -> new AtomicInteger()).incrementAndGet();
+                if (poll <= (workflowId.equals("orchestration-poll-rounds") ? 12 : 2)) {
+                    throw ApplicationFailure.newFailure("Payment " + paymentId + " is still processing. Poll #"
+                            + poll, PAYMENT_STILL_PROCESSING);
+                }
+                return new PaymentStatusResult(paymentId, "COMPLETED", poll, "txn-" + poll);
+            }
+
+            @Override
+            public RecommendationServiceResult callRecommendationService(String userId) {
+                if (Activity.getExecutionContext().getInfo().getWorkflowId().equals("orchestration-partial")) {
+                    throw new IllegalStateException("Recommendations unavailable");
+                }
+                return super.callRecommendationService(userId);
+            }
+        }, new InstantActivities.Approval() {
+            @Override
+            public void notifyApprovers(String requestId, String requestDetails, String requesterEmail) {
+                notified.computeIfAbsent(requestId, id -> new CountDownLatch(1)).countDown();
+            }
+        }, new PrewarmActivities() {
+            @Override
+            public void storePrewarmedResults(PrewarmedResults results) {
+            }
+        });
+        environment.start();
+        WorkflowClient client = environment.getWorkflowClient();
+
+        try {
+            orchestration(client, "orchestration-sync").orchestrateExternalApiCalls("replay-user", false, null,
+                    null);
+            orchestration(client, "orchestration-async").orchestrateExternalApiCalls("replay-user", true, null,
+                    null);
+            orchestration(client, "orchestration-poll-rounds").orchestrateExternalApiCalls("replay-user", true,
+                    OrchestrationProgress.withHistoryBudget(20, 0), null);
+            orchestration(client, "orchestration-partial").orchestrateExternalApiCalls("replay-user", false, null,
+                    new PartialResultsPolicy(20_000, 0, 5_000, 1_000));
+            client.newWorkflowStub(PrewarmWorkflow.class, WorkflowOptions.newBuilder()
+                    .setWorkflowId("prewarm-orchestrations")
+                    .setTaskQueue(TASK_QUEUE)
+                    .build()).prewarm(new PrewarmPlan(List.of("replay-user", "replay-user-2")));
+
+            ApprovalWorkflow approved = startApproval(client, "approval-approved", POLICY, notified);
+            approved.approve("approver@example.com", "Looks good");
+            ApprovalWorkflow rejected = startApproval(client, "approval-rejected", POLICY, notified);
+            rejected.reject("approver@example.com", "Not needed");
+            ApprovalWorkflow quorum = startApproval(client, "approval-quorum", new ApprovalPolicy(
+                    POLICY.getReminderIntervalSeconds(), POLICY.getEscalateAfterSeconds(), POLICY.getTimeoutSeconds(),
+                    2, List.of("a@example.com", "b@example.com", "c@example.com")), notified);
+            quorum.decide(new ApprovalVote("a@example.com", true, "Yes", "vote-a"));
+            quorum.decide(new ApprovalVote("b@example.com", true, "Yes", "vote-b"));
+            startApproval(client, "approval-timeout", POLICY, notified);
+            for (String workflowId : List.of("approval-approved", "approval-rejected", "approval-quorum",
+                    "approval-timeout")) {
+                client.newUntypedWorkflowStub(workflowId).getResult(String.class);
+            }
+            // Left waiting, so its history ends mid-execution
+            startApproval(client, "approval-waiting", POLICY, notified);
+            Thread.sleep(1000);
+
+            for (String workflowId : List.of("orchestration-sync", "orchestration-async",
+                    "orchestration-poll-rounds", "orchestration-partial", "prewarm-orchestrations",
+                    "approval-approved", "approval-rejected", "approval-quorum", "approval-timeout",
+                    "approval-waiting")) {
+                saveRuns(client, workflowId, out);
+            }
+        } finally {
+            environment.close();
+        }
+    }
+
+    private static void fetch(String target, String[] workflowIds, Path out) throws IOException {
+        WorkflowServiceStubs service = WorkflowServiceStubs.newServiceStubs(WorkflowServiceStubsOptions.newBuilder()
+                .setTarget(target)
+                .build());
+        WorkflowClient client = WorkflowClient.newInstance(service, WorkflowClientOptions.newBuilder()
+                .setDataConverter(dataConverter())
+                .build());
+        try {
+            for (String workflowId : workflowIds) {
+                if (!workflowId.isBlank()) {
+                    saveRuns(client, workflowId.trim(), out);
+                }
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    /**
+     * Writes every run of workflowId, following the continue-as-new chain
+     * back from the latest, as workflowId-runN.json.
+     */
+    private static void saveRuns(WorkflowClient client, String workflowId, Path out) throws IOException {
+        List<WorkflowExecutionHistory> runs = new ArrayList<>();
+        String runId = null;
+        do {
+            WorkflowExecutionHistory run = runId == null
+                    ? client.fetchHistory(workflowId)
+                    : client.fetchHistory(workflowId, runId);
+            runs.add(run);
+            runId = run.getEvents().get(0).getWorkflowExecutionStartedEventAttributes().getContinuedExecutionRunId();
+        } while (!runId.isEmpty());
+        Collections.reverse(runs);
+
+        Files.createDirectories(out);
+        for (int i = 0; i < runs.size(); i++) {
+            Path file = out.resolve(workflowId + "-run" + (i + 1) + ".json");
+            Files.writeString(file, runs.get(i).toJson(true), StandardCharsets.UTF_8);
+            System.out.printf("  captured %s (%d events)%n", file, runs.get(i).getEvents().size());
+        }
+    }
+
+    private static OrchestrationWorkflow orchestration(WorkflowClient client, String workflowId) {
+        return client.newWorkflowStub(OrchestrationWorkflow.class, WorkflowOptions.newBuilder()
+                .setWorkflowId(workflowId)
+                .setTaskQueue(TASK_QUEUE)
+                .build());
+    }
+
+    /**
+     * Starts an approval and returns a stub for deciding it once its
+     * approvers have been notified.
+     */
+    private static ApprovalWorkflow startApproval(WorkflowClient client, String workflowId, ApprovalPolicy policy,
+            Map<String, CountDownLatch> notified) throws InterruptedException {
+        ApprovalWorkflow approval = client.newWorkflowStub(ApprovalWorkflow.class, WorkflowOptions.newBuilder()
+                .setWorkflowId(workflowId)
+                .setTaskQueue(TASK_QUEUE)
+                .build());
+        WorkflowClient.start(approval::processApprovalRequest, workflowId, "ACCESS_REQUEST",
+                "Access to the replay test environment", "requester@example.com", policy, null);
+        if (!notified.computeIfAbsent(workflowId, id -> new CountDownLatch(1)).await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Approvers of " + workflowId + " were never notified");
+        }
+        // A continued run takes over by workflow ID once the notifying run finishes
+        Thread.sleep(200);
+        return client.newWorkflowStub(ApprovalWorkflow.class, workflowId);
+    }
+
+    /**
+     * The application's default converter: compact payloads, deflated above
+     * 1 KB. Histories written with the JSON format or without compression
+     * decode with it too.
+     */
+    private static DataConverter dataConverter() {
+        return new CodecDataConverter(CompactPayloadConverter.newDataConverter(),
+                List.of(new CompressionPayloadCodec(CompressionAlgorithm.DEFLATE, 1024)));
+    }
+
+    private static TestWorkflowEnvironment newEnvironment() {
+        return TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                        .setDataConverter(dataConverter())
+                        .build())
+                .build());
+    }
+
+    /**
+     * The replay failure's error, usually a NonDeterministicException naming
+     * the event that no longer matches. The replayer reports it inside the
+     * message of a query failure rather than as its cause.
+     */
+    private static String describe(Exception e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        String message = String.valueOf(cause.getMessage());
+        int error = message.indexOf("error=");
+        return error < 0 ? message : message.substring(error + "error=".length());
+    }
+}
@@ -0,0 +1,131 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.models.ApprovalPolicy;
+import com.temporal.demos.helloworld.workflows.ApprovalSearchAttributes;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflow;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflow;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflowImpl;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowReplayer;
+import io.temporal.worker.Worker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of replaying a workflow from scratch, which is what the worker pays
+ * for every sticky cache miss or eviction. Run with "-prof gc" for allocation
+ * per replay.
+ *
+ * Histories are generated once per trial on the in-memory test server:
+ * orchestrations whose payment poll fails up to {@code historyScale} times
+ * (capped below the polling retry limit) and whose recommendation list grows
+ * with it, and approvals that waited 23 hours
+ * and then received {@code historyScale} duplicate approve signals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkflowReplayBenchmark {
+
+    private static final String TASK_QUEUE = "replay-benchmark";
+
+    @Param({ "orchestration-sync", "orchestration-async", "approval" })
+    public String workflow;
+
+    @Param({ "1", "10", "50" })
+    public int historyScale;
+
+    private WorkflowExecutionHistory history;
+    private TestWorkflowEnvironment replayEnvironment;
+    private Worker replayWorker;
+
+    @Setup(Level.Trial)
+    public void generateHistory() {
+        TestWorkflowEnvironment environment = newEnvironment();
+        ApprovalSearchAttributes.ALL.forEach(key -> environment.registerSearchAttribute(key.getName(),
+                key.getValueType()));
+        Worker worker = environment.newWorker(TASK_QUEUE);
+        worker.registerWorkflowImplementationTypes(OrchestrationWorkflowImpl.class, ApprovalWorkflowImpl.class);
+        worker.registerActivitiesImplementations(
+                new InstantActivities.ExternalApi(10 * historyScale, Math.min(historyScale, 9)),
+                new InstantActivities.Approval());
+        environment.start();
+
+        WorkflowClient client = environment.getWorkflowClient();
+        String workflowId = workflow + "-" + historyScale;
+        WorkflowOptions options = WorkflowOptions.newBuilder()
+                .setWorkflowId(workflowId)
+                .setTaskQueue(TASK_QUEUE)
+                .build();
+
+        if ("approval".equals(workflow)) {
+            ApprovalWorkflow approval = client.newWorkflowStub(ApprovalWorkflow.class, options);
+            // No reminders or escalation, so the whole wait stays in one run's history
+            WorkflowClient.start(approval::processApprovalRequest, "req-" + historyScale, "ACCESS_REQUEST",
+                    "Read access to the reporting database", "requester@example.com",
+                    new ApprovalPolicy(0, 0, Duration.ofHours(24).getSeconds()), null);
+            environment.sleep(Duration.ofHours(23));
+            ApprovalWorkflow running = client.newWorkflowStub(ApprovalWorkflow.class, workflowId);
+            for (int i = 0; i < historyScale; i++) {
+                running.approve("approver@example.com", "Approved (signal " + i + ")");
+            }
+            client.newUntypedWorkflowStub(workflowId).getResult(String.class);
+        } else {
+            OrchestrationWorkflow orchestration = client.newWorkflowStub(OrchestrationWorkflow.class, options);
+            orchestration.orchestrateExternalApiCalls("user-" + historyScale,
+                    "orchestration-async".equals(workflow), null, null);
+        }
+
+        history = client.fetchHistory(workflowId);
+        System.out.printf("%n[%s, scale %d] history events: %d, bytes: %d%n", workflow, historyScale,
+                history.getEvents().size(), history.getHistory().getSerializedSize());
+        environment.close();
+
+        replayEnvironment = newEnvironment();
+        replayWorker = replayEnvironment.newWorker(TASK_QUEUE);
+        replayWorker.registerWorkflowImplementationTypes(OrchestrationWorkflowImpl.class,
+                ApprovalWorkflowImpl.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeEnvironment() {
+        replayEnvironment.close();
+    }
+
+    @Benchmark
+    public void replay() throws Exception {
+        WorkflowReplayer.replayWorkflowExecution(history, replayWorker);
+    }
+
+    private static TestWorkflowEnvironment newEnvironment() {
+        return TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                        .setDataConverter(CompactPayloadConverter.newDataConverter())
+                        .build())
+                .build());
+    }
+}
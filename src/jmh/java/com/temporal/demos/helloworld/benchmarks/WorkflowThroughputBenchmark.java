@@ -0,0 +1,90 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.temporal.demos.helloworld.activities.HelloWorldActivitiesImpl;
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.workflows.HelloWorldWorkflow;
+import com.temporal.demos.helloworld.workflows.HelloWorldWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflow;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflowImpl;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end workflow executions per second on the in-memory test server,
+ * with the production workflow code and sleep-free activities. Several
+ * benchmark threads act as concurrent API clients.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class WorkflowThroughputBenchmark {
+
+    private static final String TASK_QUEUE = "throughput-benchmark";
+
+    private TestWorkflowEnvironment environment;
+    private WorkflowClient client;
+
+    @Setup(Level.Trial)
+    public void startEnvironment() {
+        environment = TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                        .setDataConverter(CompactPayloadConverter.newDataConverter())
+                        .build())
+                .build());
+        Worker worker = environment.newWorker(TASK_QUEUE);
+        worker.registerWorkflowImplementationTypes(HelloWorldWorkflowImpl.class, OrchestrationWorkflowImpl.class);
+        worker.registerActivitiesImplementations(new HelloWorldActivitiesImpl(),
+                new InstantActivities.ExternalApi(3, 0));
+        environment.start();
+        client = environment.getWorkflowClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeEnvironment() {
+        environment.close();
+    }
+
+    @Benchmark
+    public String helloWorld() {
+        HelloWorldWorkflow workflow = client.newWorkflowStub(HelloWorldWorkflow.class, newOptions("hello-world-"));
+        return workflow.executeHelloWorld("Benchmark");
+    }
+
+    @Benchmark
+    public String orchestration() {
+        OrchestrationWorkflow workflow = client.newWorkflowStub(OrchestrationWorkflow.class,
+                newOptions("orchestration-"));
+        return workflow.orchestrateExternalApiCalls("user-123", false, null, null);
+    }
+
+    private static WorkflowOptions newOptions(String prefix) {
+        return WorkflowOptions.newBuilder()
+                .setWorkflowId(prefix + UUID.randomUUID())
+                .setTaskQueue(TASK_QUEUE)
+                .build();
+    }
+}
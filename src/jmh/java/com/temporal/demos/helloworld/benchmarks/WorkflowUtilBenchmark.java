@@ -0,0 +1,44 @@
+package com.temporal.demos.helloworld.benchmarks;
+
+import com.google.protobuf.Timestamp;
+import com.temporal.demos.helloworld.utils.WorkflowUtil;
+import io.temporal.api.common.v1.WorkflowType;
+import io.temporal.api.enums.v1.WorkflowExecutionStatus;
+import io.temporal.api.workflow.v1.WorkflowExecutionInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response map building behind the status and result endpoints, using a
+ * completed execution so both timestamps are formatted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkflowUtilBenchmark {
+
+    private final WorkflowExecutionInfo executionInfo = WorkflowExecutionInfo.newBuilder()
+            .setType(WorkflowType.newBuilder().setName("OrchestrationWorkflow"))
+            .setStatus(WorkflowExecutionStatus.WORKFLOW_EXECUTION_STATUS_COMPLETED)
+            .setStartTime(Timestamp.newBuilder().setSeconds(1_760_000_000L).setNanos(123_000_000))
+            .setCloseTime(Timestamp.newBuilder().setSeconds(1_760_000_015L).setNanos(456_000_000))
+            .build();
+
+    @Benchmark
+    public Map<String, Object> buildExecutionInfo() {
+        return WorkflowUtil.buildExecutionInfo("orchestration-request-123", executionInfo);
+    }
+}
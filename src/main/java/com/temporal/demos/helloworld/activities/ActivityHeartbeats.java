@@ -0,0 +1,58 @@
+package com.temporal.demos.helloworld.activities;
+
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.client.ActivityWorkerShutdownException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated work that heartbeats while it waits, so an activity stops
+ * promptly when its workflow is cancelled or the activity times out instead
+ * of holding its executor slot until the sleep ends.
+ *
+ * Cancellation is only delivered in the response to a heartbeat; the SDK
+ * sends heartbeats at most every 80% of the activity's heartbeat timeout, so
+ * that timeout bounds how quickly the work stops.
+ *
+ * Once the worker is shut down, heartbeats throw
+ * ActivityWorkerShutdownException and are no longer sent; the work then
+ * carries on without them and stops when the worker interrupts it.
+ */
+public final class ActivityHeartbeats {
+
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private ActivityHeartbeats() {
+    }
+
+    /**
+     * Sleeps for the given time in short slices, heartbeating before each.
+     *
+     * @throws io.temporal.client.ActivityCompletionException if the activity
+     *                                                         was cancelled,
+     *                                                         timed out or no
+     *                                                         longer exists
+     */
+    public static void sleep(long millis) {
+        ActivityExecutionContext context = Activity.getExecutionContext();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        boolean heartbeating = true;
+        try {
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                if (heartbeating) {
+                    try {
+                        context.heartbeat(null);
+                    } catch (ActivityWorkerShutdownException e) {
+                        heartbeating = false;
+                    }
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, SLICE_NANOS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Activity.wrap(e);
+        }
+    }
+}
@@ -3,6 +3,11 @@ package com.temporal.demos.helloworld.activities;
 import io.temporal.activity.ActivityInterface;
 import io.temporal.activity.ActivityMethod;
 
+/**
+ * Where requestDetails is null, the activity reads the details that
+ * notifyApprovers saved to the ApprovalDetailsStore; waiting approvals do
+ * not keep them in memory.
+ */
 @ActivityInterface
 public interface ApprovalActivities {
 
@@ -15,6 +20,19 @@ public interface ApprovalActivities {
     @ActivityMethod
     void notifyRequester(String requesterEmail, String message);
 
+    /**
+     * Reminds the approvers of the given tier (1 or 2) that the request is
+     * still waiting.
+     */
+    @ActivityMethod
+    void remindApprovers(String requestId, String requestDetails, int tier, long waitingSeconds);
+
+    /**
+     * Hands the request to the second approver tier.
+     */
+    @ActivityMethod
+    void escalateRequest(String requestId, String requestDetails, String requesterEmail, long waitingSeconds);
+
     @ActivityMethod
     String executeApprovedAction(String requestId, String requestDetails);
 
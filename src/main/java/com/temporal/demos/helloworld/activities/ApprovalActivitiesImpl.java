@@ -1,18 +1,55 @@
 package com.temporal.demos.helloworld.activities;
 
+import com.temporal.demos.helloworld.approvals.ApprovalDetailsStore;
+import com.temporal.demos.helloworld.audit.AuditLog;
+import com.temporal.demos.helloworld.audit.AuditRecord;
+import com.temporal.demos.helloworld.notifications.Notification;
+import com.temporal.demos.helloworld.notifications.NotificationDigester;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityInfo;
+import io.temporal.client.WorkflowClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 @Component
+@ConditionalOnProperty(name = "temporal.worker.enabled", havingValue = "true", matchIfMissing = true)
 public class ApprovalActivitiesImpl implements ApprovalActivities {
 
     private static final Logger logger = LoggerFactory.getLogger(ApprovalActivitiesImpl.class);
 
+    private final NotificationDigester notifications;
+    private final List<String> approvers;
+    private final List<String> escalationApprovers;
+    private final AuditLog auditLog;
+    private final ApprovalDetailsStore detailsStore;
+    private final WorkflowClient workflowClient;
+
+    public ApprovalActivitiesImpl(NotificationDigester notifications,
+            @Value("${notifications.approvers:approvers@company.com}") List<String> approvers,
+            @Value("${notifications.escalation-approvers:approval-managers@company.com}")
+            List<String> escalationApprovers,
+            AuditLog auditLog,
+            ApprovalDetailsStore detailsStore,
+            WorkflowClient workflowClient) {
+        this.notifications = notifications;
+        this.approvers = approvers;
+        this.escalationApprovers = escalationApprovers;
+        this.auditLog = auditLog;
+        this.detailsStore = detailsStore;
+        this.workflowClient = workflowClient;
+    }
+
     @Override
     public String validateRequest(String requestId, String requestDetails) {
         logger.info("Validating access request: {}", requestId);
@@ -26,11 +63,7 @@ public class ApprovalActivitiesImpl implements ApprovalActivities {
         }
 
         // Simulate validation processing time
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        ActivityHeartbeats.sleep(2000);
 
         logger.info("Access request {} validated successfully", requestId);
         return "VALID";
@@ -40,18 +73,20 @@ public class ApprovalActivitiesImpl implements ApprovalActivities {
     public void notifyApprovers(String requestId, String requestDetails, String requesterEmail) {
         logger.info("Notifying approvers for access request: {} from: {}", requestId, requesterEmail);
 
+        // Saved before the run that has them continues as new; later runs never receive the details
+        try {
+            detailsStore.save(Activity.getExecutionContext().getInfo().getWorkflowId(), requestDetails);
+        } catch (IOException e) {
+            throw Activity.wrap(e);
+        }
+
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         String message = String.format("NEW ACCESS REQUEST - ID: %s, Requester: %s, Details: %s, Submitted: %s",
                 requestId, requesterEmail, requestDetails, timestamp);
 
-        logger.info("Approval notification sent: {}", message);
-
-        // Simulate notification processing time
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        // Queued for the approvers' next digest; delivery happens in the background
+        enqueueForAll(approvers, message);
+        logger.info("Approval notification queued for {}: {}", approvers, message);
     }
 
     @Override
@@ -61,26 +96,88 @@ public class ApprovalActivitiesImpl implements ApprovalActivities {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         String fullMessage = String.format("APPROVAL UPDATE [%s]: %s", timestamp, message);
 
-        logger.info("Requester notification sent: {}", fullMessage);
+        enqueue(List.of(new Notification(activityId(), requesterEmail, fullMessage, 0)));
+        logger.info("Requester notification queued: {}", fullMessage);
+    }
+
+    @Override
+    public void remindApprovers(String requestId, String requestDetails, int tier, long waitingSeconds) {
+        List<String> recipients = tier == 1 ? approvers : escalationApprovers;
+        String message = String.format("REMINDER - Access request %s has been waiting %s: %s",
+                requestId, formatWait(waitingSeconds), savedDetails(requestDetails));
+        enqueueForAll(recipients, message);
+        logger.info("Reminder for request {} queued for tier {} approvers {}", requestId, tier, recipients);
+    }
+
+    @Override
+    public void escalateRequest(String requestId, String requestDetails, String requesterEmail,
+            long waitingSeconds) {
+        String message = String.format(
+                "ESCALATED ACCESS REQUEST - ID: %s, Requester: %s, Details: %s, Unanswered for %s",
+                requestId, requesterEmail, savedDetails(requestDetails), formatWait(waitingSeconds));
+        enqueueForAll(escalationApprovers, message);
+        logger.info("Request {} escalated to {}", requestId, escalationApprovers);
+    }
 
+    /**
+     * The details notifyApprovers saved, unless the workflow passed them.
+     * Approvals notified before details were saved fall back to their first
+     * run's history; if that has been deleted, the notice goes out without
+     * them.
+     */
+    private String savedDetails(String requestDetails) {
+        if (requestDetails != null) {
+            return requestDetails;
+        }
+        String workflowId = Activity.getExecutionContext().getInfo().getWorkflowId();
+        try {
+            String details = detailsStore.find(workflowId, workflowClient);
+            return details != null ? details : "(details unavailable)";
+        } catch (IOException e) {
+            throw Activity.wrap(e);
+        }
+    }
+
+    /**
+     * 12h, 1h30m, 45s
+     */
+    private static String formatWait(long seconds) {
+        return Duration.ofSeconds(seconds).toString().substring(2).toLowerCase();
+    }
+
+    private void enqueueForAll(List<String> recipients, String message) {
+        String notificationId = activityId();
+        List<Notification> queued = new ArrayList<>(recipients.size());
+        for (String recipient : recipients) {
+            queued.add(new Notification(notificationId + "/" + recipient, recipient, message, 0));
+        }
+        enqueue(queued);
+    }
+
+    private void enqueue(List<Notification> queued) {
         try {
-            Thread.sleep(500);
+            notifications.enqueueAll(queued);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            throw Activity.wrap(e);
         }
     }
 
+    /**
+     * The same for every attempt of an activity, so a retried notification
+     * or audit record is recognised as a duplicate.
+     */
+    private static String activityId() {
+        ActivityInfo info = Activity.getExecutionContext().getInfo();
+        return info.getWorkflowId() + "/" + info.getActivityId();
+    }
+
     @Override
     public String executeApprovedAction(String requestId, String requestDetails) {
         logger.info("Executing approved access request: {}", requestId);
 
         // Simulate access provisioning
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return "Execution interrupted";
-        }
+        ActivityHeartbeats.sleep(2000);
 
         Random random = new Random();
         String result = "Access granted. Access token: TOK-" + random.nextInt(100000);
@@ -93,17 +190,16 @@ public class ApprovalActivitiesImpl implements ApprovalActivities {
     public void logApprovalDecision(String requestId, String decision, String approverEmail, String comments) {
         logger.info("Logging approval decision for request: {}", requestId);
 
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        String logEntry = String.format(
-                "DECISION LOG - Request: %s, Decision: %s, Approver: %s, Comments: %s, Time: %s",
-                requestId, decision, approverEmail, comments, timestamp);
-
-        logger.info("Decision logged: {}", logEntry);
-
+        // Completes only once the record is durable in the audit log
+        AuditRecord record = new AuditRecord(activityId(), requestId, decision, approverEmail, comments,
+                System.currentTimeMillis());
         try {
-            Thread.sleep(500);
+            auditLog.append(record);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            throw Activity.wrap(e);
         }
+
+        logger.info("Decision logged: {} {} by {}", requestId, decision, approverEmail);
     }
 }
\ No newline at end of file
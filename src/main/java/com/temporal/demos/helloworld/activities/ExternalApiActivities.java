@@ -1,30 +1,43 @@
 package com.temporal.demos.helloworld.activities;
 
+import com.temporal.demos.helloworld.models.NotificationServiceResult;
+import com.temporal.demos.helloworld.models.OrderServiceResult;
+import com.temporal.demos.helloworld.models.PaymentInitiationResult;
+import com.temporal.demos.helloworld.models.PaymentServiceResult;
+import com.temporal.demos.helloworld.models.PaymentStatusResult;
+import com.temporal.demos.helloworld.models.RecommendationServiceResult;
+import com.temporal.demos.helloworld.models.UserServiceResult;
 import io.temporal.activity.ActivityInterface;
 import io.temporal.activity.ActivityMethod;
 
 @ActivityInterface
 public interface ExternalApiActivities {
 
+    /**
+     * Failure type pollPaymentStatus throws while the payment is still
+     * processing; retried like any other failure.
+     */
+    String PAYMENT_STILL_PROCESSING = "PaymentStillProcessing";
+
     @ActivityMethod
-    String callUserService(String userId);
+    UserServiceResult callUserService(String userId);
 
     @ActivityMethod
-    String callOrderService(String userId);
+    OrderServiceResult callOrderService(String userId);
 
     @ActivityMethod
-    String callPaymentService(String userId);
+    PaymentServiceResult callPaymentService(String userId);
 
     @ActivityMethod
-    String callNotificationService(String userId);
+    NotificationServiceResult callNotificationService(String userId);
 
     @ActivityMethod
-    String callRecommendationService(String userId);
+    RecommendationServiceResult callRecommendationService(String userId);
 
     // Async payment service methods using polling pattern
     @ActivityMethod
-    String initiateAsyncPaymentProcess(String userId, double amount);
+    PaymentInitiationResult initiateAsyncPaymentProcess(String userId, double amount);
 
     @ActivityMethod
-    String pollPaymentStatus(String paymentId);
+    PaymentStatusResult pollPaymentStatus(String paymentId);
 }
\ No newline at end of file
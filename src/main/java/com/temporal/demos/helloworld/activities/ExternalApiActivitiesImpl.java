@@ -1,13 +1,24 @@
 package com.temporal.demos.helloworld.activities;
 
-import com.temporal.demos.helloworld.utils.RandomErrorGenerator;
+import com.temporal.demos.helloworld.faults.FaultDecision;
+import com.temporal.demos.helloworld.faults.FaultInjector;
+import com.temporal.demos.helloworld.models.NotificationServiceResult;
+import com.temporal.demos.helloworld.models.OrderServiceResult;
+import com.temporal.demos.helloworld.models.PaymentInitiationResult;
+import com.temporal.demos.helloworld.models.PaymentServiceResult;
+import com.temporal.demos.helloworld.models.PaymentStatusResult;
+import com.temporal.demos.helloworld.models.RecommendationServiceResult;
+import com.temporal.demos.helloworld.models.UserServiceResult;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityInfo;
+import io.temporal.failure.ApplicationFailure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.util.List;
+import java.util.OptionalInt;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 @Component
@@ -15,219 +26,145 @@ public class ExternalApiActivitiesImpl implements ExternalApiActivities {
 
     private static final Logger logger = LoggerFactory.getLogger(ExternalApiActivitiesImpl.class);
 
-    // Flag to enable/disable random error simulation
-    private static boolean errorSimulationEnabled = false;
-
     // In-memory payment tracking for async payments
-    private static final Map<String, PaymentStatus> paymentTracker = new ConcurrentHashMap<>();
+    private static final PaymentTracker paymentTracker = new PaymentTracker();
 
-    private enum PaymentState {
-        INITIATED, PROCESSING, COMPLETED, FAILED
-    }
+    private final FaultInjector faultInjector;
 
-    private static class PaymentStatus {
-        PaymentState state;
-        @SuppressWarnings("unused")
-        String userId;
-        @SuppressWarnings("unused")
-        double amount;
-        int pollCount;
-
-        PaymentStatus(String userId, double amount) {
-            this.userId = userId;
-            this.amount = amount;
-            this.state = PaymentState.INITIATED;
-            this.pollCount = 0;
-        }
+    public ExternalApiActivitiesImpl(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
     }
 
     @Override
-    public String callUserService(String userId) {
+    public UserServiceResult callUserService(String userId) {
         logger.info("Starting UserService call for user: {}", userId);
 
-        // Simple error simulation
-        if (errorSimulationEnabled) {
-            RandomErrorGenerator.maybeThrowError(20, "UserService");
-        }
-
-        // Simulate API call with random delay
-        simulateApiCall(2000, 4000);
+        // Simulate API call latency and failures
+        simulateApiCall(UserServiceResult.SERVICE);
 
-        String result = String.format(
-                "{\"service\":\"UserService\",\"userId\":\"%s\",\"name\":\"John Doe\",\"email\":\"john.doe@example.com\"}",
-                userId);
+        UserServiceResult result = new UserServiceResult(userId, "John Doe", "john.doe@example.com");
 
         logger.info("Completed UserService call for user: {}", userId);
         return result;
     }
 
     @Override
-    public String callOrderService(String userId) {
+    public OrderServiceResult callOrderService(String userId) {
         logger.info("Starting OrderService call for user: {}", userId);
 
-        if (errorSimulationEnabled) {
-            RandomErrorGenerator.maybeThrowError(25, "OrderService");
-        }
-
-        simulateApiCall(1000, 3000);
+        simulateApiCall(OrderServiceResult.SERVICE);
 
-        String result = String.format(
-                "{\"service\":\"OrderService\",\"userId\":\"%s\",\"totalOrders\":5,\"totalAmount\":1250.50}", userId);
+        OrderServiceResult result = new OrderServiceResult(userId, 5, 1250.50);
 
         logger.info("Completed OrderService call for user: {}", userId);
         return result;
     }
 
     @Override
-    public String callNotificationService(String userId) {
+    public NotificationServiceResult callNotificationService(String userId) {
         logger.info("Starting NotificationService call for user: {}", userId);
 
-        if (errorSimulationEnabled) {
-            RandomErrorGenerator.maybeThrowError(15, "NotificationService");
-        }
-
-        simulateApiCall(500, 2000);
+        simulateApiCall(NotificationServiceResult.SERVICE);
 
-        String result = String.format("{\"service\":\"NotificationService\",\"userId\":\"%s\",\"unreadCount\":3}",
-                userId);
+        NotificationServiceResult result = new NotificationServiceResult(userId, 3);
 
         logger.info("Completed NotificationService call for user: {}", userId);
         return result;
     }
 
     @Override
-    public String callRecommendationService(String userId) {
+    public RecommendationServiceResult callRecommendationService(String userId) {
         logger.info("Starting RecommendationService call for user: {}", userId);
 
-        if (errorSimulationEnabled) {
-            RandomErrorGenerator.maybeThrowError(25, "RecommendationService");
-        }
-
-        simulateApiCall(4000, 8000);
+        simulateApiCall(RecommendationServiceResult.SERVICE);
 
-        String result = String.format(
-                "{\"service\":\"RecommendationService\",\"userId\":\"%s\",\"recommendations\":[\"Product A\",\"Product B\",\"Product C\"]}",
-                userId);
+        RecommendationServiceResult result = new RecommendationServiceResult(userId,
+                List.of("Product A", "Product B", "Product C"));
 
         logger.info("Completed RecommendationService call for user: {}", userId);
         return result;
     }
 
-    private void simulateApiCall(int minDelayMs, int maxDelayMs) {
-        try {
-            int delay = ThreadLocalRandom.current().nextInt(minDelayMs, maxDelayMs + 1);
-            Thread.sleep(delay);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("API call simulation interrupted", e);
-        }
-    }
-
-    public static void setErrorSimulationEnabled(boolean enabled) {
-        errorSimulationEnabled = enabled;
-        Logger logger = LoggerFactory.getLogger(ExternalApiActivitiesImpl.class);
-        logger.info("Error simulation {}", enabled ? "ENABLED" : "DISABLED");
+    private void simulateApiCall(String service) {
+        FaultDecision decision = faultInjector.decide(service, callKey());
+        // Heartbeats while waiting, so cancellation or a timeout stops the call early
+        ActivityHeartbeats.sleep(decision.getLatencyMs());
+        faultInjector.throwIfFailed(service, decision);
     }
 
-    public static boolean isErrorSimulationEnabled() {
-        return errorSimulationEnabled;
+    // Identifies this call attempt, so a fault injection seed replays the same faults
+    private static String callKey() {
+        ActivityInfo info = Activity.getExecutionContext().getInfo();
+        return info.getWorkflowId() + "/" + info.getActivityId() + "/" + info.getAttempt();
     }
 
     // Payment Service Implementation (Sync and Async versions)
 
     // Sync payment processing
     @Override
-    public String callPaymentService(String userId) {
+    public PaymentServiceResult callPaymentService(String userId) {
         logger.info("Starting PaymentService call for user: {}", userId);
 
-        if (errorSimulationEnabled) {
-            RandomErrorGenerator.maybeThrowError(30, "PaymentService");
-        }
-
-        simulateApiCall(3000, 6000);
+        simulateApiCall(PaymentServiceResult.SERVICE);
 
-        String result = String.format(
-                "{\"service\":\"PaymentService\",\"userId\":\"%s\",\"defaultMethod\":\"**** 1234\",\"creditScore\":750}",
-                userId);
+        PaymentServiceResult result = new PaymentServiceResult(userId, "**** 1234", 750);
 
         logger.info("Completed PaymentService call for user: {}", userId);
         return result;
     }
 
     @Override
-    public String initiateAsyncPaymentProcess(String userId, double amount) {
+    public PaymentInitiationResult initiateAsyncPaymentProcess(String userId, double amount) {
         String paymentId = "payment-" + UUID.randomUUID().toString();
 
         logger.info("Initiating async payment process for user: {}, amount: ${}, paymentId: {}",
                 userId, amount, paymentId);
 
-        if (errorSimulationEnabled) {
-            RandomErrorGenerator.maybeThrowError(15, "AsyncPaymentService");
-        }
-
-        simulateApiCall(1000, 3000);
-
-        // Create payment tracking entry
-        PaymentStatus paymentStatus = new PaymentStatus(userId, amount);
-        paymentTracker.put(paymentId, paymentStatus);
+        simulateApiCall(PaymentInitiationResult.SERVICE);
 
         // Simulate random payment processing time (1-3 poll cycles)
         int pollsToComplete = ThreadLocalRandom.current().nextInt(1, 4);
-        paymentStatus.pollCount = -pollsToComplete;
+        paymentTracker.initiate(paymentId, userId, amount, pollsToComplete);
 
-        String result = String.format(
-                "{\"service\":\"AsyncPaymentService\",\"paymentId\":\"%s\",\"userId\":\"%s\",\"amount\":%.2f,\"status\":\"INITIATED\"}",
-                paymentId, userId, amount);
+        PaymentInitiationResult result = new PaymentInitiationResult(paymentId, userId, amount, "INITIATED");
 
         logger.info("Payment process initiated successfully. PaymentId: {}", paymentId);
         return result;
     }
 
     @Override
-    public String pollPaymentStatus(String paymentId) {
+    public PaymentStatusResult pollPaymentStatus(String paymentId) {
         logger.info("Polling payment status for paymentId: {}", paymentId);
 
-        if (errorSimulationEnabled) {
-            RandomErrorGenerator.maybeThrowError(10, "AsyncPaymentService-Poll");
-        }
-
-        simulateApiCall(500, 2000);
+        simulateApiCall(PaymentStatusResult.SERVICE);
 
-        PaymentStatus payment = paymentTracker.get(paymentId);
-        if (payment == null) {
+        OptionalInt polled = paymentTracker.recordPoll(paymentId);
+        if (polled.isEmpty()) {
             throw new RuntimeException("Payment not found: " + paymentId);
         }
+        int pollCount = polled.getAsInt();
 
-        payment.pollCount++;
-
-        logger.info("Payment {} poll #{}: Current state: {}", paymentId, payment.pollCount, payment.state);
+        logger.info("Payment {} poll #{}: Current state: {}", paymentId, pollCount,
+                pollCount <= 0 ? "PROCESSING" : "COMPLETE");
 
         // Still processing - trigger retry
-        if (payment.pollCount <= 0) {
-            payment.state = PaymentState.PROCESSING;
-            throw new RuntimeException("Payment " + paymentId + " is still processing. Poll #" + payment.pollCount);
+        if (pollCount <= 0) {
+            throw ApplicationFailure.newFailure("Payment " + paymentId + " is still processing. Poll #" + pollCount,
+                    PAYMENT_STILL_PROCESSING);
         }
 
         // Payment processing complete
-        if (errorSimulationEnabled && RandomErrorGenerator.shouldThrowError(20)) {
-            payment.state = PaymentState.FAILED;
-            paymentTracker.remove(paymentId);
-
-            String result = String.format(
-                    "{\"service\":\"AsyncPaymentService-Poll\",\"paymentId\":\"%s\",\"status\":\"FAILED\",\"totalPolls\":%d}",
-                    paymentId, payment.pollCount);
+        paymentTracker.finish(paymentId);
+        if (faultInjector.isEnabled() && faultInjector.chance(PaymentStatusResult.SERVICE, callKey(), 20)) {
+            PaymentStatusResult result = new PaymentStatusResult(paymentId, "FAILED", pollCount, null);
 
-            logger.error("Payment {} failed after {} polls", paymentId, payment.pollCount);
+            logger.error("Payment {} failed after {} polls", paymentId, pollCount);
             return result;
         } else {
-            payment.state = PaymentState.COMPLETED;
-            paymentTracker.remove(paymentId);
-
-            String result = String.format(
-                    "{\"service\":\"AsyncPaymentService-Poll\",\"paymentId\":\"%s\",\"status\":\"COMPLETED\",\"totalPolls\":%d,\"transactionId\":\"txn-%s\"}",
-                    paymentId, payment.pollCount, UUID.randomUUID().toString().substring(0, 8));
+            PaymentStatusResult result = new PaymentStatusResult(paymentId, "COMPLETED", pollCount,
+                    "txn-" + UUID.randomUUID().toString().substring(0, 8));
 
-            logger.info("Payment {} completed successfully after {} polls", paymentId, payment.pollCount);
+            logger.info("Payment {} completed successfully after {} polls", paymentId, pollCount);
             return result;
         }
     }
@@ -0,0 +1,59 @@
+package com.temporal.demos.helloworld.activities;
+
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory tracking of simulated async payments between initiation and the
+ * final poll. Polls for the same payment may run concurrently (activity
+ * retries on different threads), so all updates go through atomic map
+ * operations.
+ */
+public class PaymentTracker {
+
+    private static final class Payment {
+        final String userId;
+        final double amount;
+        final int pollCount;
+
+        Payment(String userId, double amount, int pollCount) {
+            this.userId = userId;
+            this.amount = amount;
+            this.pollCount = pollCount;
+        }
+
+        Payment withPollCount(int newPollCount) {
+            return new Payment(userId, amount, newPollCount);
+        }
+    }
+
+    private final ConcurrentHashMap<String, Payment> payments = new ConcurrentHashMap<>();
+
+    /**
+     * Starts tracking a payment that completes on its
+     * {@code pollsToComplete}-th poll.
+     */
+    public void initiate(String paymentId, String userId, double amount, int pollsToComplete) {
+        // Poll counts up from -pollsToComplete; the payment is done once it is positive
+        payments.put(paymentId, new Payment(userId, amount, -pollsToComplete));
+    }
+
+    /**
+     * Records one poll and returns the updated poll count, which stays
+     * non-positive while the payment is still processing. Empty if the payment
+     * is unknown or already finished.
+     */
+    public OptionalInt recordPoll(String paymentId) {
+        Payment payment = payments.computeIfPresent(paymentId,
+                (id, current) -> current.withPollCount(current.pollCount + 1));
+        return payment == null ? OptionalInt.empty() : OptionalInt.of(payment.pollCount);
+    }
+
+    public void finish(String paymentId) {
+        payments.remove(paymentId);
+    }
+
+    public int size() {
+        return payments.size();
+    }
+}
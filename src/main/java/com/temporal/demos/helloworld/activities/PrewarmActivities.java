@@ -0,0 +1,16 @@
+package com.temporal.demos.helloworld.activities;
+
+import com.temporal.demos.helloworld.models.PrewarmedResults;
+import io.temporal.activity.ActivityInterface;
+import io.temporal.activity.ActivityMethod;
+
+@ActivityInterface
+public interface PrewarmActivities {
+
+    /**
+     * Saves a pre-warm run's results in the pre-warmed result store; other
+     * users keep the results they have.
+     */
+    @ActivityMethod
+    void storePrewarmedResults(PrewarmedResults results);
+}
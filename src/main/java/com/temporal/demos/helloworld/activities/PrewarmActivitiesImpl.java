@@ -0,0 +1,35 @@
+package com.temporal.demos.helloworld.activities;
+
+import com.temporal.demos.helloworld.models.PrewarmedResults;
+import com.temporal.demos.helloworld.prewarm.PrewarmedResultStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@Component
+@ConditionalOnProperty(name = "temporal.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class PrewarmActivitiesImpl implements PrewarmActivities {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrewarmActivitiesImpl.class);
+
+    private final PrewarmedResultStore store;
+
+    public PrewarmActivitiesImpl(PrewarmedResultStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void storePrewarmedResults(PrewarmedResults results) {
+        try {
+            store.save(results);
+        } catch (IOException e) {
+            // Retried by the activity's retry policy
+            throw new UncheckedIOException("Failed to store pre-warmed results", e);
+        }
+        logger.info("Stored pre-warmed results for {} users", results.getResults().size());
+    }
+}
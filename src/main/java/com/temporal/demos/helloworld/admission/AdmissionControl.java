@@ -0,0 +1,138 @@
+package com.temporal.demos.helloworld.admission;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for the API endpoints that start workflows, so a burst
+ * of requests is shed with 429 at the API instead of reaching the frontend's
+ * rate limit and coming back as 500s after the SDK's retries time out.
+ *
+ * Each endpoint has its own {@link AdmissionLimiter}, configured under
+ * temporal.api.admission: the keys there are the defaults, and
+ * temporal.api.admission.endpoints.&lt;endpoint&gt;.&lt;key&gt; overrides one
+ * for a single endpoint. Limits apply per API instance. Every
+ * RESOURCE_EXHAUSTED seen by {@link FrontendPressure} backs all endpoints
+ * off, since they share the frontend's limit.
+ */
+@Component
+@ConditionalOnProperty(name = "temporal.api.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControl {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControl.class);
+
+    public static final String ORCHESTRATION_EXECUTE = "orchestration-execute";
+    public static final String ORCHESTRATION_EXECUTE_SYNC = "orchestration-execute-sync";
+    public static final String APPROVAL_REQUEST = "approval-request";
+
+    private static final String PREFIX = "temporal.api.admission.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdmissionLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdmissionControl(Environment environment, MeterRegistry meterRegistry, FrontendPressure frontendPressure) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        for (String endpoint : new String[] { ORCHESTRATION_EXECUTE, ORCHESTRATION_EXECUTE_SYNC, APPROVAL_REQUEST }) {
+            limiter(endpoint);
+        }
+        frontendPressure.addListener(() -> limiters.values().forEach(AdmissionLimiter::backOff));
+        FunctionCounter.builder("temporal.api.frontend.resource_exhausted", frontendPressure,
+                FrontendPressure::getResourceExhausted)
+                .description("RESOURCE_EXHAUSTED answers from the Temporal frontend, counting SDK retries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs call once the endpoint admits it.
+     *
+     * @throws AdmissionRejectedException if the call is shed, either up
+     *                                    front or because the frontend still
+     *                                    answered RESOURCE_EXHAUSTED after the
+     *                                    SDK's retries
+     */
+    public <T> T call(String endpoint, Supplier<T> call) {
+        AdmissionLimiter limiter = limiter(endpoint);
+        AdmissionLimiter.Permit permit;
+        try {
+            permit = limiter.acquire();
+        } catch (AdmissionRejectedException e) {
+            meterRegistry.counter("temporal.api.admission.rejected", "endpoint", endpoint,
+                    "reason", e.getReason().name()).increment();
+            throw e;
+        }
+        try (permit) {
+            return call.get();
+        } catch (RuntimeException e) {
+            if (!isResourceExhausted(e)) {
+                throw e;
+            }
+            meterRegistry.counter("temporal.api.admission.rejected", "endpoint", endpoint,
+                    "reason", AdmissionLimiter.Reason.FRONTEND_BUSY.name()).increment();
+            throw limiter.frontendBusy(e);
+        }
+    }
+
+    private AdmissionLimiter limiter(String endpoint) {
+        return limiters.computeIfAbsent(endpoint, this::newLimiter);
+    }
+
+    private AdmissionLimiter newLimiter(String endpoint) {
+        AdmissionLimiter limiter = new AdmissionLimiter(endpoint,
+                property(endpoint, "min-concurrent", Integer.class, 4),
+                property(endpoint, "max-concurrent", Integer.class, 64),
+                property(endpoint, "rate", Double.class, 200.0),
+                property(endpoint, "burst", Integer.class, 100),
+                property(endpoint, "max-queue", Integer.class, 256),
+                property(endpoint, "max-wait", Duration.class, Duration.ofSeconds(1)),
+                property(endpoint, "backoff-ratio", Double.class, 0.5),
+                property(endpoint, "backoff-interval", Duration.class, Duration.ofSeconds(1)));
+        Gauge.builder("temporal.api.admission.limit", limiter, AdmissionLimiter::getLimit)
+                .tag("endpoint", endpoint)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("temporal.api.admission.in_flight", limiter, AdmissionLimiter::getInFlight)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("temporal.api.admission.waiting", limiter, AdmissionLimiter::getWaiting)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        FunctionCounter.builder("temporal.api.admission.admitted", limiter, AdmissionLimiter::getAdmitted)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        FunctionCounter.builder("temporal.api.admission.backoffs", limiter, AdmissionLimiter::getBackoffs)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        logger.info("Admission limits: {}", limiter);
+        return limiter;
+    }
+
+    private <T> T property(String endpoint, String key, Class<T> type, T defaultValue) {
+        T shared = environment.getProperty(PREFIX + key, type, defaultValue);
+        return environment.getProperty(PREFIX + "endpoints." + endpoint + "." + key, type, shared);
+    }
+
+    private static boolean isResourceExhausted(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StatusRuntimeException status
+                    && status.getStatus().getCode() == Status.Code.RESOURCE_EXHAUSTED) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,282 @@
+package com.temporal.demos.helloworld.admission;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission limits for one API endpoint: how many calls may be in flight,
+ * how many may start per second, and how long a caller may wait for either.
+ *
+ * Calls take a token from a bucket refilled at rate per second (up to burst
+ * tokens), then a concurrency slot. A caller that can't get both straight
+ * away joins a wait queue of at most max-queue callers and waits up to
+ * max-wait; a full queue, a token further away than max-wait, or a wait that
+ * runs out is rejected at once with a Retry-After estimate, instead of
+ * piling more calls onto a frontend that is already behind.
+ *
+ * The concurrency limit adapts (AIMD): every completed call raises it by
+ * 1/limit, so it grows by about one per limit calls, and every sign that the
+ * frontend is exhausted multiplies it by backoff-ratio, at most once per
+ * backoff-interval so that one burst of errors counts once. It stays between
+ * min-concurrent and max-concurrent.
+ */
+public class AdmissionLimiter {
+
+    public enum Reason {
+        /** The next start token is further away than max-wait. */
+        RATE_LIMITED,
+        /** max-queue callers are already waiting. */
+        QUEUE_FULL,
+        /** No concurrency slot freed up within max-wait. */
+        WAIT_TIMEOUT,
+        /** The frontend answered RESOURCE_EXHAUSTED after the SDK's own retries. */
+        FRONTEND_BUSY,
+        INTERRUPTED
+    }
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    // Weight of the newest call in the average call duration
+    private static final double LATENCY_SMOOTHING = 0.1;
+
+    private final String endpoint;
+    private final int minConcurrent;
+    private final int maxConcurrent;
+    private final double ratePerSecond;
+    private final double burst;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final double backoffRatio;
+    private final long backoffIntervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double tokens;
+    private long refilledAtNanos;
+    private long lastBackoffNanos;
+    private double averageCallNanos;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder backoffs = new LongAdder();
+
+    /**
+     * @param ratePerSecond starts admitted per second; 0 for no rate limit
+     */
+    public AdmissionLimiter(String endpoint, int minConcurrent, int maxConcurrent, double ratePerSecond,
+            int burst, int maxQueue, Duration maxWait, double backoffRatio, Duration backoffInterval) {
+        if (minConcurrent < 1 || maxConcurrent < minConcurrent) {
+            throw new IllegalArgumentException(endpoint + ": need 1 <= min-concurrent <= max-concurrent, got "
+                    + minConcurrent + " and " + maxConcurrent);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException(endpoint + ": backoff-ratio must be between 0 and 1");
+        }
+        this.endpoint = endpoint;
+        this.minConcurrent = minConcurrent;
+        this.maxConcurrent = maxConcurrent;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(1, burst);
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.backoffIntervalNanos = backoffInterval.toNanos();
+        this.limit = maxConcurrent;
+        this.tokens = this.burst;
+        this.refilledAtNanos = System.nanoTime();
+        this.lastBackoffNanos = refilledAtNanos - backoffIntervalNanos;
+    }
+
+    /**
+     * A concurrency slot, returned by closing it once the call is done.
+     */
+    public final class Permit implements AutoCloseable {
+        private final long admittedAtNanos = System.nanoTime();
+        private boolean closed;
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                inFlight--;
+                long callNanos = System.nanoTime() - admittedAtNanos;
+                averageCallNanos = averageCallNanos == 0
+                        ? callNanos
+                        : averageCallNanos + LATENCY_SMOOTHING * (callNanos - averageCallNanos);
+                limit = Math.min(maxConcurrent, limit + 1 / limit);
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Waits for a start token and a concurrency slot.
+     *
+     * @throws AdmissionRejectedException if the call should be shed instead
+     */
+    public Permit acquire() {
+        long now = System.nanoTime();
+        long deadline = now + maxWaitNanos;
+        lock.lock();
+        try {
+            long tokenAt = now;
+            if (ratePerSecond > 0) {
+                tokens = Math.min(burst, tokens + (now - refilledAtNanos) * ratePerSecond / NANOS_PER_SECOND);
+                refilledAtNanos = now;
+                if (tokens < 1) {
+                    long tokenWait = (long) ((1 - tokens) / ratePerSecond * NANOS_PER_SECOND);
+                    if (tokenWait > maxWaitNanos) {
+                        throw reject(Reason.RATE_LIMITED, tokenWait);
+                    }
+                    tokenAt = now + tokenWait;
+                }
+            }
+            boolean queued = tokenAt > now || inFlight >= currentLimit();
+            if (queued && waiting >= maxQueue) {
+                throw reject(Reason.QUEUE_FULL, estimatedWaitNanos());
+            }
+            if (ratePerSecond > 0) {
+                // Reserved even if the caller then times out waiting for a slot, which only makes later callers wait
+                tokens -= 1;
+            }
+            if (queued) {
+                waiting++;
+            }
+            try {
+                long remaining;
+                while ((remaining = tokenAt - System.nanoTime()) > 0) {
+                    released.awaitNanos(remaining);
+                }
+                while (inFlight >= currentLimit()) {
+                    remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw reject(Reason.WAIT_TIMEOUT, estimatedWaitNanos());
+                    }
+                    released.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject(Reason.INTERRUPTED, 0);
+            } finally {
+                if (queued) {
+                    waiting--;
+                }
+            }
+            inFlight++;
+            admitted.increment();
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Multiplicative decrease after the frontend reported RESOURCE_EXHAUSTED.
+     */
+    public void backOff() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (now - lastBackoffNanos < backoffIntervalNanos) {
+                return;
+            }
+            lastBackoffNanos = now;
+            limit = Math.max(minConcurrent, limit * backoffRatio);
+            backoffs.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The rejection for a call the frontend turned away, with the Retry-After
+     * a caller queued now would get.
+     */
+    AdmissionRejectedException frontendBusy(Throwable cause) {
+        lock.lock();
+        try {
+            AdmissionRejectedException rejection = reject(Reason.FRONTEND_BUSY,
+                    Math.max(backoffIntervalNanos, estimatedWaitNanos()));
+            rejection.initCause(cause);
+            return rejection;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    // Time for the calls ahead of a new caller to drain, one limit's worth per average call
+    private long estimatedWaitNanos() {
+        return (long) (averageCallNanos * (waiting + 1) / currentLimit());
+    }
+
+    private AdmissionRejectedException reject(Reason reason, long retryAfterNanos) {
+        return new AdmissionRejectedException(endpoint, reason, Duration.ofNanos(retryAfterNanos));
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    /**
+     * Times the limit was cut after the frontend reported RESOURCE_EXHAUSTED.
+     */
+    public long getBackoffs() {
+        return backoffs.sum();
+    }
+
+    @Override
+    public String toString() {
+        return endpoint + " (concurrency " + minConcurrent + "-" + maxConcurrent
+                + ", rate " + (ratePerSecond > 0 ? ratePerSecond + "/s" : "unlimited")
+                + ", queue " + maxQueue + ", wait " + Duration.ofNanos(maxWaitNanos).toMillis() + "ms)";
+    }
+}
@@ -0,0 +1,39 @@
+package com.temporal.demos.helloworld.admission;
+
+import java.time.Duration;
+
+/**
+ * A call shed by {@link AdmissionLimiter}; the API answers it with 429 and
+ * a Retry-After header.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String endpoint;
+    private final AdmissionLimiter.Reason reason;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String endpoint, AdmissionLimiter.Reason reason, Duration retryAfter) {
+        super(endpoint + " is at capacity (" + reason + ")");
+        this.endpoint = endpoint;
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public AdmissionLimiter.Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Whole seconds, at least 1, as Retry-After needs.
+     */
+    public long getRetryAfterSeconds() {
+        long seconds = retryAfter.getSeconds() + (retryAfter.getNano() > 0 ? 1 : 0);
+        return Math.max(1, seconds);
+    }
+}
@@ -0,0 +1,62 @@
+package com.temporal.demos.helloworld.admission;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches every call to the Temporal frontend for RESOURCE_EXHAUSTED, the
+ * status it answers with once a rate limit (frontend.rps and friends) is
+ * hit. The SDK retries those calls on its own, so this is the earliest
+ * place to see them: each attempt is reported, not only calls that finally
+ * fail.
+ */
+@Component
+public class FrontendPressure implements ClientInterceptor {
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder resourceExhausted = new LongAdder();
+
+    /**
+     * Runs listener on the gRPC thread after every RESOURCE_EXHAUSTED answer,
+     * so it must not block.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public long getResourceExhausted() {
+        return resourceExhausted.sum();
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions, Channel next) {
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        if (status.getCode() == Status.Code.RESOURCE_EXHAUSTED) {
+                            resourceExhausted.increment();
+                            listeners.forEach(Runnable::run);
+                        }
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+}
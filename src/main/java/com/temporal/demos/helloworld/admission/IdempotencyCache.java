@@ -0,0 +1,230 @@
+package com.temporal.demos.helloworld.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.grpc.StatusRuntimeException;
+import io.temporal.api.common.v1.WorkflowExecution;
+import io.temporal.api.enums.v1.WorkflowExecutionStatus;
+import io.temporal.api.enums.v1.WorkflowIdConflictPolicy;
+import io.temporal.api.enums.v1.WorkflowIdReusePolicy;
+import io.temporal.api.workflowservice.v1.DescribeWorkflowExecutionRequest;
+import io.temporal.api.workflowservice.v1.DescribeWorkflowExecutionResponse;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowExecutionAlreadyStarted;
+import io.temporal.client.WorkflowOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the workflow IDs this API instance recently started, so a client
+ * retrying with the same idempotency key gets ALREADY_EXISTS without another
+ * start RPC that the frontend would turn away with
+ * WorkflowExecutionAlreadyStarted.
+ *
+ * Concurrent requests for the same ID share one start (single flight): the
+ * first one calls Temporal and the rest wait for it and answer
+ * ALREADY_EXISTS, or fail the same way if it failed. Failed starts are not
+ * remembered. Entries expire after ttl, and the oldest are dropped beyond
+ * max-size.
+ *
+ * The cache only saves calls; Temporal stays the source of truth. An ID that
+ * is not cached here, because it expired, was evicted or was started through
+ * another instance, goes to the frontend and its workflow ID reuse policy
+ * decides. A cached ID is only a hint where the answer depends on how the
+ * run ended: under any reuse policy but REJECT_DUPLICATE a closed run may be
+ * started again, so a hit first asks whether the run is still open (a
+ * describe, lighter than a start) and, once it has closed, drops the entry
+ * and lets the start and its reuse policy decide. Under REJECT_DUPLICATE the
+ * answer is ALREADY_EXISTS either way, so hits are answered locally. Starts
+ * that always create a run (TERMINATE_EXISTING, TERMINATE_IF_RUNNING) are
+ * not cached.
+ */
+@Component
+@ConditionalOnProperty(name = "temporal.api.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyCache {
+
+    public enum Outcome {
+        STARTED,
+        ALREADY_EXISTS
+    }
+
+    private static final class Entry {
+        final CompletableFuture<Void> started = new CompletableFuture<>();
+        // Set once the start succeeds; the entry can't expire while started is pending
+        long expiresAtNanos;
+    }
+
+    private static final long DESCRIBE_TIMEOUT_SECONDS = 5;
+
+    private final StartedRunTracker startedRunTracker;
+    private final WorkflowClient workflowClient;
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final Object lock = new Object();
+    // Insertion order, so expired entries are found at the head
+    private final Map<String, Entry> entries;
+
+    private final Counter hits;
+    private final Counter closedHits;
+    private final Counter coalesced;
+    private final Counter misses;
+
+    public IdempotencyCache(@Value("${temporal.api.idempotency-cache.ttl:10m}") Duration ttl,
+            @Value("${temporal.api.idempotency-cache.max-size:10000}") int maxSize,
+            StartedRunTracker startedRunTracker, WorkflowClient workflowClient, MeterRegistry meterRegistry) {
+        this.startedRunTracker = startedRunTracker;
+        this.workflowClient = workflowClient;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyCache.this.maxSize;
+            }
+        };
+        String name = "temporal.api.idempotency_cache.requests";
+        hits = meterRegistry.counter(name, "result", "hit");
+        closedHits = meterRegistry.counter(name, "result", "closed");
+        coalesced = meterRegistry.counter(name, "result", "coalesced");
+        misses = meterRegistry.counter(name, "result", "miss");
+        Gauge.builder("temporal.api.idempotency_cache.size", this, IdempotencyCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs start unless options' workflow ID was started recently and is
+     * still open, or is being started right now.
+     *
+     * @param options the start's options, for the workflow ID and its reuse
+     *                and conflict policies
+     * @param start   starts the workflow; may throw WorkflowExecutionAlreadyStarted
+     *                or, under USE_EXISTING, return the running workflow
+     * @return STARTED only for the call that actually started the workflow
+     */
+    public Outcome start(WorkflowOptions options, Runnable start) {
+        if (ttlNanos <= 0 || alwaysStartsNewRun(options)) {
+            return startUncached(start);
+        }
+        String workflowId = options.getWorkflowId();
+        boolean closedRunsReusable = options.getWorkflowIdReusePolicy()
+                != WorkflowIdReusePolicy.WORKFLOW_ID_REUSE_POLICY_REJECT_DUPLICATE;
+        Entry entry;
+        while (true) {
+            boolean first = false;
+            synchronized (lock) {
+                evictExpired(System.nanoTime());
+                entry = entries.get(workflowId);
+                if (entry == null) {
+                    entry = new Entry();
+                    entries.put(workflowId, entry);
+                    first = true;
+                }
+            }
+            if (first) {
+                break;
+            }
+            if (!entry.started.isDone()) {
+                coalesced.increment();
+                try {
+                    entry.started.join();
+                } catch (CompletionException e) {
+                    // The call this one was waiting for failed; a retry goes to Temporal again
+                    throw e.getCause() instanceof RuntimeException failure ? failure : e;
+                }
+                return Outcome.ALREADY_EXISTS;
+            }
+            if (!closedRunsReusable || isOpen(workflowId)) {
+                hits.increment();
+                return Outcome.ALREADY_EXISTS;
+            }
+            // The run has closed and may be started again; its reuse policy decides
+            closedHits.increment();
+            synchronized (lock) {
+                entries.remove(workflowId, entry);
+            }
+        }
+
+        misses.increment();
+        Outcome outcome;
+        try {
+            outcome = startUncached(start);
+        } catch (RuntimeException | Error e) {
+            // Waiters must always be released, or they would block forever
+            synchronized (lock) {
+                entries.remove(workflowId, entry);
+            }
+            entry.started.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (lock) {
+            entry.expiresAtNanos = System.nanoTime() + ttlNanos;
+        }
+        entry.started.complete(null);
+        return outcome;
+    }
+
+    private static boolean alwaysStartsNewRun(WorkflowOptions options) {
+        return options.getWorkflowIdConflictPolicy()
+                == WorkflowIdConflictPolicy.WORKFLOW_ID_CONFLICT_POLICY_TERMINATE_EXISTING
+                || options.getWorkflowIdReusePolicy()
+                == WorkflowIdReusePolicy.WORKFLOW_ID_REUSE_POLICY_TERMINATE_IF_RUNNING;
+    }
+
+    /**
+     * Whether the workflow's current run is still running. Any doubt (not
+     * found, describe failed) counts as closed, which sends the call on to
+     * the start.
+     */
+    private boolean isOpen(String workflowId) {
+        try {
+            DescribeWorkflowExecutionResponse response = workflowClient.getWorkflowServiceStubs().blockingStub()
+                    .withDeadlineAfter(DESCRIBE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .describeWorkflowExecution(DescribeWorkflowExecutionRequest.newBuilder()
+                            .setNamespace(workflowClient.getOptions().getNamespace())
+                            .setExecution(WorkflowExecution.newBuilder().setWorkflowId(workflowId))
+                            .build());
+            return response.getWorkflowExecutionInfo().getStatus()
+                    == WorkflowExecutionStatus.WORKFLOW_EXECUTION_STATUS_RUNNING;
+        } catch (StatusRuntimeException e) {
+            return false;
+        }
+    }
+
+    private Outcome startUncached(Runnable start) {
+        try {
+            // A start under the USE_EXISTING conflict policy returns the running workflow instead of throwing
+            return startedRunTracker.startsNewRun(start) ? Outcome.STARTED : Outcome.ALREADY_EXISTS;
+        } catch (WorkflowExecutionAlreadyStarted e) {
+            return Outcome.ALREADY_EXISTS;
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (!eldest.started.isDone() || eldest.expiresAtNanos - now > 0) {
+                // Starts finish in about the order they began, so the rest are newer
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+}
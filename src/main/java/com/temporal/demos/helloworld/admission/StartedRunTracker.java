@@ -0,0 +1,68 @@
+package com.temporal.demos.helloworld.admission;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.temporal.api.workflowservice.v1.StartWorkflowExecutionResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells whether a workflow start created a new run. Under the USE_EXISTING
+ * conflict policy the frontend answers a start for a running workflow with
+ * that workflow's run instead of an error, and only the response's started
+ * flag says which happened. The SDK's start methods don't return it, so this
+ * interceptor reads it off the response.
+ *
+ * The SDK starts workflows through blocking stubs, which deliver the response
+ * on the calling thread, so the flag is kept in a thread local for
+ * {@link #startsNewRun} to pick up.
+ */
+@Component
+public class StartedRunTracker implements ClientInterceptor {
+
+    private static final ThreadLocal<Boolean> lastStarted = new ThreadLocal<>();
+
+    /**
+     * Runs start and reports whether it created a run; false when it
+     * attached to one already running. Starts that didn't pass through this
+     * interceptor count as new runs.
+     */
+    public boolean startsNewRun(Runnable start) {
+        lastStarted.remove();
+        try {
+            start.run();
+            Boolean started = lastStarted.get();
+            return started == null || started;
+        } finally {
+            lastStarted.remove();
+        }
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions, Channel next) {
+        ClientCall<ReqT, RespT> call = next.newCall(method, callOptions);
+        if (!method.getFullMethodName().endsWith("/StartWorkflowExecution")) {
+            return call;
+        }
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(call) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onMessage(RespT message) {
+                        if (message instanceof StartWorkflowExecutionResponse response) {
+                            lastStarted.set(response.getStarted());
+                        }
+                        super.onMessage(message);
+                    }
+                }, headers);
+            }
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.temporal.demos.helloworld.approvals;
+
+import com.temporal.demos.helloworld.utils.WorkflowUtil;
+import io.temporal.client.WorkflowClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * The free-text details of each approval request, one file per approval
+ * workflow ID. Waiting approvals don't hold their details (see
+ * ApprovalWorkflowImpl), and their first run, which was started with them,
+ * closes at once and is deleted with the namespace's retention while the
+ * approval may still wait for days. So the worker saves the details when it
+ * first notifies the approvers, before that run can close, and reminders,
+ * escalations and the status endpoint read them from here.
+ *
+ * Files are written atomically and fsynced. Written by workers and read by
+ * both roles: share the directory like audit.path when they run separately.
+ * Files not written for retention are deleted by the next save after it,
+ * at most once an hour, so retention must outlast the longest approval.
+ */
+@Component
+public class ApprovalDetailsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApprovalDetailsStore.class);
+
+    private static final long SWEEP_INTERVAL_MILLIS = Duration.ofHours(1).toMillis();
+
+    private final Path directory;
+    private final long retentionMillis;
+
+    private volatile long lastSweepMillis;
+
+    public ApprovalDetailsStore(@Value("${approval.details.path:data/approval-details}") String directory,
+            @Value("${approval.details.retention:30d}") Duration retention) {
+        this.directory = Path.of(directory);
+        this.retentionMillis = retention.toMillis();
+    }
+
+    /**
+     * Saves the details of workflowId's request, replacing any saved before;
+     * retried activities save the same details again.
+     */
+    public void save(String workflowId, String details) throws IOException {
+        Files.createDirectories(directory);
+        Path file = file(workflowId);
+        Path written = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(written, details != null ? details : "", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.SYNC);
+        Files.move(written, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        sweepIfDue();
+    }
+
+    /**
+     * The saved details of workflowId's request, or null if none were saved.
+     */
+    public String find(String workflowId) throws IOException {
+        try {
+            return Files.readString(file(workflowId), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The saved details, or for an approval that notified its approvers
+     * before details were saved here, the ones its first run was started
+     * with, which are then saved. Null once that run has been deleted too.
+     */
+    public String find(String workflowId, WorkflowClient workflowClient) throws IOException {
+        String details = find(workflowId);
+        if (details != null) {
+            return details;
+        }
+        try {
+            // processApprovalRequest(requestId, requestType, requestDetails, ...)
+            details = (String) WorkflowUtil.getFirstRunArguments(workflowClient, workflowId,
+                    String.class, String.class, String.class)[2];
+        } catch (RuntimeException e) {
+            logger.warn("No saved details for approval {} and its first run cannot be read: {}", workflowId,
+                    e.getMessage());
+            return null;
+        }
+        if (details != null) {
+            save(workflowId, details);
+        }
+        return details;
+    }
+
+    /**
+     * A fixed-length file name for any workflow ID.
+     */
+    private Path file(String workflowId) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(workflowId.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void sweepIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweepMillis < SWEEP_INTERVAL_MILLIS) {
+            return;
+        }
+        lastSweepMillis = now;
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < now - retentionMillis && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to sweep approval details older than {}ms from {}: {}", retentionMillis, directory,
+                    e.getMessage());
+            return;
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} approval details older than {}ms", deleted, retentionMillis);
+        }
+    }
+}
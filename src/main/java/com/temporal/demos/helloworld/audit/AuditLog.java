@@ -0,0 +1,261 @@
+package com.temporal.demos.helloworld.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit log of approval decisions, one JSON object per line.
+ *
+ * Writers add their record to a lock-free queue and wait; a single flusher
+ * thread writes everything queued with one write and one fsync (group
+ * commit), then releases the writers in that batch. A batch is flushed once
+ * max-batch-size records are queued, or max-batch-delay after its first
+ * record arrived, whichever comes first. While one batch is being synced the
+ * next one fills up, so under concurrent decisions the cost of an fsync is
+ * shared by everyone who arrived during the previous one.
+ *
+ * max-batch-delay defaults to 0: each writer waits on its own record, so a
+ * batch held open can only grow by writers that haven't arrived yet, and in
+ * AuditLogBenchmark a 2 ms delay cut throughput by more than 10x.
+ *
+ * {@link #append} returns only once the record is on disk, so an activity
+ * that completes has a durable audit record. The log is never rewritten;
+ * {@link AuditLogReader} reads it.
+ */
+@Component
+@ConditionalOnProperty(name = "temporal.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditLog implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    private final Path path;
+    private final int maxBatchSize;
+    private final long maxBatchDelayNanos;
+    private final Duration appendTimeout;
+
+    private final ConcurrentLinkedQueue<PendingRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final AtomicLong batchesWritten = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile Thread flusher;
+    private FileChannel channel;
+
+    public AuditLog(@Value("${audit.path:data/audit.log}") String path,
+            @Value("${audit.max-batch-size:256}") int maxBatchSize,
+            @Value("${audit.max-batch-delay:0ms}") Duration maxBatchDelay,
+            @Value("${audit.append-timeout:10s}") Duration appendTimeout) {
+        this.path = Path.of(path);
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelayNanos = maxBatchDelay.toNanos();
+        this.appendTimeout = appendTimeout;
+    }
+
+    private static final class PendingRecord {
+        final byte[] line;
+        final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        PendingRecord(byte[] line) {
+            this.line = line;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            boolean tornTail = false;
+            if (Files.exists(path)) {
+                try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+                    ByteBuffer last = ByteBuffer.allocate(1);
+                    tornTail = in.size() > 0 && in.read(last, in.size() - 1) == 1 && last.get(0) != '\n';
+                }
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            if (tornTail) {
+                // A crash mid-write left a partial last line; start the next record on its own line
+                writeFully(new byte[] { '\n' });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open audit log " + path, e);
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "audit-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Appends a record and waits until it is durable.
+     *
+     * @throws IllegalStateException if the log is stopped or the record was
+     *                               not flushed within append-timeout
+     * @throws UncheckedIOException  if writing or syncing the batch failed
+     */
+    public void append(AuditRecord record) throws InterruptedException {
+        if (!running) {
+            throw new IllegalStateException("Audit log is not running");
+        }
+        PendingRecord pending = new PendingRecord((record.toJson() + "\n").getBytes(StandardCharsets.UTF_8));
+        queue.add(pending);
+        int size = queued.incrementAndGet();
+        // Wake the flusher when it may be idle, or when the batch it is waiting on is full
+        if (size == 1 || size == maxBatchSize) {
+            LockSupport.unpark(flusher);
+        }
+        try {
+            pending.durable.get(appendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException("Failed to write audit record " + record.getId(),
+                        (IOException) cause);
+            }
+            throw new IllegalStateException("Failed to write audit record " + record.getId(), cause);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Audit record " + record.getId() + " not flushed within "
+                    + appendTimeout);
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingRecord> batch = new ArrayList<>(maxBatchSize);
+        while (running || queued.get() > 0) {
+            if (queued.get() == 0) {
+                LockSupport.park(this);
+                continue;
+            }
+            long deadline = System.nanoTime() + maxBatchDelayNanos;
+            long remaining;
+            while (running && queued.get() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+
+            PendingRecord pending;
+            while (batch.size() < maxBatchSize && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            queued.addAndGet(-batch.size());
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingRecord> batch) {
+        int bytes = 0;
+        for (PendingRecord pending : batch) {
+            bytes += pending.line.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        for (PendingRecord pending : batch) {
+            buffer.put(pending.line);
+        }
+        try {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write {} audit record(s) to {}", batch.size(), path, e);
+            for (PendingRecord pending : batch) {
+                pending.durable.completeExceptionally(e);
+            }
+            return;
+        }
+        recordsWritten.addAndGet(batch.size());
+        batchesWritten.incrementAndGet();
+        for (PendingRecord pending : batch) {
+            pending.durable.complete(null);
+        }
+    }
+
+    private void writeFully(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Stops accepting records, flushes those already queued and closes the
+     * file.
+     */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(appendTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close audit log: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after WorkerLifecycle, so decisions logged while the worker
+     * drains are still written.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten.get();
+    }
+
+    /**
+     * Number of fsyncs; records written divided by this is the average
+     * group-commit size.
+     */
+    public long getBatchesWritten() {
+        return batchesWritten.get();
+    }
+}
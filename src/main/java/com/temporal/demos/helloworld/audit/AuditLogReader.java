@@ -0,0 +1,84 @@
+package com.temporal.demos.helloworld.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the audit trail written by {@link AuditLog}. Works in any process
+ * that can see the file, so an API-only instance can serve it when the log
+ * is on a volume shared with the workers.
+ *
+ * Lookups scan the whole file, skipping lines that can't contain the
+ * request ID before parsing them; fine for an audit endpoint, not for a hot
+ * path.
+ */
+@Component
+public class AuditLogReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path path;
+
+    public AuditLogReader(@Value("${audit.path:data/audit.log}") String path) {
+        this.path = Path.of(path);
+    }
+
+    /**
+     * Returns the decisions recorded for a request, oldest first, with
+     * duplicates from activity retries removed. Empty if nothing was
+     * recorded or the log doesn't exist yet.
+     */
+    public List<AuditRecord> findByRequestId(String requestId) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        // IDs that JSON escapes on write can't be matched as raw text, so those lines are all parsed
+        String quoted = requestId.chars().anyMatch(c -> c == '"' || c == '\\' || c < 0x20)
+                ? null
+                : '"' + requestId + '"';
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (quoted != null && !line.contains(quoted)) {
+                    continue;
+                }
+                AuditRecord record = parse(line);
+                if (record != null && requestId.equals(record.getRequestId()) && seen.add(record.getId())) {
+                    records.add(record);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return records;
+        }
+        return records;
+    }
+
+    private static AuditRecord parse(String line) {
+        try {
+            JsonNode json = MAPPER.readTree(line);
+            return new AuditRecord(
+                    json.path("id").asText(),
+                    json.path("requestId").asText(),
+                    json.path("decision").asText(),
+                    json.path("approverEmail").asText(null),
+                    json.path("comments").asText(null),
+                    json.path("recordedAtMillis").asLong());
+        } catch (JsonProcessingException e) {
+            // A torn line from a crash mid-write; its writer never saw it succeed and retried
+            return null;
+        }
+    }
+}
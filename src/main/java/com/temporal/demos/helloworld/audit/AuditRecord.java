@@ -0,0 +1,68 @@
+package com.temporal.demos.helloworld.audit;
+
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+
+/**
+ * One approval decision in the audit trail. id is stable across retries of
+ * the activity that wrote it, so a retried write shows up as a duplicate
+ * line that readers collapse.
+ */
+public class AuditRecord {
+
+    private final String id;
+    private final String requestId;
+    private final String decision;
+    private final String approverEmail;
+    private final String comments;
+    private final long recordedAtMillis;
+
+    public AuditRecord(String id, String requestId, String decision, String approverEmail, String comments,
+            long recordedAtMillis) {
+        this.id = id;
+        this.requestId = requestId;
+        this.decision = decision;
+        this.approverEmail = approverEmail;
+        this.comments = comments;
+        this.recordedAtMillis = recordedAtMillis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getDecision() {
+        return decision;
+    }
+
+    public String getApproverEmail() {
+        return approverEmail;
+    }
+
+    public String getComments() {
+        return comments;
+    }
+
+    public long getRecordedAtMillis() {
+        return recordedAtMillis;
+    }
+
+    /**
+     * The record as one line of the audit log, without the trailing newline.
+     */
+    String toJson() {
+        return JsonResultWriter.forCurrentThread()
+                .beginObject()
+                .field("id", id)
+                .field("requestId", requestId)
+                .field("decision", decision)
+                .field("approverEmail", approverEmail)
+                .field("comments", comments)
+                .field("recordedAtMillis", recordedAtMillis)
+                .endObject()
+                .toJson();
+    }
+}
@@ -0,0 +1,49 @@
+package com.temporal.demos.helloworld.config;
+
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts activity executions currently running on this worker, so shutdown
+ * can report how much work is still draining.
+ */
+@Component
+@ConditionalOnProperty(name = "temporal.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class InFlightActivityTracker extends WorkerInterceptorBase {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+
+    @Override
+    public ActivityInboundCallsInterceptor interceptActivity(ActivityInboundCallsInterceptor next) {
+        return new ActivityInboundCallsInterceptorBase(next) {
+            @Override
+            public ActivityOutput execute(ActivityInput input) {
+                inFlight.incrementAndGet();
+                try {
+                    return super.execute(input);
+                } finally {
+                    inFlight.decrementAndGet();
+                    completed.increment();
+                }
+            }
+        };
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Activity executions finished since startup, successful or not.
+     */
+    public long getCompleted() {
+        return completed.sum();
+    }
+}
@@ -0,0 +1,100 @@
+package com.temporal.demos.helloworld.config;
+
+import com.temporal.demos.helloworld.workflows.ApprovalSearchAttributes;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.temporal.api.enums.v1.IndexedValueType;
+import io.temporal.api.operatorservice.v1.AddSearchAttributesRequest;
+import io.temporal.api.operatorservice.v1.ListSearchAttributesRequest;
+import io.temporal.api.operatorservice.v1.ListSearchAttributesResponse;
+import io.temporal.client.WorkflowClient;
+import io.temporal.common.SearchAttributeKey;
+import io.temporal.serviceclient.OperatorServiceStubs;
+import io.temporal.serviceclient.OperatorServiceStubsOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Adds the custom search attributes the workflows upsert
+ * ({@link ApprovalSearchAttributes}) to the namespace when they are missing.
+ * Called by {@link WorkerLifecycle} before polling starts, since a workflow
+ * task that upserts an unknown attribute fails until it is registered.
+ */
+@Component
+@ConditionalOnProperty(name = "temporal.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class SearchAttributeRegistrar {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchAttributeRegistrar.class);
+
+    private final WorkflowClient workflowClient;
+    private volatile boolean registered;
+
+    public SearchAttributeRegistrar(WorkflowClient workflowClient) {
+        this.workflowClient = workflowClient;
+    }
+
+    /**
+     * Registers missing attributes; a no-op once they all exist. Servers that
+     * don't allow registration through the operator API (Temporal Cloud, for
+     * one) only get a warning, as the attributes must then be created by an
+     * administrator.
+     *
+     * @throws StatusRuntimeException if the frontend is unreachable or refuses
+     *                                the registration for another reason
+     */
+    public void registerMissing() {
+        if (registered) {
+            return;
+        }
+        String namespace = workflowClient.getOptions().getNamespace();
+        OperatorServiceStubs operatorService = OperatorServiceStubs.newServiceStubs(
+                OperatorServiceStubsOptions.newBuilder()
+                        .setChannel(workflowClient.getWorkflowServiceStubs().getRawChannel())
+                        .validateAndBuildWithDefaults());
+        try {
+            Map<String, IndexedValueType> missing = new LinkedHashMap<>();
+            for (SearchAttributeKey<?> key : ApprovalSearchAttributes.ALL) {
+                missing.put(key.getName(), key.getValueType());
+            }
+            try {
+                ListSearchAttributesResponse existing = operatorService.blockingStub()
+                        .listSearchAttributes(ListSearchAttributesRequest.newBuilder()
+                                .setNamespace(namespace)
+                                .build());
+                missing.keySet().removeIf(existing::containsCustomAttributes);
+            } catch (StatusRuntimeException e) {
+                // The test server can add attributes but not list them
+                if (e.getStatus().getCode() != Status.Code.UNIMPLEMENTED) {
+                    throw e;
+                }
+            }
+
+            if (!missing.isEmpty()) {
+                try {
+                    operatorService.blockingStub().addSearchAttributes(AddSearchAttributesRequest.newBuilder()
+                            .setNamespace(namespace)
+                            .putAllSearchAttributes(missing)
+                            .build());
+                    logger.info("Registered search attributes {} in namespace {}", missing.keySet(), namespace);
+                } catch (StatusRuntimeException e) {
+                    Status.Code code = e.getStatus().getCode();
+                    if (code == Status.Code.UNIMPLEMENTED || code == Status.Code.PERMISSION_DENIED) {
+                        logger.warn("Cannot register search attributes {} in namespace {} ({}); create them "
+                                + "before starting approvals or their workflow tasks will fail",
+                                missing, namespace, code);
+                    } else if (code != Status.Code.ALREADY_EXISTS) {
+                        throw e;
+                    }
+                }
+            }
+            registered = true;
+        } finally {
+            operatorService.shutdown();
+        }
+    }
+}
@@ -1,60 +1,128 @@
 package com.temporal.demos.helloworld.config;
 
+import com.uber.m3.tally.RootScopeBuilder;
+import com.uber.m3.tally.Scope;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.schedules.ScheduleClient;
+import io.temporal.client.schedules.ScheduleClientOptions;
+import io.temporal.common.converter.CodecDataConverter;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.reporter.MicrometerClientStatsReporter;
+import io.temporal.payload.codec.PayloadCodec;
 import io.temporal.serviceclient.WorkflowServiceStubs;
-import io.temporal.worker.Worker;
-import io.temporal.worker.WorkerFactory;
+import io.temporal.serviceclient.WorkflowServiceStubsOptions;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
 
-import com.temporal.demos.helloworld.activities.HelloWorldActivitiesImpl;
-import com.temporal.demos.helloworld.activities.ApprovalActivitiesImpl;
-import com.temporal.demos.helloworld.activities.ExternalApiActivitiesImpl;
-import com.temporal.demos.helloworld.workflows.HelloWorldWorkflowImpl;
-import com.temporal.demos.helloworld.workflows.ApprovalWorkflowImpl;
-import com.temporal.demos.helloworld.workflows.OrchestrationWorkflowImpl;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 
+import com.temporal.demos.helloworld.admission.FrontendPressure;
+import com.temporal.demos.helloworld.admission.StartedRunTracker;
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.converters.CompressionAlgorithm;
+import com.temporal.demos.helloworld.converters.CompressionPayloadCodec;
+
+/**
+ * Client-side Temporal beans shared by both roles: the service connection,
+ * payload conversion, the WorkflowClient and the ScheduleClient. Worker
+ * beans live in {@link WorkerConfig}.
+ */
 @Configuration
 public class TemporalConfig {
 
     public static final String TASK_QUEUE = "HelloWorldTaskQueue";
 
+    /**
+     * Reports SDK metrics (including sticky cache hits, misses, size and forced
+     * evictions) to the actuator's Micrometer registry.
+     */
     @Bean
-    public WorkflowServiceStubs workflowServiceStubs() {
-        return WorkflowServiceStubs.newLocalServiceStubs();
+    public Scope temporalMetricsScope(MeterRegistry meterRegistry) {
+        return new RootScopeBuilder()
+                .reporter(new MicrometerClientStatsReporter(meterRegistry))
+                .reportEvery(com.uber.m3.util.Duration.ofSeconds(10));
     }
 
+    /**
+     * Every API and worker process connects to the same frontend, set with
+     * temporal.target when the roles run on different hosts. Rate-limited
+     * calls are reported to {@link FrontendPressure} so the API can back off.
+     */
     @Bean
-    @DependsOn("workflowServiceStubs")
-    public WorkflowClient workflowClient(WorkflowServiceStubs serviceStubs) {
-        return WorkflowClient.newInstance(serviceStubs);
+    public WorkflowServiceStubs workflowServiceStubs(Scope temporalMetricsScope, FrontendPressure frontendPressure,
+            StartedRunTracker startedRunTracker, @Value("${temporal.target:127.0.0.1:7233}") String target) {
+        return WorkflowServiceStubs.newServiceStubs(
+                WorkflowServiceStubsOptions.newBuilder()
+                        .setTarget(target)
+                        .setMetricsScope(temporalMetricsScope)
+                        .setGrpcClientInterceptors(List.of(frontendPressure, startedRunTracker))
+                        .build());
     }
 
+    /**
+     * Payload format for workflow/activity data: "compact" (binary, default) or
+     * "json" (SDK default). Either setting still reads payloads written by the
+     * other one.
+     *
+     * Payloads at or above the compression threshold are compressed with the
+     * configured algorithm ("none" disables it). Decoding always accepts both
+     * compressed and uncompressed payloads.
+     */
     @Bean
-    @DependsOn("workflowClient")
-    public WorkerFactory workerFactory(WorkflowClient workflowClient) {
-        return WorkerFactory.newInstance(workflowClient);
+    public DataConverter dataConverter(@Value("${temporal.payload.format:compact}") String payloadFormat,
+            @Value("${temporal.payload.compression.algorithm:deflate}") String compressionAlgorithm,
+            @Value("${temporal.payload.compression.threshold-bytes:1024}") int compressionThresholdBytes) {
+        DataConverter dataConverter = CompactPayloadConverter.newDataConverter(
+                !"json".equalsIgnoreCase(payloadFormat));
+        if ("none".equalsIgnoreCase(compressionAlgorithm)) {
+            return dataConverter;
+        }
+        PayloadCodec codec = new CompressionPayloadCodec(compressionAlgorithm(compressionAlgorithm),
+                compressionThresholdBytes);
+        return new CodecDataConverter(dataConverter, Collections.singletonList(codec));
+    }
+
+    /**
+     * Case-insensitive in every default locale; "GZIP" upper-cased in Turkish
+     * would not name a constant.
+     */
+    private static CompressionAlgorithm compressionAlgorithm(String name) {
+        try {
+            return CompressionAlgorithm.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown temporal.payload.compression.algorithm '" + name
+                    + "'; expected none or one of " + Arrays.stream(CompressionAlgorithm.values())
+                    .map(CompressionAlgorithm::getMetadataName).toList());
+        }
     }
 
     @Bean
-    @DependsOn("workerFactory")
-    public Worker worker(WorkerFactory workerFactory) {
-        Worker worker = workerFactory.newWorker(TASK_QUEUE);
-
-        // Register workflow implementations
-        worker.registerWorkflowImplementationTypes(
-                HelloWorldWorkflowImpl.class,
-                ApprovalWorkflowImpl.class,
-                OrchestrationWorkflowImpl.class);
-
-        // Register activity implementations
-        worker.registerActivitiesImplementations(
-                new HelloWorldActivitiesImpl(),
-                new ApprovalActivitiesImpl(),
-                new ExternalApiActivitiesImpl());
-
-        workerFactory.start();
-        return worker;
+    @DependsOn("workflowServiceStubs")
+    public WorkflowClient workflowClient(WorkflowServiceStubs serviceStubs, DataConverter dataConverter) {
+        return WorkflowClient.newInstance(serviceStubs,
+                WorkflowClientOptions.newBuilder()
+                        .setDataConverter(dataConverter)
+                        .build());
+    }
+
+    /**
+     * Manages and triggers the pre-warm schedule; uses the same payload
+     * format as the workflow client, since the schedule stores the arguments
+     * of the workflows it starts.
+     */
+    @Bean
+    @DependsOn("workflowServiceStubs")
+    public ScheduleClient scheduleClient(WorkflowServiceStubs serviceStubs, DataConverter dataConverter) {
+        return ScheduleClient.newInstance(serviceStubs,
+                ScheduleClientOptions.newBuilder()
+                        .setDataConverter(dataConverter)
+                        .build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.temporal.demos.helloworld.config;
+
+import io.grpc.health.v1.HealthCheckResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.temporal.serviceclient.WorkflowServiceStubs;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Worker poller health, exposed as the "temporalWorker" health component and
+ * part of the readiness group: UP only while the pollers run and the Temporal
+ * frontend answers health checks. While shutting down it reports drain
+ * progress (in-flight activities and time left before they are interrupted).
+ *
+ * Details are only shown to authorized callers; anyone can read the status,
+ * which is OUT_OF_SERVICE while draining. The same progress is published as
+ * metrics: temporal.worker.draining, temporal.worker.drain.remaining and
+ * temporal.worker.activities.in_flight / .completed.
+ */
+@Component
+@ConditionalOnProperty(name = "temporal.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class TemporalWorkerHealthIndicator implements HealthIndicator {
+
+    private final WorkerLifecycle workerLifecycle;
+    private final InFlightActivityTracker activityTracker;
+    private final WorkflowServiceStubs workflowServiceStubs;
+
+    public TemporalWorkerHealthIndicator(WorkerLifecycle workerLifecycle, InFlightActivityTracker activityTracker,
+            WorkflowServiceStubs workflowServiceStubs, MeterRegistry meterRegistry) {
+        this.workerLifecycle = workerLifecycle;
+        this.activityTracker = activityTracker;
+        this.workflowServiceStubs = workflowServiceStubs;
+
+        Gauge.builder("temporal.worker.draining", workerLifecycle,
+                        lifecycle -> lifecycle.getState() == WorkerLifecycle.State.DRAINING ? 1 : 0)
+                .description("1 while in-flight activities drain on shutdown")
+                .register(meterRegistry);
+        Gauge.builder("temporal.worker.drain.remaining", this,
+                        indicator -> indicator.drainRemaining().toMillis() / 1000.0)
+                .description("Time left before draining activities are interrupted")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("temporal.worker.activities.in_flight", activityTracker, InFlightActivityTracker::getInFlight)
+                .register(meterRegistry);
+        FunctionCounter.builder("temporal.worker.activities.completed", activityTracker,
+                        InFlightActivityTracker::getCompleted)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Health health() {
+        WorkerLifecycle.State state = workerLifecycle.getState();
+        Health.Builder health = state == WorkerLifecycle.State.RUNNING ? Health.up() : Health.outOfService();
+        health.withDetail("state", state.name())
+                .withDetail("inFlightActivities", activityTracker.getInFlight())
+                .withDetail("completedActivities", activityTracker.getCompleted());
+
+        switch (state) {
+            case STARTING:
+                health.withDetail("startAttempts", workerLifecycle.getStartAttempts());
+                if (workerLifecycle.getLastStartError() != null) {
+                    health.withDetail("lastStartError", workerLifecycle.getLastStartError());
+                }
+                break;
+            case RUNNING:
+                try {
+                    HealthCheckResponse.ServingStatus serving = workflowServiceStubs.healthCheck().getStatus();
+                    if (serving != HealthCheckResponse.ServingStatus.SERVING) {
+                        health.down().withDetail("frontend", serving.name());
+                    }
+                } catch (Exception e) {
+                    health.down().withDetail("frontend", e.getMessage());
+                }
+                break;
+            case DRAINING:
+                health.withDetail("drainElapsedMs",
+                                Duration.between(workerLifecycle.getDrainStartedAt(), Instant.now()).toMillis())
+                        .withDetail("drainRemainingMs", drainRemaining().toMillis());
+                break;
+            default:
+        }
+        return health.build();
+    }
+
+    /**
+     * Time left before draining activities are interrupted; zero unless the
+     * worker is draining.
+     */
+    private Duration drainRemaining() {
+        Instant drainStartedAt = workerLifecycle.getDrainStartedAt();
+        if (workerLifecycle.getState() != WorkerLifecycle.State.DRAINING || drainStartedAt == null) {
+            return Duration.ZERO;
+        }
+        Duration remaining = workerLifecycle.getDrainTimeout().minus(Duration.between(drainStartedAt, Instant.now()));
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+}
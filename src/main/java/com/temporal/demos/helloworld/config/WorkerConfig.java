@@ -0,0 +1,94 @@
+package com.temporal.demos.helloworld.config;
+
+import io.temporal.client.WorkflowClient;
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerFactory;
+import io.temporal.worker.WorkerFactoryOptions;
+import io.temporal.worker.WorkerOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+import com.temporal.demos.helloworld.activities.HelloWorldActivitiesImpl;
+import com.temporal.demos.helloworld.activities.ApprovalActivitiesImpl;
+import com.temporal.demos.helloworld.activities.ExternalApiActivitiesImpl;
+import com.temporal.demos.helloworld.activities.PrewarmActivitiesImpl;
+import com.temporal.demos.helloworld.faults.FaultInjector;
+import com.temporal.demos.helloworld.workflows.HelloWorldWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflowImpl;
+import com.temporal.demos.helloworld.workflows.PrewarmWorkflowImpl;
+
+/**
+ * The worker role: polls {@link TemporalConfig#TASK_QUEUE} and runs the
+ * workflows and activities. Disabled with temporal.worker.enabled=false (the
+ * "api" profile), so the REST tier can scale separately from the workers.
+ */
+@Configuration
+@ConditionalOnProperty(name = "temporal.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class WorkerConfig {
+
+    /**
+     * The sticky cache keeps recently used workflows in memory so new tasks
+     * don't replay their history. Each cached workflow also holds a workflow
+     * thread, so the thread count should be at least the cache size.
+     */
+    @Bean
+    @DependsOn("workflowClient")
+    public WorkerFactory workerFactory(WorkflowClient workflowClient, InFlightActivityTracker activityTracker,
+            @Value("${temporal.worker.workflow-cache-size:600}") int workflowCacheSize,
+            @Value("${temporal.worker.max-workflow-thread-count:600}") int maxWorkflowThreadCount) {
+        return WorkerFactory.newInstance(workflowClient,
+                WorkerFactoryOptions.newBuilder()
+                        .setWorkflowCacheSize(workflowCacheSize)
+                        .setMaxWorkflowThreadCount(maxWorkflowThreadCount)
+                        .setWorkerInterceptors(activityTracker)
+                        .build());
+    }
+
+    /**
+     * Activities run concurrently up to max-concurrent-activities per worker
+     * process; beyond that tasks wait on the queue for the next free slot on
+     * any worker.
+     *
+     * With eager-activities the server hands activities a workflow task
+     * schedules straight back to this worker in the task's completion
+     * response, skipping a round trip through the task queue, as long as it
+     * has free activity slots; the rest go through the queue. Eager workflow
+     * starts ({@link WorkflowIdScheme}) likewise need a free slot out of
+     * max-concurrent-workflow-tasks.
+     */
+    @Bean
+    @DependsOn("workerFactory")
+    public Worker worker(WorkerFactory workerFactory, FaultInjector faultInjector,
+            ApprovalActivitiesImpl approvalActivities, PrewarmActivitiesImpl prewarmActivities,
+            @Value("${temporal.worker.max-concurrent-activities:200}") int maxConcurrentActivities,
+            @Value("${temporal.worker.max-concurrent-workflow-tasks:200}") int maxConcurrentWorkflowTasks,
+            @Value("${temporal.worker.eager-activities:true}") boolean eagerActivities) {
+        Worker worker = workerFactory.newWorker(TemporalConfig.TASK_QUEUE,
+                WorkerOptions.newBuilder()
+                        .setMaxConcurrentActivityExecutionSize(maxConcurrentActivities)
+                        .setMaxConcurrentWorkflowTaskExecutionSize(maxConcurrentWorkflowTasks)
+                        .setDisableEagerExecution(!eagerActivities)
+                        .build());
+
+        // Register workflow implementations
+        worker.registerWorkflowImplementationTypes(
+                HelloWorldWorkflowImpl.class,
+                ApprovalWorkflowImpl.class,
+                OrchestrationWorkflowImpl.class,
+                PrewarmWorkflowImpl.class);
+
+        // Register activity implementations
+        worker.registerActivitiesImplementations(
+                new HelloWorldActivitiesImpl(),
+                approvalActivities,
+                new ExternalApiActivitiesImpl(faultInjector),
+                prewarmActivities);
+
+        // Polling is started (and drained on shutdown) by WorkerLifecycle
+        return worker;
+    }
+}
@@ -0,0 +1,207 @@
+package com.temporal.demos.helloworld.config;
+
+import com.temporal.demos.helloworld.prewarm.PrewarmSchedule;
+import io.temporal.worker.WorkerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Starts and stops the worker's pollers with the application.
+ *
+ * Polling starts once the application is ready, on a background thread that
+ * retries until the Temporal frontend is reachable, the workflows' search
+ * attributes are registered and the pre-warm schedule matches the
+ * configuration, so startup is not held up by the connection.
+ *
+ * On shutdown (SIGTERM) polling is suspended first and in-flight activities
+ * get up to the drain timeout to finish; the worker stays fully operational
+ * meanwhile, so they keep heartbeating and can report their results. Only
+ * then is the worker shut down, interrupting whatever is left. Progress is
+ * reported by {@link TemporalWorkerHealthIndicator}.
+ *
+ * Runs in the last lifecycle phase, so it stops before the web server and
+ * the actuator keeps answering while the worker drains. The shutdown phase
+ * timeout (spring.lifecycle.timeout-per-shutdown-phase) must be longer than
+ * the drain timeout.
+ */
+@Component
+@ConditionalOnProperty(name = "temporal.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class WorkerLifecycle implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerLifecycle.class);
+
+    private static final long MAX_START_BACKOFF_MILLIS = 30_000;
+    private static final long DRAIN_CHECK_MILLIS = 100;
+    private static final long MIN_TERMINATION_WAIT_MILLIS = 5_000;
+
+    public enum State {
+        NOT_STARTED, STARTING, RUNNING, DRAINING, TERMINATED
+    }
+
+    private final WorkerFactory workerFactory;
+    private final InFlightActivityTracker activityTracker;
+    private final SearchAttributeRegistrar searchAttributeRegistrar;
+    private final PrewarmSchedule prewarmSchedule;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration drainTimeout;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.NOT_STARTED);
+    private volatile boolean running;
+    private volatile int startAttempts;
+    private volatile String lastStartError;
+    private volatile Instant drainStartedAt;
+    private volatile Thread startThread;
+
+    public WorkerLifecycle(WorkerFactory workerFactory, InFlightActivityTracker activityTracker,
+            SearchAttributeRegistrar searchAttributeRegistrar, PrewarmSchedule prewarmSchedule,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${temporal.worker.drain-timeout:30s}") Duration drainTimeout) {
+        this.workerFactory = workerFactory;
+        this.activityTracker = activityTracker;
+        this.searchAttributeRegistrar = searchAttributeRegistrar;
+        this.prewarmSchedule = prewarmSchedule;
+        this.eventPublisher = eventPublisher;
+        this.drainTimeout = drainTimeout;
+    }
+
+    @Override
+    public void start() {
+        // Pollers start on ApplicationReadyEvent; this only registers for stop()
+        running = true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPolling() {
+        if (!state.compareAndSet(State.NOT_STARTED, State.STARTING)) {
+            return;
+        }
+        Thread thread = new Thread(this::startWithRetry, "temporal-worker-start");
+        thread.setDaemon(true);
+        startThread = thread;
+        thread.start();
+    }
+
+    private void startWithRetry() {
+        long backoffMillis = 1000;
+        while (state.get() == State.STARTING) {
+            startAttempts++;
+            try {
+                searchAttributeRegistrar.registerMissing();
+                prewarmSchedule.createOrUpdate();
+                workerFactory.start();
+                if (!state.compareAndSet(State.STARTING, State.RUNNING)) {
+                    // stop() began while starting and shuts the factory down
+                    return;
+                }
+                lastStartError = null;
+                logger.info("Temporal worker polling started after {} attempt(s)", startAttempts);
+                return;
+            } catch (Exception e) {
+                if (state.get() != State.STARTING) {
+                    return;
+                }
+                lastStartError = e.getMessage();
+                logger.warn("Temporal worker failed to start (attempt {}), retrying in {}ms: {}",
+                        startAttempts, backoffMillis, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, MAX_START_BACKOFF_MILLIS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        State previous = state.getAndSet(State.DRAINING);
+        drainStartedAt = Instant.now();
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+        Thread thread = startThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+
+        if (previous == State.RUNNING) {
+            logger.info("Draining Temporal worker: polling suspended, waiting up to {} for {} in-flight activities",
+                    drainTimeout, activityTracker.getInFlight());
+            long deadline = System.nanoTime() + drainTimeout.toNanos();
+            workerFactory.suspendPolling();
+            try {
+                while (activityTracker.getInFlight() > 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(DRAIN_CHECK_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // Heartbeats stop once shutdown starts, so only short work is left to finish here
+            workerFactory.shutdown();
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            workerFactory.awaitTermination(Math.max(remainingMillis, MIN_TERMINATION_WAIT_MILLIS),
+                    TimeUnit.MILLISECONDS);
+            if (!workerFactory.isTerminated()) {
+                logger.warn("Temporal worker did not drain within {}, interrupting {} remaining activities",
+                        drainTimeout, activityTracker.getInFlight());
+                workerFactory.shutdownNow();
+                workerFactory.awaitTermination(MIN_TERMINATION_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            workerFactory.shutdownNow();
+        }
+
+        state.set(State.TERMINATED);
+        running = false;
+        logger.info("Temporal worker stopped after {}ms", Duration.between(drainStartedAt, Instant.now()).toMillis());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public int getStartAttempts() {
+        return startAttempts;
+    }
+
+    public String getLastStartError() {
+        return lastStartError;
+    }
+
+    public Duration getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    /**
+     * When shutdown began, or null while the worker has not been stopped.
+     */
+    public Instant getDrainStartedAt() {
+        return drainStartedAt;
+    }
+}
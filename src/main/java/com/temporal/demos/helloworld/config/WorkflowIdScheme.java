@@ -0,0 +1,123 @@
+package com.temporal.demos.helloworld.config;
+
+import io.temporal.api.enums.v1.WorkflowIdConflictPolicy;
+import io.temporal.api.enums.v1.WorkflowIdReusePolicy;
+import io.temporal.client.WorkflowOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Workflow IDs and start options for every workflow type the API starts.
+ *
+ * An ID is the type's prefix followed by the caller's idempotency key (or
+ * request ID), so the same key can't collide across types, and one type's
+ * workflows can be listed with WorkflowId STARTS_WITH 'prefix'. Each type
+ * also has a workflow ID reuse policy, for an ID whose workflow has closed,
+ * and a conflict policy, for an ID whose workflow is still running. With
+ * USE_EXISTING a retried start returns the running workflow instead of
+ * failing, so the caller needs no second call to find it.
+ *
+ * Configured under temporal.workflow-ids.&lt;type&gt;; policies are given
+ * without their proto prefix, e.g. REJECT_DUPLICATE or USE_EXISTING.
+ *
+ * Starts ask for eager execution unless temporal.api.eager-workflow-start is
+ * false: when a worker in this process polls the task queue with the same
+ * WorkflowClient and has a free workflow task slot, the first workflow task
+ * comes back in the start response instead of through the task queue.
+ * Otherwise, and on servers with eager start disabled, the workflow starts
+ * the normal way.
+ */
+@Component
+@ConditionalOnProperty(name = "temporal.api.enabled", havingValue = "true", matchIfMissing = true)
+public class WorkflowIdScheme {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowIdScheme.class);
+
+    public enum Type {
+        ORCHESTRATION("orchestration", "orchestration-", "ALLOW_DUPLICATE_FAILED_ONLY", "USE_EXISTING"),
+        APPROVAL("approval", "approval-", "REJECT_DUPLICATE", "USE_EXISTING"),
+        HELLO_WORLD("hello-world", "hello-world-", "ALLOW_DUPLICATE", "FAIL");
+
+        private final String key;
+        private final String defaultPrefix;
+        private final String defaultReusePolicy;
+        private final String defaultConflictPolicy;
+
+        Type(String key, String defaultPrefix, String defaultReusePolicy, String defaultConflictPolicy) {
+            this.key = key;
+            this.defaultPrefix = defaultPrefix;
+            this.defaultReusePolicy = defaultReusePolicy;
+            this.defaultConflictPolicy = defaultConflictPolicy;
+        }
+    }
+
+    private record Policy(String prefix, WorkflowIdReusePolicy reusePolicy, WorkflowIdConflictPolicy conflictPolicy) {
+    }
+
+    private final Map<Type, Policy> policies = new EnumMap<>(Type.class);
+    private final boolean eagerStart;
+
+    public WorkflowIdScheme(Environment environment) {
+        eagerStart = environment.getProperty("temporal.api.eager-workflow-start", Boolean.class, true);
+        for (Type type : Type.values()) {
+            String property = "temporal.workflow-ids." + type.key + ".";
+            String prefix = environment.getProperty(property + "prefix", type.defaultPrefix);
+            String reusePolicy = environment.getProperty(property + "reuse-policy", type.defaultReusePolicy);
+            String conflictPolicy = environment.getProperty(property + "conflict-policy", type.defaultConflictPolicy);
+            Policy policy = new Policy(prefix,
+                    WorkflowIdReusePolicy.valueOf("WORKFLOW_ID_REUSE_POLICY_"
+                            + reusePolicy.toUpperCase(Locale.ROOT)),
+                    WorkflowIdConflictPolicy.valueOf("WORKFLOW_ID_CONFLICT_POLICY_"
+                            + conflictPolicy.toUpperCase(Locale.ROOT)));
+            for (Map.Entry<Type, Policy> other : policies.entrySet()) {
+                String otherPrefix = other.getValue().prefix();
+                if (prefix.startsWith(otherPrefix) || otherPrefix.startsWith(prefix)) {
+                    throw new IllegalStateException("Workflow ID prefixes of " + type.key + " ('" + prefix + "') and "
+                            + other.getKey().key + " ('" + otherPrefix + "') overlap, so their IDs could collide");
+                }
+            }
+            policies.put(type, policy);
+            logger.info("Workflow IDs for {}: '{}<key>', reuse {}, conflict {}", type.key, prefix, reusePolicy,
+                    conflictPolicy);
+        }
+    }
+
+    /**
+     * The ID for a start request: the idempotency key when the caller sent
+     * one, otherwise the request ID. A request with neither gets a random
+     * key, so unrelated requests never share, or reuse, one workflow.
+     */
+    public String workflowId(Type type, String idempotencyKey, String requestId) {
+        String stableKey;
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            stableKey = idempotencyKey;
+        } else if (requestId != null && !requestId.isBlank()) {
+            stableKey = requestId;
+        } else {
+            stableKey = UUID.randomUUID().toString();
+        }
+        return policies.get(type).prefix() + stableKey;
+    }
+
+    /**
+     * Start options for workflowId on the shared task queue, with the type's
+     * reuse and conflict policies and eager start as configured.
+     */
+    public WorkflowOptions.Builder startOptions(Type type, String workflowId) {
+        Policy policy = policies.get(type);
+        return WorkflowOptions.newBuilder()
+                .setWorkflowId(workflowId)
+                .setTaskQueue(TemporalConfig.TASK_QUEUE)
+                .setWorkflowIdReusePolicy(policy.reusePolicy())
+                .setWorkflowIdConflictPolicy(policy.conflictPolicy())
+                .setDisableEagerExecution(!eagerStart);
+    }
+}
@@ -0,0 +1,33 @@
+package com.temporal.demos.helloworld.controllers;
+
+import com.temporal.demos.helloworld.admission.AdmissionRejectedException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Answers calls shed by admission control with 429 and Retry-After, for
+ * every controller.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "temporal.api.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionExceptionHandler {
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleRejected(AdmissionRejectedException e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", "TOO_MANY_REQUESTS");
+        errorResponse.put("reason", e.getReason().name());
+        errorResponse.put("retryAfterSeconds", e.getRetryAfterSeconds());
+        errorResponse.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+}
@@ -1,59 +1,133 @@
 package com.temporal.demos.helloworld.controllers;
 
-import com.temporal.demos.helloworld.config.TemporalConfig;
+import com.temporal.demos.helloworld.admission.AdmissionControl;
+import com.temporal.demos.helloworld.admission.IdempotencyCache;
+import com.temporal.demos.helloworld.approvals.ApprovalDetailsStore;
+import com.temporal.demos.helloworld.audit.AuditLogReader;
+import com.temporal.demos.helloworld.audit.AuditRecord;
+import com.temporal.demos.helloworld.config.WorkflowIdScheme;
 import com.temporal.demos.helloworld.models.ApprovalDecision;
+import com.temporal.demos.helloworld.models.ApprovalPolicy;
 import com.temporal.demos.helloworld.models.ApprovalRequest;
+import com.temporal.demos.helloworld.models.ApprovalVote;
+import com.temporal.demos.helloworld.models.ApprovalVoteResult;
+import com.temporal.demos.helloworld.models.BulkApprovalDecision;
+import com.google.protobuf.ByteString;
 import com.temporal.demos.helloworld.utils.WorkflowUtil;
+import com.temporal.demos.helloworld.workflows.ApprovalSearchAttributes;
+import com.temporal.demos.helloworld.workflows.ApprovalStatus;
 import com.temporal.demos.helloworld.workflows.ApprovalWorkflow;
+import io.temporal.api.workflow.v1.WorkflowExecutionInfo;
+import io.temporal.api.workflowservice.v1.ListWorkflowExecutionsResponse;
+import io.temporal.client.UpdateOptions;
 import io.temporal.client.WorkflowClient;
-import io.temporal.client.WorkflowExecutionAlreadyStarted;
 import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowUpdateStage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
 
 @RestController
+@ConditionalOnProperty(name = "temporal.api.enabled", havingValue = "true", matchIfMissing = true)
 @RequestMapping("/api/approval")
 public class ApprovalController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    // Values are inlined into visibility queries, so quotes and operators are rejected
+    private static final Pattern QUERY_VALUE = Pattern.compile("[A-Za-z0-9@._+-]{1,254}");
+
     @Autowired
     private WorkflowClient workflowClient;
 
+    @Autowired
+    private AuditLogReader auditLogReader;
+
+    @Autowired
+    private ApprovalDetailsStore approvalDetails;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    @Autowired
+    private WorkflowIdScheme workflowIdScheme;
+
+    @Value("${temporal.api.bulk-decision.parallelism:16}")
+    private int bulkDecisionParallelism;
+
+    @Value("${temporal.api.bulk-decision.max-items:500}")
+    private int bulkDecisionMaxItems;
+
+    @Value("${approval.escalation.reminder-interval:4h}")
+    private Duration reminderInterval;
+
+    @Value("${approval.escalation.escalate-after:12h}")
+    private Duration escalateAfter;
+
+    @Value("${approval.escalation.timeout:24h}")
+    private Duration approvalTimeout;
+
+    // Elasticsearch visibility sorts by custom attributes; SQL visibility does not
+    @Value("${temporal.visibility.order-by:false}")
+    private boolean visibilityOrderBy;
+
     @PostMapping("/request")
     public ResponseEntity<Map<String, Object>> submitApprovalRequest(@RequestBody ApprovalRequest request,
             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
-        String stableKey = idempotencyKey != null && !idempotencyKey.isBlank()
-                ? idempotencyKey
-                : request.getRequestId();
-        String workflowId = "approval-" + stableKey;
+        String workflowId = workflowIdScheme.workflowId(WorkflowIdScheme.Type.APPROVAL, idempotencyKey,
+                request.getRequestId());
+        int requiredApprovals = request.getRequiredApprovals() != null ? request.getRequiredApprovals() : 1;
+        List<String> approvers = request.getApprovers() != null ? request.getApprovers() : List.of();
+        if (requiredApprovals < 1) {
+            return invalidRequest("requiredApprovals must be at least 1");
+        }
+        if (!approvers.isEmpty() && requiredApprovals > approvers.size()) {
+            return invalidRequest("requiredApprovals cannot exceed the " + approvers.size() + " approvers listed");
+        }
 
-        ApprovalWorkflow workflow = workflowClient.newWorkflowStub(
-                ApprovalWorkflow.class,
-                WorkflowOptions.newBuilder()
-                        .setWorkflowId(workflowId)
-                        .setTaskQueue(TemporalConfig.TASK_QUEUE)
-                        .build());
+        WorkflowOptions options = workflowIdScheme.startOptions(WorkflowIdScheme.Type.APPROVAL, workflowId).build();
+        ApprovalWorkflow workflow = workflowClient.newWorkflowStub(ApprovalWorkflow.class, options);
 
         Map<String, Object> response = new HashMap<>();
         response.put("workflowId", workflowId);
         response.put("requestId", request.getRequestId());
         response.put("requestType", "ACCESS_REQUEST");
-        // Async Execution
-        try {
-            WorkflowClient.start(workflow::processApprovalRequest,
-                    request.getRequestId(),
-                    "ACCESS_REQUEST", // Fixed type for demo
-                    request.getRequestDetails(),
-                    request.getRequesterEmail());
-            response.put("status", "SUBMITTED");
-        } catch (WorkflowExecutionAlreadyStarted e) {
-            // existing workflow; request is a retry
-            response.put("status", "ALREADY_EXISTS");
-        }
+        ApprovalPolicy policy = new ApprovalPolicy(reminderInterval.getSeconds(), escalateAfter.getSeconds(),
+                approvalTimeout.getSeconds(), requiredApprovals, approvers);
+        // Async Execution; a retried key is answered from the cache when it can be
+        IdempotencyCache.Outcome outcome = idempotencyCache.start(options, () -> admissionControl.call(
+                AdmissionControl.APPROVAL_REQUEST, () -> WorkflowClient.start(
+                        workflow::processApprovalRequest,
+                        request.getRequestId(),
+                        "ACCESS_REQUEST", // Fixed type for demo
+                        request.getRequestDetails(),
+                        request.getRequesterEmail(),
+                        policy,
+                        null)));
+        // ALREADY_EXISTS: existing workflow; request is a retry
+        response.put("status", outcome == IdempotencyCache.Outcome.STARTED ? "SUBMITTED" : "ALREADY_EXISTS");
 
         return ResponseEntity.ok(response);
     }
@@ -61,51 +135,131 @@ public class ApprovalController {
     @PostMapping("/approve/{workflowId}")
     public ResponseEntity<Map<String, Object>> approveRequest(
             @PathVariable String workflowId,
-            @RequestBody ApprovalDecision decision) {
-
-        try {
-            ApprovalWorkflow workflow = workflowClient.newWorkflowStub(ApprovalWorkflow.class, workflowId);
-            workflow.approve(decision.getApproverEmail(), decision.getComments());
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("workflowId", workflowId);
-            response.put("action", "APPROVED");
-            response.put("approver", decision.getApproverEmail());
-
-            return ResponseEntity.ok(response);
-
-        } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Failed to send approval signal");
-            errorResponse.put("workflowId", workflowId);
-
-            return ResponseEntity.badRequest().body(errorResponse);
-        }
+            @RequestBody ApprovalDecision decision,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return decide(workflowId, new ApprovalVote(decision.getApproverEmail(), true, decision.getComments(),
+                idempotencyKey), "APPROVED");
     }
 
     @PostMapping("/reject/{workflowId}")
     public ResponseEntity<Map<String, Object>> rejectRequest(
             @PathVariable String workflowId,
-            @RequestBody ApprovalDecision decision) {
+            @RequestBody ApprovalDecision decision,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return decide(workflowId, new ApprovalVote(decision.getApproverEmail(), false, decision.getReason(),
+                idempotencyKey), "REJECTED");
+    }
+
+    /**
+     * Casts the vote through the workflow's decide update and answers with
+     * the request's state after it, so the caller needs no status poll. A
+     * vote the workflow turns away gets 409 and leaves no trace in history.
+     * An unknown or closed request gets 404, and a failure to reach the
+     * workflow 503 or 500. With an Idempotency-Key, a retried call is
+     * answered from the first call's outcome.
+     */
+    private ResponseEntity<Map<String, Object>> decide(String workflowId, ApprovalVote vote, String action) {
+        if (vote.getApproverEmail() == null || vote.getApproverEmail().isBlank()) {
+            return invalidRequest("approverEmail is required");
+        }
 
+        Map<String, Object> response = new HashMap<>();
+        response.put("workflowId", workflowId);
         try {
-            ApprovalWorkflow workflow = workflowClient.newWorkflowStub(ApprovalWorkflow.class, workflowId);
-            workflow.reject(decision.getApproverEmail(), decision.getReason());
+            ApprovalVoteResult result = workflowClient.newUntypedWorkflowStub(workflowId)
+                    .startUpdate(decideOptions(vote), vote)
+                    .getResultAsync()
+                    .get();
+            response.put("action", action);
+            response.put("approver", vote.getApproverEmail());
+            putVoteResult(response, result);
+            return ResponseEntity.ok(response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.put("error", "Interrupted while waiting for the decision; it may have been recorded");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        } catch (ExecutionException | RuntimeException e) {
+            Throwable failure = e instanceof ExecutionException ? e.getCause() : e;
+            HttpStatus status = WorkflowUtil.updateFailureStatus(failure);
+            if (status == HttpStatus.NOT_FOUND) {
+                return ResponseEntity.notFound().build();
+            }
+            response.put("error", status == HttpStatus.CONFLICT
+                    ? WorkflowUtil.updateFailureMessage(failure)
+                    : "Failed to record the decision: " + WorkflowUtil.updateFailureMessage(failure));
+            return ResponseEntity.status(status).body(response);
+        }
+    }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("workflowId", workflowId);
-            response.put("action", "REJECTED");
-            response.put("approver", decision.getApproverEmail());
+    private static UpdateOptions<ApprovalVoteResult> decideOptions(ApprovalVote vote) {
+        UpdateOptions.Builder<ApprovalVoteResult> options = UpdateOptions.newBuilder(ApprovalVoteResult.class)
+                .setUpdateName("decide")
+                .setWaitForStage(WorkflowUpdateStage.COMPLETED);
+        if (vote.getIdempotencyKey() != null && vote.getApproverEmail() != null) {
+            // Scoped to the approver, so two approvers picking the same key don't share an outcome
+            options.setUpdateId(vote.getApproverEmail() + "/" + vote.getIdempotencyKey());
+        }
+        return options.build();
+    }
 
-            return ResponseEntity.ok(response);
+    private static void putVoteResult(Map<String, Object> response, ApprovalVoteResult result) {
+        response.put("approvalStatus", result.getApprovalStatus());
+        response.put("currentStep", result.getCurrentStep());
+        response.put("approvals", result.getApprovals());
+        response.put("rejections", result.getRejections());
+        response.put("requiredApprovals", result.getRequiredApprovals());
+        response.put("duplicate", result.isDuplicate());
+    }
 
-        } catch (Exception e) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Failed to send rejection signal");
-            errorResponse.put("workflowId", workflowId);
+    /**
+     * Approves or rejects many requests at once. Each vote goes through the
+     * decide update, as a single decision does, concurrently (bounded by
+     * bulk-decision.parallelism). Every workflow gets its own outcome: the
+     * counted vote with the request's state after it, or why it was not
+     * counted, so one unknown, finished or refused request doesn't hide the
+     * others. Duplicate workflow IDs are decided once.
+     */
+    @PostMapping("/bulk-decision")
+    public ResponseEntity<Map<String, Object>> bulkDecision(@RequestBody BulkApprovalDecision request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        String decision = request.getDecision() != null ? request.getDecision().toUpperCase() : null;
+        if (!"APPROVE".equals(decision) && !"REJECT".equals(decision)) {
+            return invalidRequest("decision must be APPROVE or REJECT");
+        }
+        if (request.getApproverEmail() == null || request.getApproverEmail().isBlank()) {
+            return invalidRequest("approverEmail is required");
+        }
+        if (request.getWorkflowIds() == null || request.getWorkflowIds().isEmpty()) {
+            return invalidRequest("workflowIds must not be empty");
+        }
+        List<String> workflowIds = new ArrayList<>(new LinkedHashSet<>(request.getWorkflowIds()));
+        if (workflowIds.size() > bulkDecisionMaxItems) {
+            return invalidRequest("At most " + bulkDecisionMaxItems + " workflowIds per request");
+        }
 
-            return ResponseEntity.badRequest().body(errorResponse);
+        boolean approve = "APPROVE".equals(decision);
+        ApprovalVote vote = new ApprovalVote(request.getApproverEmail(), approve,
+                approve ? request.getComments() : request.getReason(), idempotencyKey);
+        List<Map<String, Object>> results;
+        try {
+            results = WorkflowUtil.updateWorkflows(workflowClient, workflowIds, decideOptions(vote),
+                    bulkDecisionParallelism, ApprovalController::putVoteResult, vote);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Interrupted while sending decisions; some may have been recorded");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
         }
+
+        long recorded = results.stream().filter(result -> "COMPLETED".equals(result.get("status"))).count();
+        Map<String, Object> response = new HashMap<>();
+        response.put("action", approve ? "APPROVED" : "REJECTED");
+        response.put("approver", request.getApproverEmail());
+        response.put("total", results.size());
+        response.put("succeeded", recorded);
+        response.put("failed", results.size() - recorded);
+        response.put("results", results);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/status/{workflowId}")
@@ -115,7 +269,15 @@ public class ApprovalController {
             ApprovalWorkflow workflow = workflowClient.newWorkflowStub(ApprovalWorkflow.class, workflowId);
             statusResponse.put("approvalStatus", workflow.getApprovalStatus());
             statusResponse.put("currentStep", workflow.getCurrentStep());
-            statusResponse.put("requestDetails", workflow.getRequestDetails());
+            // Waiting workflows no longer hold the details; the worker saved them when it notified the approvers
+            String details;
+            try {
+                details = approvalDetails.find(workflowId, workflowClient);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            statusResponse.put("requestDetails", workflow.getRequestDetails() + ", Details: "
+                    + (details != null ? details : "(unavailable)"));
         });
     }
 
@@ -127,4 +289,143 @@ public class ApprovalController {
             response.put("finalStatus", workflow.getApprovalStatus());
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Pending approvals from the search attributes the workflows index, in
+     * one visibility query instead of three queries per workflow. Filters
+     * are optional; results are ordered by how long each request has been
+     * waiting for a decision ("asc": longest waiting first).
+     *
+     * Without ORDER BY support in the visibility store (SQL visibility), each
+     * page is sorted on its own.
+     */
+    @GetMapping("/pending")
+    public ResponseEntity<Map<String, Object>> listPendingApprovals(
+            @RequestParam(required = false) String requesterEmail,
+            @RequestParam(required = false) String currentStep,
+            @RequestParam(required = false) Long minWaitingSeconds,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(defaultValue = "20") int pageSize,
+            @RequestParam(required = false) String pageToken) {
+
+        boolean ascending = "asc".equalsIgnoreCase(order);
+        if (!ascending && !"desc".equalsIgnoreCase(order)) {
+            return invalidRequest("order must be asc or desc");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return invalidRequest("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!isQueryValue(requesterEmail) || !isQueryValue(currentStep)) {
+            return invalidRequest("requesterEmail and currentStep may only contain letters, digits and @._+-");
+        }
+
+        StringBuilder query = new StringBuilder("WorkflowType = 'ApprovalWorkflow' AND ExecutionStatus = 'Running'")
+                .append(" AND ").append(ApprovalSearchAttributes.APPROVAL_STATUS.getName())
+                .append(" = '").append(ApprovalStatus.PENDING.name()).append("'");
+        if (requesterEmail != null) {
+            query.append(" AND ").append(ApprovalSearchAttributes.REQUESTER_EMAIL.getName())
+                    .append(" = '").append(requesterEmail).append("'");
+        }
+        if (currentStep != null) {
+            query.append(" AND ").append(ApprovalSearchAttributes.CURRENT_STEP.getName())
+                    .append(" = '").append(currentStep).append("'");
+        }
+        if (minWaitingSeconds != null) {
+            query.append(" AND ").append(ApprovalSearchAttributes.WAITING_SINCE.getName())
+                    .append(" <= '").append(Instant.now().minusSeconds(minWaitingSeconds)).append("'");
+        }
+        if (visibilityOrderBy) {
+            query.append(" ORDER BY ").append(ApprovalSearchAttributes.WAITING_SINCE.getName())
+                    .append(ascending ? " ASC" : " DESC");
+        }
+
+        ListWorkflowExecutionsResponse page;
+        try {
+            ByteString token = pageToken != null
+                    ? ByteString.copyFrom(Base64.getUrlDecoder().decode(pageToken))
+                    : ByteString.EMPTY;
+            page = WorkflowUtil.listWorkflows(workflowClient, query.toString(), pageSize, token);
+        } catch (IllegalArgumentException e) {
+            return invalidRequest("pageToken is not a token returned by this endpoint");
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to list pending approvals: " + e.getMessage());
+            errorResponse.put("query", query.toString());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> approvals = new ArrayList<>(page.getExecutionsCount());
+        for (WorkflowExecutionInfo info : page.getExecutionsList()) {
+            Map<String, Object> approval = new LinkedHashMap<>();
+            approval.put("workflowId", info.getExecution().getWorkflowId());
+            approval.put("requesterEmail",
+                    WorkflowUtil.getSearchAttribute(info, ApprovalSearchAttributes.REQUESTER_EMAIL));
+            approval.put("approvalStatus",
+                    WorkflowUtil.getSearchAttribute(info, ApprovalSearchAttributes.APPROVAL_STATUS));
+            approval.put("currentStep",
+                    WorkflowUtil.getSearchAttribute(info, ApprovalSearchAttributes.CURRENT_STEP));
+            String waitingSince = WorkflowUtil.getSearchAttribute(info, ApprovalSearchAttributes.WAITING_SINCE);
+            approval.put("waitingSince", waitingSince);
+            approval.put("waitingSeconds", waitingSince != null
+                    ? (now - OffsetDateTime.parse(waitingSince).toInstant().toEpochMilli()) / 1000
+                    : null);
+            approvals.add(approval);
+        }
+        if (!visibilityOrderBy) {
+            // Requests still validating have no WaitingSince yet and go last
+            Comparator<String> waitingOrder = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+            Comparator<Map<String, Object>> byWaitingSince = Comparator.comparing(
+                    approval -> (String) approval.get("waitingSince"), Comparator.nullsLast(waitingOrder));
+            approvals.sort(byWaitingSince);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("approvals", approvals);
+        response.put("count", approvals.size());
+        response.put("nextPageToken", page.getNextPageToken().isEmpty()
+                ? null
+                : Base64.getUrlEncoder().withoutPadding().encodeToString(page.getNextPageToken().toByteArray()));
+        response.put("sortedBy", visibilityOrderBy ? "visibility" : "page");
+        return ResponseEntity.ok(response);
+    }
+
+    private static boolean isQueryValue(String value) {
+        return value == null || QUERY_VALUE.matcher(value).matches();
+    }
+
+    private static ResponseEntity<Map<String, Object>> invalidRequest(String error) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", "INVALID_REQUEST");
+        errorResponse.put("error", error);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    /**
+     * Decisions recorded in the audit log for a request, oldest first. Reads
+     * the local audit.path, so an API-only instance needs the workers' log
+     * on a shared volume.
+     */
+    @GetMapping("/audit/{requestId}")
+    public ResponseEntity<Map<String, Object>> getAuditTrail(@PathVariable String requestId) {
+        List<AuditRecord> records;
+        try {
+            records = auditLogReader.findByRequestId(requestId);
+        } catch (IOException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to read audit log: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("requestId", requestId);
+        response.put("records", records);
+        response.put("count", records.size());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/cancel/{workflowId}")
+    public ResponseEntity<Map<String, Object>> cancelApprovalRequest(@PathVariable String workflowId) {
+        return WorkflowUtil.cancelWorkflow(workflowClient, workflowId);
+    }
+}
@@ -1,30 +1,33 @@
 package com.temporal.demos.helloworld.controllers;
 
-import com.temporal.demos.helloworld.config.TemporalConfig;
+import com.temporal.demos.helloworld.config.WorkflowIdScheme;
 import com.temporal.demos.helloworld.workflows.HelloWorldWorkflow;
 import io.temporal.client.WorkflowClient;
-import io.temporal.client.WorkflowOptions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
 
 @RestController
+@ConditionalOnProperty(name = "temporal.api.enabled", havingValue = "true", matchIfMissing = true)
 @RequestMapping("/api")
 public class HelloWorldController {
 
     @Autowired
     private WorkflowClient workflowClient;
 
+    @Autowired
+    private WorkflowIdScheme workflowIdScheme;
+
     @GetMapping("/hello")
     public String sayHello(@RequestParam(defaultValue = "World") String name) {
         // Create a workflow stub
         HelloWorldWorkflow workflow = workflowClient.newWorkflowStub(
                 HelloWorldWorkflow.class,
-                WorkflowOptions.newBuilder()
-                        .setWorkflowId("hello-world-" + UUID.randomUUID())
-                        .setTaskQueue(TemporalConfig.TASK_QUEUE)
-                        .build());
+                workflowIdScheme.startOptions(WorkflowIdScheme.Type.HELLO_WORLD,
+                        workflowIdScheme.workflowId(WorkflowIdScheme.Type.HELLO_WORLD, null,
+                                UUID.randomUUID().toString())).build());
 
         // Execute the workflow
         return workflow.executeHelloWorld(name);
@@ -35,10 +38,9 @@ public class HelloWorldController {
         // Create a workflow stub
         HelloWorldWorkflow workflow = workflowClient.newWorkflowStub(
                 HelloWorldWorkflow.class,
-                WorkflowOptions.newBuilder()
-                        .setWorkflowId("hello-world-" + UUID.randomUUID())
-                        .setTaskQueue(TemporalConfig.TASK_QUEUE)
-                        .build());
+                workflowIdScheme.startOptions(WorkflowIdScheme.Type.HELLO_WORLD,
+                        workflowIdScheme.workflowId(WorkflowIdScheme.Type.HELLO_WORLD, null,
+                                UUID.randomUUID().toString())).build());
 
         // Execute the workflow
         return workflow.executeHelloWorld(request.getName());
@@ -1,53 +1,99 @@
 package com.temporal.demos.helloworld.controllers;
 
-import com.temporal.demos.helloworld.activities.ExternalApiActivitiesImpl;
-import com.temporal.demos.helloworld.config.TemporalConfig;
+import com.temporal.demos.helloworld.admission.AdmissionControl;
+import com.temporal.demos.helloworld.admission.AdmissionRejectedException;
+import com.temporal.demos.helloworld.admission.IdempotencyCache;
+import com.temporal.demos.helloworld.config.WorkflowIdScheme;
+import com.temporal.demos.helloworld.faults.FaultInjector;
+import com.temporal.demos.helloworld.faults.FaultProfile;
 import com.temporal.demos.helloworld.models.OrchestrationRequest;
+import com.temporal.demos.helloworld.models.PartialResultsPolicy;
+import com.temporal.demos.helloworld.prewarm.PrewarmSchedule;
+import com.temporal.demos.helloworld.prewarm.PrewarmedResultStore;
 import com.temporal.demos.helloworld.utils.WorkflowUtil;
 import com.temporal.demos.helloworld.workflows.OrchestrationWorkflow;
 import io.temporal.client.WorkflowClient;
-import io.temporal.client.WorkflowExecutionAlreadyStarted;
 import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowExecutionAlreadyStarted;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
+@ConditionalOnProperty(name = "temporal.api.enabled", havingValue = "true", matchIfMissing = true)
 @RequestMapping("/api/orchestration")
 public class OrchestrationController {
 
     @Autowired
     private WorkflowClient workflowClient;
 
+    @Autowired
+    private FaultInjector faultInjector;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    @Autowired
+    private WorkflowIdScheme workflowIdScheme;
+
+    @Autowired
+    private PrewarmedResultStore prewarmedResults;
+
+    @Autowired
+    private PrewarmSchedule prewarmSchedule;
+
+    // Fault settings only reach the activities of this process's own worker
+    @Value("${temporal.worker.enabled:true}")
+    private boolean workerEnabled;
+
+    @Value("${orchestration.partial-results.deadline:20s}")
+    private Duration partialResultsDeadline;
+
+    @Value("${orchestration.partial-results.budgets.order:0s}")
+    private Duration orderBudget;
+
+    @Value("${orchestration.partial-results.budgets.notification:5s}")
+    private Duration notificationBudget;
+
+    @Value("${orchestration.partial-results.budgets.recommendation:10s}")
+    private Duration recommendationBudget;
+
     @PostMapping("/execute")
     public ResponseEntity<Map<String, Object>> executeOrchestration(@RequestBody OrchestrationRequest request,
             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
-        String stableKey = idempotencyKey != null && !idempotencyKey.isBlank()
-                ? idempotencyKey
-                : request.getRequestId();
-        String workflowId = "approval-" + stableKey;
-
-        OrchestrationWorkflow workflow = workflowClient.newWorkflowStub(
-                OrchestrationWorkflow.class,
-                WorkflowOptions.newBuilder()
-                        .setWorkflowId(workflowId)
-                        .setTaskQueue(TemporalConfig.TASK_QUEUE)
-                        .build());
+        String workflowId = workflowIdScheme.workflowId(WorkflowIdScheme.Type.ORCHESTRATION, idempotencyKey,
+                request.getRequestId());
+
+        WorkflowOptions options = workflowIdScheme.startOptions(WorkflowIdScheme.Type.ORCHESTRATION, workflowId)
+                .build();
+        OrchestrationWorkflow workflow = workflowClient.newWorkflowStub(OrchestrationWorkflow.class, options);
         Map<String, Object> response = new HashMap<>();
         response.put("workflowId", workflowId);
         response.put("userId", request.getUserId());
 
-        try {
-            // Async Execution
-            WorkflowClient.start(workflow::orchestrateExternalApiCalls, request.getUserId(),
-                    request.isUseAsyncPayment());
+        // Async Execution; a retried key is answered from the cache when it can be
+        IdempotencyCache.Outcome outcome = idempotencyCache.start(options, () -> admissionControl.call(
+                AdmissionControl.ORCHESTRATION_EXECUTE, () -> WorkflowClient.start(
+                        workflow::orchestrateExternalApiCalls, request.getUserId(), request.isUseAsyncPayment(),
+                        null, partialResultsPolicy(request))));
+        if (outcome == IdempotencyCache.Outcome.STARTED) {
             response.put("status", "STARTED");
             response.put("message", "Orchestration workflow started successfully");
-        } catch (WorkflowExecutionAlreadyStarted e) {
+        } else {
             // existing workflow; request is a retry
             response.put("status", "ALREADY_EXISTS");
             response.put("message", "Orchestration workflow already exists");
@@ -60,20 +106,34 @@ public class OrchestrationController {
     public ResponseEntity<Map<String, Object>> executeOrchestrationSync(@RequestBody OrchestrationRequest request,
             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
-        String stableKey = idempotencyKey != null && !idempotencyKey.isBlank()
-                ? idempotencyKey
-                : request.getRequestId();
-        String workflowId = "approval-" + stableKey;
+        // Hot users' sync-payment orchestrations are pre-warmed on a schedule; no workflow is started for them.
+        // A keyed request must get its own workflow's result on every retry, so it always runs one.
+        boolean keyed = idempotencyKey != null && !idempotencyKey.isBlank();
+        PrewarmedResultStore.Hit prewarmed = keyed || request.isUseAsyncPayment() || request.getUserId() == null
+                ? null
+                : prewarmedResults.find(request.getUserId());
+        if (prewarmed != null) {
+            return prewarmedResponse(request, prewarmed);
+        }
+
+        String workflowId = workflowIdScheme.workflowId(WorkflowIdScheme.Type.ORCHESTRATION, idempotencyKey,
+                request.getRequestId());
 
         try {
             OrchestrationWorkflow workflow = workflowClient.newWorkflowStub(
                     OrchestrationWorkflow.class,
-                    WorkflowOptions.newBuilder()
-                            .setWorkflowId(workflowId)
-                            .setTaskQueue(TemporalConfig.TASK_QUEUE)
-                            .build());
+                    workflowIdScheme.startOptions(WorkflowIdScheme.Type.ORCHESTRATION, workflowId).build());
 
-            String result = workflow.orchestrateExternalApiCalls(request.getUserId(), request.isUseAsyncPayment());
+            // Holds its admission slot until the workflow completes. A retry of a running orchestration waits
+            // on it (USE_EXISTING); one whose orchestration already completed gets that result.
+            String result;
+            try {
+                result = admissionControl.call(AdmissionControl.ORCHESTRATION_EXECUTE_SYNC,
+                        () -> workflow.orchestrateExternalApiCalls(request.getUserId(), request.isUseAsyncPayment(),
+                                null, partialResultsPolicy(request)));
+            } catch (WorkflowExecutionAlreadyStarted e) {
+                result = workflowClient.newUntypedWorkflowStub(workflowId).getResult(String.class);
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("workflowId", workflowId);
@@ -83,6 +143,8 @@ public class OrchestrationController {
 
             return ResponseEntity.ok(response);
 
+        } catch (AdmissionRejectedException e) {
+            throw e;
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("workflowId", workflowId);
@@ -93,6 +155,47 @@ public class OrchestrationController {
         }
     }
 
+    /**
+     * Answers a sync request with a pre-warmed result, and asks for a new
+     * pre-warm run when the result is stale. Pre-warm runs call every
+     * service with no budgets, under their own workflow IDs; ignoredOptions
+     * lists the request's options that the result therefore did not apply.
+     */
+    private ResponseEntity<Map<String, Object>> prewarmedResponse(OrchestrationRequest request,
+            PrewarmedResultStore.Hit prewarmed) {
+        if (prewarmed.freshness() == PrewarmedResultStore.Freshness.STALE) {
+            prewarmSchedule.refresh();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("workflowId", prewarmed.result().getWorkflowId());
+        response.put("userId", request.getUserId());
+        response.put("status", "COMPLETED");
+        response.put("result", prewarmed.result().getResult());
+        response.put("prewarmed", prewarmed.freshness().name());
+        response.put("resultAgeSeconds", prewarmed.ageMillis() / 1000);
+        List<String> ignoredOptions = new ArrayList<>();
+        if (request.isPartialResults()) {
+            ignoredOptions.add("partialResults");
+        }
+        if (request.getRequestId() != null) {
+            ignoredOptions.add("requestId");
+        }
+        response.put("ignoredOptions", ignoredOptions);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * The budgets a partial-results request runs with, fixed when it starts;
+     * null when the request wants every service.
+     */
+    private PartialResultsPolicy partialResultsPolicy(OrchestrationRequest request) {
+        if (!request.isPartialResults()) {
+            return null;
+        }
+        return new PartialResultsPolicy(partialResultsDeadline.toMillis(), orderBudget.toMillis(),
+                notificationBudget.toMillis(), recommendationBudget.toMillis());
+    }
+
     @GetMapping("/status/{workflowId}")
     public ResponseEntity<Map<String, Object>> getOrchestrationStatus(@PathVariable String workflowId) {
         return WorkflowUtil.getWorkflowStatus(workflowClient, workflowId);
@@ -106,18 +209,34 @@ public class OrchestrationController {
         });
     }
 
+    @PostMapping("/cancel/{workflowId}")
+    public ResponseEntity<Map<String, Object>> cancelOrchestration(@PathVariable String workflowId) {
+        return WorkflowUtil.cancelWorkflow(workflowClient, workflowId);
+    }
+
     @PostMapping("/error-simulation/enable")
-    public ResponseEntity<Map<String, Object>> enableErrorSimulation() {
-        ExternalApiActivitiesImpl.setErrorSimulationEnabled(true);
+    public ResponseEntity<Map<String, Object>> enableErrorSimulation(
+            @RequestParam(value = "seed", required = false) Long seed) {
+        if (!workerEnabled) {
+            return noLocalWorker();
+        }
+        if (seed != null) {
+            faultInjector.setSeed(seed);
+        }
+        faultInjector.setEnabled(true);
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Error simulation ENABLED");
         response.put("errorSimulationEnabled", true);
+        response.put("seed", faultInjector.getSeed());
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/error-simulation/disable")
     public ResponseEntity<Map<String, Object>> disableErrorSimulation() {
-        ExternalApiActivitiesImpl.setErrorSimulationEnabled(false);
+        if (!workerEnabled) {
+            return noLocalWorker();
+        }
+        faultInjector.setEnabled(false);
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Error simulation DISABLED");
         response.put("errorSimulationEnabled", false);
@@ -126,11 +245,76 @@ public class OrchestrationController {
 
     @GetMapping("/error-simulation/status")
     public ResponseEntity<Map<String, Object>> getErrorSimulationStatus() {
-        boolean enabled = ExternalApiActivitiesImpl.isErrorSimulationEnabled();
+        if (!workerEnabled) {
+            return noLocalWorker();
+        }
+        boolean enabled = faultInjector.isEnabled();
         Map<String, Object> response = new HashMap<>();
         response.put("errorSimulationEnabled", enabled);
         response.put("status", enabled ? "ENABLED" : "DISABLED");
+        response.put("seed", faultInjector.getSeed());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/fault-profiles")
+    public ResponseEntity<Map<String, Object>> getFaultProfiles() {
+        if (!workerEnabled) {
+            return noLocalWorker();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("errorSimulationEnabled", faultInjector.isEnabled());
+        response.put("seed", faultInjector.getSeed());
+        response.put("profiles", faultInjector.getProfiles());
         return ResponseEntity.ok(response);
     }
 
-}
\ No newline at end of file
+    /**
+     * Replaces the whole profile of one service; fields left out of the body
+     * fall back to zero / no brownout.
+     */
+    @PutMapping("/fault-profiles/{service}")
+    public ResponseEntity<Map<String, Object>> updateFaultProfile(@PathVariable String service,
+            @RequestBody FaultProfile profile) {
+        if (!workerEnabled) {
+            return noLocalWorker();
+        }
+        faultInjector.setProfile(service, profile);
+        Map<String, Object> response = new HashMap<>();
+        response.put("service", service);
+        response.put("profile", profile);
+        response.put("message", "Fault profile updated");
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/fault-profiles/reset")
+    public ResponseEntity<Map<String, Object>> resetFaultProfiles() {
+        if (!workerEnabled) {
+            return noLocalWorker();
+        }
+        faultInjector.resetProfiles();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Fault profiles reset to defaults");
+        response.put("profiles", faultInjector.getProfiles());
+        return ResponseEntity.ok(response);
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRequestBody(HttpMessageNotReadableException e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", "INVALID_REQUEST");
+        errorResponse.put("error", e.getMostSpecificCause().getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    /**
+     * Fault profiles and error simulation apply to the activities of the
+     * process that holds them. Without a worker here, a change would report
+     * success and affect nothing, so these endpoints refuse instead.
+     */
+    private static ResponseEntity<Map<String, Object>> noLocalWorker() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "This instance runs no worker (temporal.worker.enabled=false), so it has no fault "
+                + "settings to read or change; use an instance that runs both roles");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+}
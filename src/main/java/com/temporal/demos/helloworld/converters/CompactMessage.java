@@ -0,0 +1,49 @@
+package com.temporal.demos.helloworld.converters;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.IOException;
+
+/**
+ * Workflow/activity payload that knows how to write itself in the protobuf
+ * wire format. Implementations need a public no-arg constructor so
+ * {@link CompactPayloadConverter} can create an instance before reading.
+ */
+public interface CompactMessage {
+
+    void writeTo(CodedOutputStream output) throws IOException;
+
+    void mergeFrom(CodedInputStream input) throws IOException;
+
+    /**
+     * Writes a string field, skipping nulls the same way protobuf skips unset
+     * fields.
+     */
+    static void writeString(CodedOutputStream output, int fieldNumber, String value) throws IOException {
+        if (value != null) {
+            output.writeString(fieldNumber, value);
+        }
+    }
+
+    /**
+     * Writes a nested message as a length-delimited field; repeat the call
+     * for a repeated field.
+     */
+    static void writeMessage(CodedOutputStream output, int fieldNumber, CompactMessage message) throws IOException {
+        ByteString.Output bytes = ByteString.newOutput();
+        CodedOutputStream nested = CodedOutputStream.newInstance(bytes);
+        message.writeTo(nested);
+        nested.flush();
+        output.writeBytes(fieldNumber, bytes.toByteString());
+    }
+
+    /**
+     * Reads a field written by {@link #writeMessage} into the given instance.
+     */
+    static <T extends CompactMessage> T readMessage(CodedInputStream input, T message) throws IOException {
+        message.mergeFrom(input.readBytes().newCodedInput());
+        return message;
+    }
+}
@@ -0,0 +1,125 @@
+package com.temporal.demos.helloworld.converters;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.ByteArrayPayloadConverter;
+import io.temporal.common.converter.DataConverterException;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.common.converter.JacksonJsonPayloadConverter;
+import io.temporal.common.converter.NullPayloadConverter;
+import io.temporal.common.converter.PayloadConverter;
+import io.temporal.common.converter.ProtobufJsonPayloadConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Type;
+import java.util.Optional;
+
+/**
+ * Binary payload converter for the demo's workflow and activity data.
+ *
+ * Strings are stored as raw UTF-8 (no JSON quoting or escaping) and
+ * {@link CompactMessage} models are stored in the protobuf wire format.
+ * Anything else is left to the standard converters. Payloads written by the
+ * JSON converter keep their own encoding metadata, so histories recorded
+ * before this converter was enabled still decode. Service results from
+ * before they were typed were recorded as JSON strings; the Jackson
+ * converter reads those through each result's String-accepting creator.
+ */
+public class CompactPayloadConverter implements PayloadConverter {
+
+    public static final String ENCODING_TYPE = "binary/compact";
+
+    private static final ByteString ENCODING_TYPE_BYTES = ByteString.copyFromUtf8(ENCODING_TYPE);
+
+    private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            try {
+                return type.getConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new DataConverterException(type.getName() + " needs a public no-arg constructor", e);
+            }
+        }
+    };
+
+    /**
+     * Data converter that writes compact payloads and still reads JSON ones.
+     */
+    public static DefaultDataConverter newDataConverter() {
+        return newDataConverter(true);
+    }
+
+    /**
+     * Builds a data converter that understands both formats. Converters are
+     * tried in order when writing, so placing the compact converter after the
+     * Jackson one (which accepts everything) keeps writing JSON while still
+     * decoding compact payloads by their encoding metadata.
+     */
+    public static DefaultDataConverter newDataConverter(boolean writeCompact) {
+        if (writeCompact) {
+            return new DefaultDataConverter(
+                    new NullPayloadConverter(),
+                    new ByteArrayPayloadConverter(),
+                    new CompactPayloadConverter(),
+                    new ProtobufJsonPayloadConverter(),
+                    new JacksonJsonPayloadConverter());
+        }
+        return new DefaultDataConverter(
+                new NullPayloadConverter(),
+                new ByteArrayPayloadConverter(),
+                new ProtobufJsonPayloadConverter(),
+                new JacksonJsonPayloadConverter(),
+                new CompactPayloadConverter());
+    }
+
+    @Override
+    public String getEncodingType() {
+        return ENCODING_TYPE;
+    }
+
+    @Override
+    public Optional<Payload> toData(Object value) throws DataConverterException {
+        if (value instanceof String text) {
+            return Optional.of(newPayload(ByteString.copyFromUtf8(text)));
+        }
+        if (value instanceof CompactMessage message) {
+            try {
+                ByteString.Output bytes = ByteString.newOutput();
+                CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+                message.writeTo(output);
+                output.flush();
+                return Optional.of(newPayload(bytes.toByteString()));
+            } catch (IOException e) {
+                throw new DataConverterException("Failed to encode " + value.getClass().getName(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public <T> T fromData(Payload content, Class<T> valueClass, Type valueType) throws DataConverterException {
+        if (valueClass == String.class) {
+            return valueClass.cast(content.getData().toStringUtf8());
+        }
+        if (CompactMessage.class.isAssignableFrom(valueClass)) {
+            try {
+                CompactMessage message = (CompactMessage) CONSTRUCTORS.get(valueClass).newInstance();
+                message.mergeFrom(content.getData().newCodedInput());
+                return valueClass.cast(message);
+            } catch (ReflectiveOperationException | IOException e) {
+                throw new DataConverterException(content, valueClass, e);
+            }
+        }
+        throw new DataConverterException("Unsupported type for " + ENCODING_TYPE + ": " + valueClass.getName());
+    }
+
+    private static Payload newPayload(ByteString data) {
+        return Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING_TYPE_BYTES)
+                .setData(data)
+                .build();
+    }
+}
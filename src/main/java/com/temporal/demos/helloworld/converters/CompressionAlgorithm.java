@@ -0,0 +1,86 @@
+package com.temporal.demos.helloworld.converters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression algorithms available to {@link CompressionPayloadCodec}. Only
+ * JDK built-ins are used so the worker needs no native libraries.
+ */
+public enum CompressionAlgorithm {
+
+    DEFLATE("deflate") {
+        @Override
+        OutputStream compressingStream(OutputStream output) {
+            return new DeflaterOutputStream(output);
+        }
+
+        @Override
+        InputStream decompressingStream(InputStream input) {
+            return new InflaterInputStream(input);
+        }
+    },
+
+    GZIP("gzip") {
+        @Override
+        OutputStream compressingStream(OutputStream output) throws IOException {
+            return new GZIPOutputStream(output);
+        }
+
+        @Override
+        InputStream decompressingStream(InputStream input) throws IOException {
+            return new GZIPInputStream(input);
+        }
+    };
+
+    private final String metadataName;
+
+    CompressionAlgorithm(String metadataName) {
+        this.metadataName = metadataName;
+    }
+
+    /**
+     * Name written to the payload metadata, kept stable independently of the
+     * enum constant name.
+     */
+    public String getMetadataName() {
+        return metadataName;
+    }
+
+    abstract OutputStream compressingStream(OutputStream output) throws IOException;
+
+    abstract InputStream decompressingStream(InputStream input) throws IOException;
+
+    byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 2 + 64);
+        try (OutputStream output = compressingStream(bytes)) {
+            output.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    byte[] decompress(InputStream compressed, int originalSize) throws IOException {
+        try (InputStream input = decompressingStream(compressed)) {
+            byte[] data = input.readNBytes(originalSize);
+            if (data.length != originalSize) {
+                throw new IOException("Expected " + originalSize + " bytes but got " + data.length);
+            }
+            return data;
+        }
+    }
+
+    public static CompressionAlgorithm fromMetadataName(String name) {
+        for (CompressionAlgorithm algorithm : values()) {
+            if (algorithm.metadataName.equals(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown compression algorithm: " + name);
+    }
+}
@@ -0,0 +1,96 @@
+package com.temporal.demos.helloworld.converters;
+
+import com.google.protobuf.ByteString;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.EncodingKeys;
+import io.temporal.payload.codec.PayloadCodec;
+import io.temporal.payload.codec.PayloadCodecException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compresses payloads at or above a size threshold before they are written to
+ * history.
+ *
+ * The whole original payload (metadata included) is compressed and wrapped in
+ * a new payload tagged with {@value #ENCODING_TYPE}, so decoding restores it
+ * exactly. Payloads without that tag, such as small ones or anything recorded
+ * before compression was enabled, pass through unchanged.
+ */
+public class CompressionPayloadCodec implements PayloadCodec {
+
+    public static final String ENCODING_TYPE = "binary/compressed";
+    static final String METADATA_ALGORITHM_KEY = "compression";
+    static final String METADATA_ORIGINAL_SIZE_KEY = "original-size";
+
+    private static final ByteString ENCODING_TYPE_BYTES = ByteString.copyFromUtf8(ENCODING_TYPE);
+
+    private final CompressionAlgorithm algorithm;
+    private final ByteString algorithmName;
+    private final int thresholdBytes;
+
+    public CompressionPayloadCodec(CompressionAlgorithm algorithm, int thresholdBytes) {
+        this.algorithm = algorithm;
+        this.algorithmName = ByteString.copyFromUtf8(algorithm.getMetadataName());
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public List<Payload> encode(List<Payload> payloads) {
+        List<Payload> encoded = new ArrayList<>(payloads.size());
+        for (Payload payload : payloads) {
+            encoded.add(encode(payload));
+        }
+        return encoded;
+    }
+
+    @Override
+    public List<Payload> decode(List<Payload> payloads) {
+        List<Payload> decoded = new ArrayList<>(payloads.size());
+        for (Payload payload : payloads) {
+            decoded.add(decode(payload));
+        }
+        return decoded;
+    }
+
+    private Payload encode(Payload payload) {
+        int originalSize = payload.getSerializedSize();
+        if (originalSize < thresholdBytes) {
+            return payload;
+        }
+        byte[] compressed;
+        try {
+            compressed = algorithm.compress(payload.toByteArray());
+        } catch (IOException e) {
+            throw new PayloadCodecException(e);
+        }
+        // Not worth the decode cost if compression did not help
+        if (compressed.length >= originalSize) {
+            return payload;
+        }
+        return Payload.newBuilder()
+                .putMetadata(EncodingKeys.METADATA_ENCODING_KEY, ENCODING_TYPE_BYTES)
+                .putMetadata(METADATA_ALGORITHM_KEY, algorithmName)
+                .putMetadata(METADATA_ORIGINAL_SIZE_KEY, ByteString.copyFromUtf8(Integer.toString(originalSize)))
+                .setData(ByteString.copyFrom(compressed))
+                .build();
+    }
+
+    private Payload decode(Payload payload) {
+        if (!ENCODING_TYPE_BYTES.equals(payload.getMetadataOrDefault(EncodingKeys.METADATA_ENCODING_KEY, null))) {
+            return payload;
+        }
+        try {
+            // Decode with whatever algorithm wrote the payload, not the configured one
+            CompressionAlgorithm payloadAlgorithm = CompressionAlgorithm.fromMetadataName(
+                    payload.getMetadataOrThrow(METADATA_ALGORITHM_KEY).toStringUtf8());
+            int originalSize = Integer.parseInt(payload.getMetadataOrThrow(METADATA_ORIGINAL_SIZE_KEY).toStringUtf8());
+            byte[] original = payloadAlgorithm.decompress(payload.getData().newInput(), originalSize);
+            return Payload.parseFrom(original);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new PayloadCodecException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.temporal.demos.helloworld.faults;
+
+/**
+ * Recurring period of degraded service: for durationSeconds out of every
+ * periodSeconds (aligned to the epoch, so all workers agree on when it
+ * happens) latency is multiplied by latencyFactor and the error rate rises
+ * to at least errorRate percent.
+ */
+public class BrownoutWindow {
+
+    private final long periodSeconds;
+    private final long durationSeconds;
+    private final double latencyFactor;
+    private final double errorRate;
+
+    public BrownoutWindow(long periodSeconds, long durationSeconds, double latencyFactor, double errorRate) {
+        if (periodSeconds <= 0 || durationSeconds <= 0 || durationSeconds > periodSeconds) {
+            throw new IllegalArgumentException("Brownout needs 0 < durationSeconds <= periodSeconds");
+        }
+        if (latencyFactor < 0 || errorRate < 0 || errorRate > 100) {
+            throw new IllegalArgumentException("Brownout latencyFactor must not be negative and errorRate "
+                    + "must be a percentage");
+        }
+        this.periodSeconds = periodSeconds;
+        this.durationSeconds = durationSeconds;
+        this.latencyFactor = latencyFactor;
+        this.errorRate = errorRate;
+    }
+
+    boolean isActive(long epochMillis) {
+        return (epochMillis / 1000) % periodSeconds < durationSeconds;
+    }
+
+    public long getPeriodSeconds() {
+        return periodSeconds;
+    }
+
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public double getLatencyFactor() {
+        return latencyFactor;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+}
@@ -0,0 +1,40 @@
+package com.temporal.demos.helloworld.faults;
+
+/**
+ * What {@link FaultInjector} decided for a single service call: how long it
+ * takes and how it ends.
+ */
+public class FaultDecision {
+
+    public enum Outcome {
+        SUCCESS, ERROR, TIMEOUT
+    }
+
+    private final long latencyMs;
+    private final Outcome outcome;
+    private final boolean brownout;
+    private final String errorMessage;
+
+    FaultDecision(long latencyMs, Outcome outcome, boolean brownout, String errorMessage) {
+        this.latencyMs = latencyMs;
+        this.outcome = outcome;
+        this.brownout = brownout;
+        this.errorMessage = errorMessage;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public boolean isBrownout() {
+        return brownout;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,181 @@
+package com.temporal.demos.helloworld.faults;
+
+import com.temporal.demos.helloworld.models.NotificationServiceResult;
+import com.temporal.demos.helloworld.models.OrderServiceResult;
+import com.temporal.demos.helloworld.models.PaymentInitiationResult;
+import com.temporal.demos.helloworld.models.PaymentServiceResult;
+import com.temporal.demos.helloworld.models.PaymentStatusResult;
+import com.temporal.demos.helloworld.models.RecommendationServiceResult;
+import com.temporal.demos.helloworld.models.UserServiceResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates latency and failures of the external services called by the
+ * orchestration activities, driven by a {@link FaultProfile} per service.
+ *
+ * Simulated latency always applies. Errors, timeouts and brownouts only apply
+ * while fault injection is enabled. Profiles, the enabled flag and the seed
+ * can all be changed at runtime from any thread.
+ *
+ * Every decision is drawn from a random stream derived from the seed, the
+ * service and a call key (the activity's workflow ID, activity ID and
+ * attempt), so rerunning the same workflows with the same seed reproduces the
+ * same latencies and failures regardless of thread scheduling. Brownout
+ * windows follow the wall clock and are the only exception.
+ */
+@Component
+public class FaultInjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaultInjector.class);
+
+    private static final String[] ERROR_MESSAGES = {
+            "Service temporarily unavailable",
+            "Network timeout occurred",
+            "Database connection failed",
+            "Service overloaded",
+            "Temporary server error"
+    };
+
+    private final ConcurrentHashMap<String, FaultProfile> profiles = new ConcurrentHashMap<>(defaultProfiles());
+    // Call keys for callers outside an activity; reproducible for single-threaded callers only
+    private final AtomicLong anonymousCalls = new AtomicLong();
+    private volatile boolean enabled;
+    private volatile long seed;
+
+    public FaultInjector(@Value("${temporal.faults.seed:42}") long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * The original simulation: uniform latency per service, with flat error
+     * rates once fault injection is enabled.
+     */
+    public static Map<String, FaultProfile> defaultProfiles() {
+        Map<String, FaultProfile> defaults = new LinkedHashMap<>();
+        defaults.put(UserServiceResult.SERVICE, FaultProfile.uniform(2000, 4000, 20));
+        defaults.put(OrderServiceResult.SERVICE, FaultProfile.uniform(1000, 3000, 25));
+        defaults.put(NotificationServiceResult.SERVICE, FaultProfile.uniform(500, 2000, 15));
+        defaults.put(RecommendationServiceResult.SERVICE, FaultProfile.uniform(4000, 8000, 25));
+        defaults.put(PaymentServiceResult.SERVICE, FaultProfile.uniform(3000, 6000, 30));
+        defaults.put(PaymentInitiationResult.SERVICE, FaultProfile.uniform(1000, 3000, 15));
+        defaults.put(PaymentStatusResult.SERVICE, FaultProfile.uniform(500, 2000, 10));
+        return defaults;
+    }
+
+    /**
+     * The latency and outcome of one call, without sleeping. Services without
+     * a profile respond instantly and never fail.
+     */
+    public FaultDecision decide(String service, String callKey) {
+        FaultProfile profile = profiles.get(service);
+        if (profile == null) {
+            return new FaultDecision(0, FaultDecision.Outcome.SUCCESS, false, null);
+        }
+        SplittableRandom random = randomFor(service, callKey);
+        long latencyMs = profile.getLatency().sample(random);
+        if (!enabled) {
+            return new FaultDecision(latencyMs, FaultDecision.Outcome.SUCCESS, false, null);
+        }
+
+        double errorRate = profile.getErrorRate();
+        BrownoutWindow brownout = profile.getBrownout();
+        boolean inBrownout = brownout != null && brownout.isActive(System.currentTimeMillis());
+        if (inBrownout) {
+            latencyMs = Math.round(latencyMs * brownout.getLatencyFactor());
+            errorRate = Math.max(errorRate, brownout.getErrorRate());
+        }
+
+        double roll = random.nextDouble() * 100;
+        if (roll < profile.getTimeoutRate()) {
+            return new FaultDecision(profile.getTimeoutMs(), FaultDecision.Outcome.TIMEOUT, inBrownout,
+                    service + " timed out");
+        }
+        if (roll < profile.getTimeoutRate() + errorRate) {
+            return new FaultDecision(latencyMs, FaultDecision.Outcome.ERROR, inBrownout,
+                    ERROR_MESSAGES[random.nextInt(ERROR_MESSAGES.length)]);
+        }
+        return new FaultDecision(latencyMs, FaultDecision.Outcome.SUCCESS, inBrownout, null);
+    }
+
+    /**
+     * Throws the simulated failure, if any, once the caller has waited out the
+     * decision's latency.
+     */
+    public void throwIfFailed(String service, FaultDecision decision) {
+        switch (decision.getOutcome()) {
+            case TIMEOUT:
+                logger.warn("Simulating timeout in {} after {}ms", service, decision.getLatencyMs());
+                throw new RuntimeException(service + " timed out after " + decision.getLatencyMs() + "ms");
+            case ERROR:
+                logger.warn("Simulating error in {}{}: {}", service, decision.isBrownout() ? " (brownout)" : "",
+                        decision.getErrorMessage());
+                throw new RuntimeException(decision.getErrorMessage());
+            default:
+        }
+    }
+
+    /**
+     * Reproducible yes/no with the given percentage, for simulated business
+     * outcomes (such as a declined payment) rather than call failures.
+     */
+    public boolean chance(String service, String callKey, double percent) {
+        return randomFor(service, callKey + "#chance").nextDouble() * 100 < percent;
+    }
+
+    private SplittableRandom randomFor(String service, String callKey) {
+        String key = callKey != null ? callKey : "call-" + anonymousCalls.incrementAndGet();
+        // Spread seed, service and key over all 64 bits before seeding
+        long hash = seed;
+        hash = hash * 0x9E3779B97F4A7C15L + service.hashCode();
+        hash = hash * 0x9E3779B97F4A7C15L + key.hashCode();
+        return new SplittableRandom(hash);
+    }
+
+    public Map<String, FaultProfile> getProfiles() {
+        return Collections.unmodifiableMap(new TreeMap<>(profiles));
+    }
+
+    public FaultProfile getProfile(String service) {
+        return profiles.get(service);
+    }
+
+    public void setProfile(String service, FaultProfile profile) {
+        profiles.put(service, profile);
+        logger.info("Fault profile for {} updated", service);
+    }
+
+    public void resetProfiles() {
+        profiles.putAll(defaultProfiles());
+        profiles.keySet().retainAll(defaultProfiles().keySet());
+        logger.info("Fault profiles reset to defaults");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        logger.info("Error simulation {}", enabled ? "ENABLED" : "DISABLED");
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+        logger.info("Fault injection seed set to {}", seed);
+    }
+}
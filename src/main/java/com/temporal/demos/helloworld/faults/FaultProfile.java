@@ -0,0 +1,62 @@
+package com.temporal.demos.helloworld.faults;
+
+/**
+ * Latency and failure behaviour of one simulated service. Instances are
+ * immutable, so a profile swapped in at runtime is seen consistently by every
+ * activity thread.
+ *
+ * Rates are percentages of calls. A timed-out call hangs for timeoutMs and
+ * then fails, which exceeds the activity's start-to-close timeout when
+ * timeoutMs is set above it. The brownout window is optional.
+ */
+public class FaultProfile {
+
+    private final LatencyProfile latency;
+    private final double errorRate;
+    private final double timeoutRate;
+    private final long timeoutMs;
+    private final BrownoutWindow brownout;
+
+    public FaultProfile(LatencyProfile latency, double errorRate, double timeoutRate, long timeoutMs,
+            BrownoutWindow brownout) {
+        if (errorRate < 0 || errorRate > 100 || timeoutRate < 0 || timeoutRate > 100) {
+            throw new IllegalArgumentException("errorRate and timeoutRate must be percentages between 0 and 100");
+        }
+        if (timeoutMs < 0) {
+            throw new IllegalArgumentException("timeoutMs must not be negative");
+        }
+        this.latency = latency != null ? latency : LatencyProfile.uniform(0, 0);
+        this.errorRate = errorRate;
+        this.timeoutRate = timeoutRate;
+        this.timeoutMs = timeoutMs;
+        this.brownout = brownout;
+    }
+
+    /**
+     * Uniform latency and a flat error rate, as the services were originally
+     * simulated.
+     */
+    public static FaultProfile uniform(long minMs, long maxMs, double errorRate) {
+        return new FaultProfile(LatencyProfile.uniform(minMs, maxMs), errorRate, 0, 0, null);
+    }
+
+    public LatencyProfile getLatency() {
+        return latency;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public double getTimeoutRate() {
+        return timeoutRate;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public BrownoutWindow getBrownout() {
+        return brownout;
+    }
+}
@@ -0,0 +1,112 @@
+package com.temporal.demos.helloworld.faults;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulated response time of one service.
+ *
+ * <ul>
+ *   <li>UNIFORM: evenly spread between minMs and maxMs</li>
+ *   <li>LOGNORMAL: around medianMs, with a right tail controlled by sigma</li>
+ *   <li>BIMODAL: lognormal around medianMs, except a slowFraction of calls
+ *       that are lognormal around slowMedianMs (e.g. cache misses or GC
+ *       pauses)</li>
+ * </ul>
+ * For the skewed distributions minMs and maxMs clamp the sampled value; a
+ * maxMs of 0 leaves the tail unbounded.
+ */
+public class LatencyProfile {
+
+    public enum Distribution {
+        UNIFORM, LOGNORMAL, BIMODAL
+    }
+
+    private final Distribution distribution;
+    private final long minMs;
+    private final long maxMs;
+    private final long medianMs;
+    private final double sigma;
+    private final double slowFraction;
+    private final long slowMedianMs;
+
+    public LatencyProfile(Distribution distribution, long minMs, long maxMs, long medianMs, double sigma,
+            double slowFraction, long slowMedianMs) {
+        if (minMs < 0 || maxMs < 0 || medianMs < 0 || slowMedianMs < 0 || sigma < 0) {
+            throw new IllegalArgumentException("Latency values must not be negative");
+        }
+        if (maxMs > 0 && maxMs < minMs) {
+            throw new IllegalArgumentException("maxMs must not be less than minMs");
+        }
+        if (slowFraction < 0 || slowFraction > 1) {
+            throw new IllegalArgumentException("slowFraction must be between 0 and 1");
+        }
+        this.distribution = distribution != null ? distribution : Distribution.UNIFORM;
+        this.minMs = minMs;
+        this.maxMs = maxMs;
+        this.medianMs = medianMs;
+        this.sigma = sigma;
+        this.slowFraction = slowFraction;
+        this.slowMedianMs = slowMedianMs;
+    }
+
+    public static LatencyProfile uniform(long minMs, long maxMs) {
+        return new LatencyProfile(Distribution.UNIFORM, minMs, maxMs, 0, 0, 0, 0);
+    }
+
+    public static LatencyProfile lognormal(long medianMs, double sigma, long maxMs) {
+        return new LatencyProfile(Distribution.LOGNORMAL, 0, maxMs, medianMs, sigma, 0, 0);
+    }
+
+    public static LatencyProfile bimodal(long medianMs, long slowMedianMs, double slowFraction, double sigma,
+            long maxMs) {
+        return new LatencyProfile(Distribution.BIMODAL, 0, maxMs, medianMs, sigma, slowFraction, slowMedianMs);
+    }
+
+    long sample(RandomGenerator random) {
+        double latency;
+        switch (distribution) {
+            case LOGNORMAL:
+                latency = lognormal(random, medianMs);
+                break;
+            case BIMODAL:
+                latency = lognormal(random, random.nextDouble() < slowFraction ? slowMedianMs : medianMs);
+                break;
+            default:
+                return maxMs > minMs ? random.nextLong(minMs, maxMs + 1) : minMs;
+        }
+        long clamped = Math.max(minMs, Math.round(latency));
+        return maxMs > 0 ? Math.min(maxMs, clamped) : clamped;
+    }
+
+    private double lognormal(RandomGenerator random, long median) {
+        return median * Math.exp(sigma * random.nextGaussian());
+    }
+
+    public Distribution getDistribution() {
+        return distribution;
+    }
+
+    public long getMinMs() {
+        return minMs;
+    }
+
+    public long getMaxMs() {
+        return maxMs;
+    }
+
+    public long getMedianMs() {
+        return medianMs;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+
+    public double getSlowFraction() {
+        return slowFraction;
+    }
+
+    public long getSlowMedianMs() {
+        return slowMedianMs;
+    }
+}
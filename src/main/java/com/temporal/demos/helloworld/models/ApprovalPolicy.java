@@ -0,0 +1,98 @@
+package com.temporal.demos.helloworld.models;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How an approval is decided and how long it may wait, passed in when the
+ * request is started so a running approval keeps its rules when the
+ * configuration changes.
+ *
+ * Waiting is measured from when the request started waiting. Reminders
+ * repeat every reminderInterval and go to whichever approver tier currently
+ * holds the request; after escalateAfter the request moves to the second
+ * tier, and after timeout it times out.
+ *
+ * The request is approved once requiredApprovals different approvers approve
+ * it (N of M). With an approvers list, only those approvers may vote, and the
+ * request is rejected once too many of them reject for the rest to reach the
+ * quorum. Without one, anyone may vote and a single rejection rejects it.
+ * Fields 1-3 are unchanged from the escalation-only policy, so requests
+ * started with it read as needing one approval from anyone.
+ */
+public class ApprovalPolicy implements CompactMessage {
+
+    private long reminderIntervalSeconds;
+    private long escalateAfterSeconds;
+    private long timeoutSeconds;
+    private int requiredApprovals;
+    private List<String> approvers = new ArrayList<>();
+
+    public ApprovalPolicy() {
+    }
+
+    public ApprovalPolicy(long reminderIntervalSeconds, long escalateAfterSeconds, long timeoutSeconds) {
+        this(reminderIntervalSeconds, escalateAfterSeconds, timeoutSeconds, 1, List.of());
+    }
+
+    public ApprovalPolicy(long reminderIntervalSeconds, long escalateAfterSeconds, long timeoutSeconds,
+            int requiredApprovals, List<String> approvers) {
+        this.reminderIntervalSeconds = reminderIntervalSeconds;
+        this.escalateAfterSeconds = escalateAfterSeconds;
+        this.timeoutSeconds = timeoutSeconds;
+        this.requiredApprovals = requiredApprovals;
+        this.approvers = new ArrayList<>(approvers);
+    }
+
+    public long getReminderIntervalSeconds() {
+        return reminderIntervalSeconds;
+    }
+
+    public long getEscalateAfterSeconds() {
+        return escalateAfterSeconds;
+    }
+
+    public long getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public int getRequiredApprovals() {
+        return requiredApprovals;
+    }
+
+    public List<String> getApprovers() {
+        return approvers;
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        output.writeInt64(1, reminderIntervalSeconds);
+        output.writeInt64(2, escalateAfterSeconds);
+        output.writeInt64(3, timeoutSeconds);
+        output.writeInt32(4, requiredApprovals);
+        for (String approver : approvers) {
+            output.writeString(5, approver);
+        }
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> reminderIntervalSeconds = input.readInt64();
+                case 2 -> escalateAfterSeconds = input.readInt64();
+                case 3 -> timeoutSeconds = input.readInt64();
+                case 4 -> requiredApprovals = input.readInt32();
+                case 5 -> approvers.add(input.readString());
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
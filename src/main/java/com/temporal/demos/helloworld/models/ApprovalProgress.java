@@ -0,0 +1,83 @@
+package com.temporal.demos.helloworld.models;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where a waiting approval is in its escalation schedule, handed from one
+ * run to the next when the workflow continues as new. tier is 1 for the
+ * first approver tier and 2 once escalated; votes are those counted so far
+ * towards the quorum.
+ */
+public class ApprovalProgress implements CompactMessage {
+
+    private long requestStartMillis;
+    private long waitingSinceMillis;
+    private int tier;
+    private int remindersSent;
+    private List<ApprovalVote> votes = new ArrayList<>();
+
+    public ApprovalProgress() {
+    }
+
+    public ApprovalProgress(long requestStartMillis, long waitingSinceMillis, int tier, int remindersSent,
+            List<ApprovalVote> votes) {
+        this.requestStartMillis = requestStartMillis;
+        this.waitingSinceMillis = waitingSinceMillis;
+        this.tier = tier;
+        this.remindersSent = remindersSent;
+        this.votes = new ArrayList<>(votes);
+    }
+
+    public long getRequestStartMillis() {
+        return requestStartMillis;
+    }
+
+    public long getWaitingSinceMillis() {
+        return waitingSinceMillis;
+    }
+
+    public int getTier() {
+        return tier;
+    }
+
+    public int getRemindersSent() {
+        return remindersSent;
+    }
+
+    public List<ApprovalVote> getVotes() {
+        return votes;
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        output.writeInt64(1, requestStartMillis);
+        output.writeInt64(2, waitingSinceMillis);
+        output.writeInt32(3, tier);
+        output.writeInt32(4, remindersSent);
+        for (ApprovalVote vote : votes) {
+            CompactMessage.writeMessage(output, 5, vote);
+        }
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> requestStartMillis = input.readInt64();
+                case 2 -> waitingSinceMillis = input.readInt64();
+                case 3 -> tier = input.readInt32();
+                case 4 -> remindersSent = input.readInt32();
+                case 5 -> votes.add(CompactMessage.readMessage(input, new ApprovalVote()));
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
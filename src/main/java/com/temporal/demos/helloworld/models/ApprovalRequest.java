@@ -1,5 +1,7 @@
 package com.temporal.demos.helloworld.models;
 
+import java.util.List;
+
 // import lombok.Getter;
 
 // @Getter
@@ -7,11 +9,17 @@ public class ApprovalRequest {
     private String requestId;
     private String requestDetails;
     private String requesterEmail;
+    // Optional N-of-M quorum; one approval from anyone when both are absent
+    private Integer requiredApprovals;
+    private List<String> approvers;
 
-    public ApprovalRequest(String requestId, String requestDetails, String requesterEmail) {
+    public ApprovalRequest(String requestId, String requestDetails, String requesterEmail,
+            Integer requiredApprovals, List<String> approvers) {
         this.requestId = requestId;
         this.requestDetails = requestDetails;
         this.requesterEmail = requesterEmail;
+        this.requiredApprovals = requiredApprovals;
+        this.approvers = approvers;
     }
 
     public String getRequestId() {
@@ -26,4 +34,12 @@ public class ApprovalRequest {
         return requesterEmail;
     }
 
+    public Integer getRequiredApprovals() {
+        return requiredApprovals;
+    }
+
+    public List<String> getApprovers() {
+        return approvers;
+    }
+
 }
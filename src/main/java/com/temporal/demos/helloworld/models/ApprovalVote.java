@@ -0,0 +1,70 @@
+package com.temporal.demos.helloworld.models;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+
+import java.io.IOException;
+
+/**
+ * One approver's decision on a request. note holds the comments for an
+ * approval and the reason for a rejection. A vote resent with the same
+ * idempotencyKey (or without one both times) is a retry of the first and
+ * changes nothing.
+ */
+public class ApprovalVote implements CompactMessage {
+
+    private String approverEmail;
+    private boolean approve;
+    private String note;
+    private String idempotencyKey;
+
+    public ApprovalVote() {
+    }
+
+    public ApprovalVote(String approverEmail, boolean approve, String note, String idempotencyKey) {
+        this.approverEmail = approverEmail;
+        this.approve = approve;
+        this.note = note;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getApproverEmail() {
+        return approverEmail;
+    }
+
+    public boolean isApprove() {
+        return approve;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, approverEmail);
+        output.writeBool(2, approve);
+        CompactMessage.writeString(output, 3, note);
+        CompactMessage.writeString(output, 4, idempotencyKey);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> approverEmail = input.readString();
+                case 2 -> approve = input.readBool();
+                case 3 -> note = input.readString();
+                case 4 -> idempotencyKey = input.readString();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.temporal.demos.helloworld.models;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+
+import java.io.IOException;
+
+/**
+ * A request's state right after a vote was recorded. approvalStatus is
+ * already APPROVED or REJECTED when the vote decided the request, before the
+ * approved action runs. duplicate is set when the vote was a retry of one
+ * already counted.
+ */
+public class ApprovalVoteResult implements CompactMessage {
+
+    private String approvalStatus;
+    private String currentStep;
+    private int approvals;
+    private int rejections;
+    private int requiredApprovals;
+    private boolean duplicate;
+
+    public ApprovalVoteResult() {
+    }
+
+    public ApprovalVoteResult(String approvalStatus, String currentStep, int approvals, int rejections,
+            int requiredApprovals, boolean duplicate) {
+        this.approvalStatus = approvalStatus;
+        this.currentStep = currentStep;
+        this.approvals = approvals;
+        this.rejections = rejections;
+        this.requiredApprovals = requiredApprovals;
+        this.duplicate = duplicate;
+    }
+
+    public String getApprovalStatus() {
+        return approvalStatus;
+    }
+
+    public String getCurrentStep() {
+        return currentStep;
+    }
+
+    public int getApprovals() {
+        return approvals;
+    }
+
+    public int getRejections() {
+        return rejections;
+    }
+
+    public int getRequiredApprovals() {
+        return requiredApprovals;
+    }
+
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, approvalStatus);
+        CompactMessage.writeString(output, 2, currentStep);
+        output.writeInt32(3, approvals);
+        output.writeInt32(4, rejections);
+        output.writeInt32(5, requiredApprovals);
+        output.writeBool(6, duplicate);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> approvalStatus = input.readString();
+                case 2 -> currentStep = input.readString();
+                case 3 -> approvals = input.readInt32();
+                case 4 -> rejections = input.readInt32();
+                case 5 -> requiredApprovals = input.readInt32();
+                case 6 -> duplicate = input.readBool();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.temporal.demos.helloworld.models;
+
+import java.util.List;
+
+/**
+ * One decision applied to many approval workflows. decision is APPROVE or
+ * REJECT; comments go with approvals and reason with rejections.
+ */
+public class BulkApprovalDecision {
+
+    private List<String> workflowIds;
+    private String decision;
+    private String approverEmail;
+    private String comments;
+    private String reason;
+
+    public BulkApprovalDecision(List<String> workflowIds, String decision, String approverEmail, String comments,
+            String reason) {
+        this.workflowIds = workflowIds;
+        this.decision = decision;
+        this.approverEmail = approverEmail;
+        this.comments = comments;
+        this.reason = reason;
+    }
+
+    public List<String> getWorkflowIds() {
+        return workflowIds;
+    }
+
+    public String getDecision() {
+        return decision;
+    }
+
+    public String getApproverEmail() {
+        return approverEmail;
+    }
+
+    public String getComments() {
+        return comments;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,70 @@
+package com.temporal.demos.helloworld.models;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+
+import java.io.IOException;
+
+/**
+ * Stands in for an optional service that gave no result in a partial-results
+ * orchestration. Unlike the other results it names its service in a field.
+ */
+public class DegradedServiceResult implements ServiceResult {
+
+    /** Still failing or running when its latency budget ran out */
+    public static final String BUDGET_EXCEEDED = "BUDGET_EXCEEDED";
+    /** Failed with a non-retryable error within its budget */
+    public static final String FAILED = "FAILED";
+    /** Not started because the orchestration's deadline had already passed */
+    public static final String DEADLINE_PASSED = "DEADLINE_PASSED";
+
+    private String service;
+    private String reason;
+
+    public DegradedServiceResult() {
+    }
+
+    public DegradedServiceResult(String service, String reason) {
+        this.service = service;
+        this.reason = reason;
+    }
+
+    @Override
+    public String getService() {
+        return service;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public void writeJson(JsonResultWriter writer) {
+        writer.beginObject()
+                .field("service", service)
+                .field("degraded", true)
+                .field("reason", reason)
+                .endObject();
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, service);
+        CompactMessage.writeString(output, 2, reason);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> service = input.readString();
+                case 2 -> reason = input.readString();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.temporal.demos.helloworld.models;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads service results recorded before they were typed, when activities
+ * returned the result object as a JSON string. Orchestrations that were
+ * running across that change replay those strings, which the JSON converter
+ * hands to each result's String-accepting creator.
+ */
+final class LegacyServiceResults {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private LegacyServiceResults() {
+    }
+
+    static JsonNode parse(String json) {
+        try {
+            JsonNode node = MAPPER.readTree(json);
+            if (node == null || !node.isObject()) {
+                throw new IllegalArgumentException("Not a service result object: " + json);
+            }
+            return node;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Not a service result object: " + json, e);
+        }
+    }
+
+    static String text(JsonNode node, String field) {
+        return node.path(field).asText(null);
+    }
+
+    static List<String> texts(JsonNode node, String field) {
+        List<String> values = new ArrayList<>();
+        node.path(field).forEach(value -> values.add(value.asText()));
+        return values;
+    }
+}
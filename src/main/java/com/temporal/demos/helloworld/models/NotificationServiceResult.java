@@ -0,0 +1,77 @@
+package com.temporal.demos.helloworld.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+
+import java.io.IOException;
+
+public class NotificationServiceResult implements ServiceResult {
+
+    public static final String SERVICE = "NotificationService";
+
+    private String userId;
+    private int unreadCount;
+
+    public NotificationServiceResult() {
+    }
+
+    public NotificationServiceResult(String userId, int unreadCount) {
+        this.userId = userId;
+        this.unreadCount = unreadCount;
+    }
+
+    /**
+     * Reads a result recorded as a JSON string, before results were typed.
+     */
+    @JsonCreator
+    public static NotificationServiceResult fromLegacyJson(String json) {
+        JsonNode node = LegacyServiceResults.parse(json);
+        return new NotificationServiceResult(LegacyServiceResults.text(node, "userId"),
+                node.path("unreadCount").asInt());
+    }
+
+    @Override
+    public String getService() {
+        return SERVICE;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    @Override
+    public void writeJson(JsonResultWriter writer) {
+        writer.beginObject()
+                .field("service", SERVICE)
+                .field("userId", userId)
+                .field("unreadCount", unreadCount)
+                .endObject();
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, userId);
+        output.writeInt32(2, unreadCount);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> userId = input.readString();
+                case 2 -> unreadCount = input.readInt32();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
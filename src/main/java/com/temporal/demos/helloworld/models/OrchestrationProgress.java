@@ -0,0 +1,168 @@
+package com.temporal.demos.helloworld.models;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What an orchestration has finished so far, handed to the next run when a
+ * long payment wait makes it continue as new. Results already here are not
+ * fetched again. paymentInitiatedMillis is when the async payment was
+ * initiated, so its deadline holds across runs. In a partial-results
+ * orchestration, optional services that gave no result are carried as
+ * degradedServices, and startedMillis keeps its deadline.
+ *
+ * maxHistoryEvents and maxHistoryBytes override the workflow's history
+ * budget when set, and are carried along unchanged.
+ */
+public class OrchestrationProgress implements CompactMessage {
+
+    private UserServiceResult userService;
+    private OrderServiceResult orderService;
+    private NotificationServiceResult notificationService;
+    private List<DegradedServiceResult> degradedServices = new ArrayList<>();
+    private PaymentInitiationResult paymentInitiation;
+    private long paymentInitiatedMillis;
+    private long startedMillis;
+    private int pollRounds;
+    private int continuedRuns;
+    private int maxHistoryEvents;
+    private long maxHistoryBytes;
+
+    public OrchestrationProgress() {
+    }
+
+    public OrchestrationProgress(UserServiceResult userService, OrderServiceResult orderService,
+            NotificationServiceResult notificationService, List<DegradedServiceResult> degradedServices,
+            PaymentInitiationResult paymentInitiation, long paymentInitiatedMillis, long startedMillis,
+            int pollRounds, int continuedRuns, int maxHistoryEvents, long maxHistoryBytes) {
+        this.userService = userService;
+        this.orderService = orderService;
+        this.notificationService = notificationService;
+        this.degradedServices = new ArrayList<>(degradedServices);
+        this.paymentInitiation = paymentInitiation;
+        this.paymentInitiatedMillis = paymentInitiatedMillis;
+        this.startedMillis = startedMillis;
+        this.pollRounds = pollRounds;
+        this.continuedRuns = continuedRuns;
+        this.maxHistoryEvents = maxHistoryEvents;
+        this.maxHistoryBytes = maxHistoryBytes;
+    }
+
+    /**
+     * A fresh orchestration with its own history budget, for tests and load
+     * tools that want it to continue as new early.
+     */
+    public static OrchestrationProgress withHistoryBudget(int maxHistoryEvents, long maxHistoryBytes) {
+        return new OrchestrationProgress(null, null, null, List.of(), null, 0, 0, 0, 0, maxHistoryEvents,
+                maxHistoryBytes);
+    }
+
+    public UserServiceResult getUserService() {
+        return userService;
+    }
+
+    public OrderServiceResult getOrderService() {
+        return orderService;
+    }
+
+    public NotificationServiceResult getNotificationService() {
+        return notificationService;
+    }
+
+    public List<DegradedServiceResult> getDegradedServices() {
+        return degradedServices;
+    }
+
+    /**
+     * The degraded marker carried for service, or null if it gave a result
+     * or hasn't been called yet.
+     */
+    public DegradedServiceResult degraded(String service) {
+        for (DegradedServiceResult degraded : degradedServices) {
+            if (degraded.getService().equals(service)) {
+                return degraded;
+            }
+        }
+        return null;
+    }
+
+    public PaymentInitiationResult getPaymentInitiation() {
+        return paymentInitiation;
+    }
+
+    public long getPaymentInitiatedMillis() {
+        return paymentInitiatedMillis;
+    }
+
+    public long getStartedMillis() {
+        return startedMillis;
+    }
+
+    public int getPollRounds() {
+        return pollRounds;
+    }
+
+    public int getContinuedRuns() {
+        return continuedRuns;
+    }
+
+    public int getMaxHistoryEvents() {
+        return maxHistoryEvents;
+    }
+
+    public long getMaxHistoryBytes() {
+        return maxHistoryBytes;
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        if (userService != null) {
+            CompactMessage.writeMessage(output, 1, userService);
+        }
+        if (orderService != null) {
+            CompactMessage.writeMessage(output, 2, orderService);
+        }
+        if (notificationService != null) {
+            CompactMessage.writeMessage(output, 3, notificationService);
+        }
+        if (paymentInitiation != null) {
+            CompactMessage.writeMessage(output, 4, paymentInitiation);
+        }
+        output.writeInt64(5, paymentInitiatedMillis);
+        output.writeInt32(6, pollRounds);
+        output.writeInt32(7, continuedRuns);
+        output.writeInt32(8, maxHistoryEvents);
+        output.writeInt64(9, maxHistoryBytes);
+        output.writeInt64(10, startedMillis);
+        for (DegradedServiceResult degraded : degradedServices) {
+            CompactMessage.writeMessage(output, 11, degraded);
+        }
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> userService = CompactMessage.readMessage(input, new UserServiceResult());
+                case 2 -> orderService = CompactMessage.readMessage(input, new OrderServiceResult());
+                case 3 -> notificationService = CompactMessage.readMessage(input, new NotificationServiceResult());
+                case 4 -> paymentInitiation = CompactMessage.readMessage(input, new PaymentInitiationResult());
+                case 5 -> paymentInitiatedMillis = input.readInt64();
+                case 6 -> pollRounds = input.readInt32();
+                case 7 -> continuedRuns = input.readInt32();
+                case 8 -> maxHistoryEvents = input.readInt32();
+                case 9 -> maxHistoryBytes = input.readInt64();
+                case 10 -> startedMillis = input.readInt64();
+                case 11 -> degradedServices.add(CompactMessage.readMessage(input, new DegradedServiceResult()));
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
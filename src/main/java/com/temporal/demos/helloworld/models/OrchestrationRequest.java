@@ -8,11 +8,14 @@ public class OrchestrationRequest {
     private String userId;
     private String requestId;
     private boolean useAsyncPayment = false; // Default to synchronous payment
+    // Return without optional services that miss their latency budgets
+    private boolean partialResults = false;
 
-    public OrchestrationRequest(String userId, boolean useAsyncPayment, String requestId) {
+    public OrchestrationRequest(String userId, boolean useAsyncPayment, String requestId, boolean partialResults) {
         this.userId = userId;
         this.useAsyncPayment = useAsyncPayment;
         this.requestId = requestId;
+        this.partialResults = partialResults;
     }
 
     public String getUserId() {
@@ -26,4 +29,8 @@ public class OrchestrationRequest {
     public String getRequestId() {
         return requestId;
     }
+
+    public boolean isPartialResults() {
+        return partialResults;
+    }
 }
\ No newline at end of file
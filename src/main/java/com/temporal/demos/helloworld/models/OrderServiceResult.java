@@ -0,0 +1,86 @@
+package com.temporal.demos.helloworld.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+
+import java.io.IOException;
+
+public class OrderServiceResult implements ServiceResult {
+
+    public static final String SERVICE = "OrderService";
+
+    private String userId;
+    private int totalOrders;
+    private double totalAmount;
+
+    public OrderServiceResult() {
+    }
+
+    public OrderServiceResult(String userId, int totalOrders, double totalAmount) {
+        this.userId = userId;
+        this.totalOrders = totalOrders;
+        this.totalAmount = totalAmount;
+    }
+
+    /**
+     * Reads a result recorded as a JSON string, before results were typed.
+     */
+    @JsonCreator
+    public static OrderServiceResult fromLegacyJson(String json) {
+        JsonNode node = LegacyServiceResults.parse(json);
+        return new OrderServiceResult(LegacyServiceResults.text(node, "userId"), node.path("totalOrders").asInt(),
+                node.path("totalAmount").asDouble());
+    }
+
+    @Override
+    public String getService() {
+        return SERVICE;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public int getTotalOrders() {
+        return totalOrders;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    @Override
+    public void writeJson(JsonResultWriter writer) {
+        writer.beginObject()
+                .field("service", SERVICE)
+                .field("userId", userId)
+                .field("totalOrders", totalOrders)
+                .field("totalAmount", totalAmount, 2)
+                .endObject();
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, userId);
+        output.writeInt32(2, totalOrders);
+        output.writeDouble(3, totalAmount);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> userId = input.readString();
+                case 2 -> totalOrders = input.readInt32();
+                case 3 -> totalAmount = input.readDouble();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
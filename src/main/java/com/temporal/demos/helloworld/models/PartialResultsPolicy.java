@@ -0,0 +1,87 @@
+package com.temporal.demos.helloworld.models;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+
+import java.io.IOException;
+
+/**
+ * Latency budgets for an orchestration that may finish without some of its
+ * services, passed in when it is started.
+ *
+ * Each optional service gets its budget, including retries, and is marked
+ * degraded in the result if it has not succeeded by then. None is started or
+ * waited on past deadlineMillis, measured from when the orchestration
+ * started. A budget of 0 makes that service required, as are the user and
+ * payment services always.
+ */
+public class PartialResultsPolicy implements CompactMessage {
+
+    private long deadlineMillis;
+    private long orderBudgetMillis;
+    private long notificationBudgetMillis;
+    private long recommendationBudgetMillis;
+
+    public PartialResultsPolicy() {
+    }
+
+    public PartialResultsPolicy(long deadlineMillis, long orderBudgetMillis, long notificationBudgetMillis,
+            long recommendationBudgetMillis) {
+        this.deadlineMillis = deadlineMillis;
+        this.orderBudgetMillis = orderBudgetMillis;
+        this.notificationBudgetMillis = notificationBudgetMillis;
+        this.recommendationBudgetMillis = recommendationBudgetMillis;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    public long getOrderBudgetMillis() {
+        return orderBudgetMillis;
+    }
+
+    public long getNotificationBudgetMillis() {
+        return notificationBudgetMillis;
+    }
+
+    public long getRecommendationBudgetMillis() {
+        return recommendationBudgetMillis;
+    }
+
+    /**
+     * The budget of service, 0 for the services that are always required.
+     */
+    public long budgetMillis(String service) {
+        return switch (service) {
+            case OrderServiceResult.SERVICE -> orderBudgetMillis;
+            case NotificationServiceResult.SERVICE -> notificationBudgetMillis;
+            case RecommendationServiceResult.SERVICE -> recommendationBudgetMillis;
+            default -> 0;
+        };
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        output.writeInt64(1, deadlineMillis);
+        output.writeInt64(2, orderBudgetMillis);
+        output.writeInt64(3, notificationBudgetMillis);
+        output.writeInt64(4, recommendationBudgetMillis);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> deadlineMillis = input.readInt64();
+                case 2 -> orderBudgetMillis = input.readInt64();
+                case 3 -> notificationBudgetMillis = input.readInt64();
+                case 4 -> recommendationBudgetMillis = input.readInt64();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.temporal.demos.helloworld.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+
+import java.io.IOException;
+
+/**
+ * Acknowledgement returned when an async payment is initiated. The workflow
+ * reads the paymentId from it to start polling.
+ */
+public class PaymentInitiationResult implements ServiceResult {
+
+    public static final String SERVICE = "AsyncPaymentService";
+
+    private String paymentId;
+    private String userId;
+    private double amount;
+    private String status;
+
+    public PaymentInitiationResult() {
+    }
+
+    public PaymentInitiationResult(String paymentId, String userId, double amount, String status) {
+        this.paymentId = paymentId;
+        this.userId = userId;
+        this.amount = amount;
+        this.status = status;
+    }
+
+    /**
+     * Reads a result recorded as a JSON string, before results were typed.
+     */
+    @JsonCreator
+    public static PaymentInitiationResult fromLegacyJson(String json) {
+        JsonNode node = LegacyServiceResults.parse(json);
+        return new PaymentInitiationResult(LegacyServiceResults.text(node, "paymentId"),
+                LegacyServiceResults.text(node, "userId"), node.path("amount").asDouble(),
+                LegacyServiceResults.text(node, "status"));
+    }
+
+    @Override
+    public String getService() {
+        return SERVICE;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public void writeJson(JsonResultWriter writer) {
+        writer.beginObject()
+                .field("service", SERVICE)
+                .field("paymentId", paymentId)
+                .field("userId", userId)
+                .field("amount", amount, 2)
+                .field("status", status)
+                .endObject();
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, paymentId);
+        CompactMessage.writeString(output, 2, userId);
+        output.writeDouble(3, amount);
+        CompactMessage.writeString(output, 4, status);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> paymentId = input.readString();
+                case 2 -> userId = input.readString();
+                case 3 -> amount = input.readDouble();
+                case 4 -> status = input.readString();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.temporal.demos.helloworld.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+
+import java.io.IOException;
+
+/**
+ * Result of the synchronous payment service call.
+ */
+public class PaymentServiceResult implements ServiceResult {
+
+    public static final String SERVICE = "PaymentService";
+
+    private String userId;
+    private String defaultMethod;
+    private int creditScore;
+
+    public PaymentServiceResult() {
+    }
+
+    public PaymentServiceResult(String userId, String defaultMethod, int creditScore) {
+        this.userId = userId;
+        this.defaultMethod = defaultMethod;
+        this.creditScore = creditScore;
+    }
+
+    /**
+     * Reads a result recorded as a JSON string, before results were typed.
+     */
+    @JsonCreator
+    public static PaymentServiceResult fromLegacyJson(String json) {
+        JsonNode node = LegacyServiceResults.parse(json);
+        return new PaymentServiceResult(LegacyServiceResults.text(node, "userId"),
+                LegacyServiceResults.text(node, "defaultMethod"), node.path("creditScore").asInt());
+    }
+
+    @Override
+    public String getService() {
+        return SERVICE;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getDefaultMethod() {
+        return defaultMethod;
+    }
+
+    public int getCreditScore() {
+        return creditScore;
+    }
+
+    @Override
+    public void writeJson(JsonResultWriter writer) {
+        writer.beginObject()
+                .field("service", SERVICE)
+                .field("userId", userId)
+                .field("defaultMethod", defaultMethod)
+                .field("creditScore", creditScore)
+                .endObject();
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, userId);
+        CompactMessage.writeString(output, 2, defaultMethod);
+        output.writeInt32(3, creditScore);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> userId = input.readString();
+                case 2 -> defaultMethod = input.readString();
+                case 3 -> creditScore = input.readInt32();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
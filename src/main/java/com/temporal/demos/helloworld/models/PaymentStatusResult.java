@@ -0,0 +1,102 @@
+package com.temporal.demos.helloworld.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+
+import java.io.IOException;
+
+/**
+ * Final state of an async payment once polling completes. transactionId is
+ * only set for completed payments.
+ */
+public class PaymentStatusResult implements ServiceResult {
+
+    public static final String SERVICE = "AsyncPaymentService-Poll";
+
+    private String paymentId;
+    private String status;
+    private int totalPolls;
+    private String transactionId;
+
+    public PaymentStatusResult() {
+    }
+
+    public PaymentStatusResult(String paymentId, String status, int totalPolls, String transactionId) {
+        this.paymentId = paymentId;
+        this.status = status;
+        this.totalPolls = totalPolls;
+        this.transactionId = transactionId;
+    }
+
+    /**
+     * Reads a result recorded as a JSON string, before results were typed.
+     */
+    @JsonCreator
+    public static PaymentStatusResult fromLegacyJson(String json) {
+        JsonNode node = LegacyServiceResults.parse(json);
+        return new PaymentStatusResult(LegacyServiceResults.text(node, "paymentId"),
+                LegacyServiceResults.text(node, "status"), node.path("totalPolls").asInt(),
+                LegacyServiceResults.text(node, "transactionId"));
+    }
+
+    @Override
+    public String getService() {
+        return SERVICE;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getTotalPolls() {
+        return totalPolls;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    @Override
+    public void writeJson(JsonResultWriter writer) {
+        writer.beginObject()
+                .field("service", SERVICE)
+                .field("paymentId", paymentId)
+                .field("status", status)
+                .field("totalPolls", totalPolls);
+        if (transactionId != null) {
+            writer.field("transactionId", transactionId);
+        }
+        writer.endObject();
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, paymentId);
+        CompactMessage.writeString(output, 2, status);
+        output.writeInt32(3, totalPolls);
+        CompactMessage.writeString(output, 4, transactionId);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> paymentId = input.readString();
+                case 2 -> status = input.readString();
+                case 3 -> totalPolls = input.readInt32();
+                case 4 -> transactionId = input.readString();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
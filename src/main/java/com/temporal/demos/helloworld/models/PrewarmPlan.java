@@ -0,0 +1,48 @@
+package com.temporal.demos.helloworld.models;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The hot users a scheduled pre-warm run orchestrates, fixed in the schedule
+ * when it is created or updated from configuration.
+ */
+public class PrewarmPlan implements CompactMessage {
+
+    private List<String> userIds = new ArrayList<>();
+
+    public PrewarmPlan() {
+    }
+
+    public PrewarmPlan(List<String> userIds) {
+        this.userIds = new ArrayList<>(userIds);
+    }
+
+    public List<String> getUserIds() {
+        return userIds;
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        for (String userId : userIds) {
+            output.writeString(1, userId);
+        }
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> userIds.add(input.readString());
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
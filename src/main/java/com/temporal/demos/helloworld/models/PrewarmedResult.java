@@ -0,0 +1,71 @@
+package com.temporal.demos.helloworld.models;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+
+import java.io.IOException;
+
+/**
+ * The compiled result of one hot user's pre-warm orchestration, and when it
+ * completed.
+ */
+public class PrewarmedResult implements CompactMessage {
+
+    private String userId;
+    private String workflowId;
+    private String result;
+    private long completedMillis;
+
+    public PrewarmedResult() {
+    }
+
+    public PrewarmedResult(String userId, String workflowId, String result, long completedMillis) {
+        this.userId = userId;
+        this.workflowId = workflowId;
+        this.result = result;
+        this.completedMillis = completedMillis;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * The orchestration that produced the result.
+     */
+    public String getWorkflowId() {
+        return workflowId;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public long getCompletedMillis() {
+        return completedMillis;
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, userId);
+        CompactMessage.writeString(output, 2, workflowId);
+        CompactMessage.writeString(output, 3, result);
+        output.writeInt64(4, completedMillis);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> userId = input.readString();
+                case 2 -> workflowId = input.readString();
+                case 3 -> result = input.readString();
+                case 4 -> completedMillis = input.readInt64();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
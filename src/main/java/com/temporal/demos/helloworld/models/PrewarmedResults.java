@@ -0,0 +1,48 @@
+package com.temporal.demos.helloworld.models;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The results of a pre-warm run, one per user whose orchestration
+ * succeeded. Also the format of the pre-warmed result store's file.
+ */
+public class PrewarmedResults implements CompactMessage {
+
+    private List<PrewarmedResult> results = new ArrayList<>();
+
+    public PrewarmedResults() {
+    }
+
+    public PrewarmedResults(List<PrewarmedResult> results) {
+        this.results = new ArrayList<>(results);
+    }
+
+    public List<PrewarmedResult> getResults() {
+        return results;
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        for (PrewarmedResult result : results) {
+            CompactMessage.writeMessage(output, 1, result);
+        }
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> results.add(CompactMessage.readMessage(input, new PrewarmedResult()));
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
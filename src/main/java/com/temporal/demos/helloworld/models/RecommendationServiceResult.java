@@ -0,0 +1,85 @@
+package com.temporal.demos.helloworld.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecommendationServiceResult implements ServiceResult {
+
+    public static final String SERVICE = "RecommendationService";
+
+    private String userId;
+    private List<String> recommendations = new ArrayList<>();
+
+    public RecommendationServiceResult() {
+    }
+
+    public RecommendationServiceResult(String userId, List<String> recommendations) {
+        this.userId = userId;
+        this.recommendations = new ArrayList<>(recommendations);
+    }
+
+    /**
+     * Reads a result recorded as a JSON string, before results were typed.
+     */
+    @JsonCreator
+    public static RecommendationServiceResult fromLegacyJson(String json) {
+        JsonNode node = LegacyServiceResults.parse(json);
+        return new RecommendationServiceResult(LegacyServiceResults.text(node, "userId"),
+                LegacyServiceResults.texts(node, "recommendations"));
+    }
+
+    @Override
+    public String getService() {
+        return SERVICE;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public List<String> getRecommendations() {
+        return recommendations;
+    }
+
+    @Override
+    public void writeJson(JsonResultWriter writer) {
+        writer.beginObject()
+                .field("service", SERVICE)
+                .field("userId", userId)
+                .name("recommendations").beginArray();
+        for (String recommendation : recommendations) {
+            writer.value(recommendation);
+        }
+        writer.endArray()
+                .endObject();
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, userId);
+        for (String recommendation : recommendations) {
+            output.writeString(2, recommendation);
+        }
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> userId = input.readString();
+                case 2 -> recommendations.add(input.readString());
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.temporal.demos.helloworld.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+
+/**
+ * Result of one external service call made by the orchestration workflow.
+ * The service name is derived from the type, so it is written but never read
+ * back when the JSON converter is in use.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public interface ServiceResult extends CompactMessage {
+
+    String getService();
+
+    /**
+     * Writes this result as one JSON object, used when the orchestration
+     * compiles its final result.
+     */
+    void writeJson(JsonResultWriter writer);
+
+    default String toJson() {
+        JsonResultWriter writer = JsonResultWriter.forCurrentThread();
+        writeJson(writer);
+        return writer.toJson();
+    }
+}
@@ -0,0 +1,86 @@
+package com.temporal.demos.helloworld.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.temporal.demos.helloworld.converters.CompactMessage;
+import com.temporal.demos.helloworld.utils.JsonResultWriter;
+
+import java.io.IOException;
+
+public class UserServiceResult implements ServiceResult {
+
+    public static final String SERVICE = "UserService";
+
+    private String userId;
+    private String name;
+    private String email;
+
+    public UserServiceResult() {
+    }
+
+    public UserServiceResult(String userId, String name, String email) {
+        this.userId = userId;
+        this.name = name;
+        this.email = email;
+    }
+
+    /**
+     * Reads a result recorded as a JSON string, before results were typed.
+     */
+    @JsonCreator
+    public static UserServiceResult fromLegacyJson(String json) {
+        JsonNode node = LegacyServiceResults.parse(json);
+        return new UserServiceResult(LegacyServiceResults.text(node, "userId"), LegacyServiceResults.text(node, "name"),
+                LegacyServiceResults.text(node, "email"));
+    }
+
+    @Override
+    public String getService() {
+        return SERVICE;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public void writeJson(JsonResultWriter writer) {
+        writer.beginObject()
+                .field("service", SERVICE)
+                .field("userId", userId)
+                .field("name", name)
+                .field("email", email)
+                .endObject();
+    }
+
+    @Override
+    public void writeTo(CodedOutputStream output) throws IOException {
+        CompactMessage.writeString(output, 1, userId);
+        CompactMessage.writeString(output, 2, name);
+        CompactMessage.writeString(output, 3, email);
+    }
+
+    @Override
+    public void mergeFrom(CodedInputStream input) throws IOException {
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> userId = input.readString();
+                case 2 -> name = input.readString();
+                case 3 -> email = input.readString();
+                default -> input.skipField(tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.temporal.demos.helloworld.notifications;
+
+/**
+ * One queued message for a recipient. id identifies the notification across
+ * activity retries, so a retried enqueue is not delivered twice.
+ */
+public class Notification {
+
+    private final String id;
+    private final String recipient;
+    private final String message;
+    private final long enqueuedAtMillis;
+
+    public Notification(String id, String recipient, String message, long enqueuedAtMillis) {
+        this.id = id;
+        this.recipient = recipient;
+        this.message = message;
+        this.enqueuedAtMillis = enqueuedAtMillis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getEnqueuedAtMillis() {
+        return enqueuedAtMillis;
+    }
+}
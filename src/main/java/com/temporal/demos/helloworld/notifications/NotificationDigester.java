@@ -0,0 +1,390 @@
+package com.temporal.demos.helloworld.notifications;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queues notifications from the approval activities and delivers them as one
+ * digest per recipient, so a burst of requests produces a few messages
+ * instead of one each, and activities return as soon as the notification is
+ * queued instead of waiting for delivery.
+ *
+ * A recipient's digest goes out once their oldest queued notification has
+ * waited the digest window, or as soon as max-digest-size notifications are
+ * queued for them. Delivery is at-least-once: notifications are journaled
+ * (fsynced) before enqueue returns and only marked delivered after the digest
+ * is sent, so anything queued survives a restart. A crash between sending and
+ * journaling the delivery resends that digest.
+ *
+ * Enqueues don't write the journal themselves: they hand the notification to
+ * a flusher thread and wait, and the flusher journals everything handed over
+ * since its last write with one write and one fsync (group commit, as in
+ * {@link com.temporal.demos.helloworld.audit.AuditLog}). The state lock is
+ * never held across an fsync, so enqueues, ticks and deliveries only wait on
+ * the disk when they write it.
+ *
+ * Activity retries reuse the notification ID, and IDs already queued or
+ * recently delivered are ignored, so retries don't produce duplicates.
+ */
+@Component
+@ConditionalOnProperty(name = "temporal.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationDigester implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDigester.class);
+
+    private static final int RECENTLY_DELIVERED_IDS = 10_000;
+    private static final int COMPACT_AFTER_RECORDS = 10_000;
+    private static final long TICK_MILLIS = 500;
+
+    private final NotificationJournal journal;
+    private final Duration digestWindow;
+    private final int maxDigestSize;
+    private final Duration deliveryLatency;
+    private final Duration appendTimeout;
+
+    // Guards journal; taken before lock when both are needed
+    private final Object journalLock = new Object();
+    // Guards pending, journaling, toJournal and recentlyDelivered
+    private final Object lock = new Object();
+    // Journaled and not yet delivered; the tick picks digests from these
+    private Map<String, Notification> pending = new LinkedHashMap<>();
+    // Handed to the flusher and not yet durable, by ID, with what their enqueues wait on
+    private final Map<String, CompletableFuture<Void>> journaling = new HashMap<>();
+    private List<Notification> toJournal = new ArrayList<>();
+    private final Set<String> recentlyDelivered = Collections.newSetFromMap(
+            new LinkedHashMap<String, Boolean>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > RECENTLY_DELIVERED_IDS;
+                }
+            });
+    private final AtomicLong digestsSent = new AtomicLong();
+    private final AtomicLong notificationsDelivered = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile Thread flusher;
+    private ScheduledExecutorService scheduler;
+
+    public NotificationDigester(
+            @Value("${notifications.journal-path:data/notifications.journal}") String journalPath,
+            @Value("${notifications.digest-window:30s}") Duration digestWindow,
+            @Value("${notifications.max-digest-size:50}") int maxDigestSize,
+            @Value("${notifications.delivery-latency:1s}") Duration deliveryLatency,
+            @Value("${notifications.append-timeout:10s}") Duration appendTimeout) {
+        this.journal = new NotificationJournal(Path.of(journalPath));
+        this.digestWindow = digestWindow;
+        this.maxDigestSize = maxDigestSize;
+        this.deliveryLatency = deliveryLatency;
+        this.appendTimeout = appendTimeout;
+    }
+
+    @Override
+    public void start() {
+        synchronized (lock) {
+            try {
+                pending = journal.open();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open notification journal", e);
+            }
+            if (!pending.isEmpty()) {
+                logger.info("Recovered {} undelivered notification(s) from the journal", pending.size());
+            }
+            running = true;
+        }
+        flusher = new Thread(this::flushLoop, "notification-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-digester");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> deliver(false), TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a notification and returns once it is durable.
+     *
+     * @param id Stable across retries of the same notification
+     * @throws IllegalStateException if the digester is stopped, or the
+     *                               notification was not journaled within
+     *                               append-timeout
+     * @throws UncheckedIOException  if journaling it failed
+     */
+    public void enqueue(String id, String recipient, String message) throws InterruptedException {
+        enqueueAll(List.of(new Notification(id, recipient, message, 0)));
+    }
+
+    /**
+     * Queues several notifications, usually one message to several
+     * recipients, and returns once all are durable. They go into the same
+     * journal write unless a write is already under way.
+     *
+     * @param notifications Notifications to queue; their enqueue time is set
+     *                      here
+     * @throws IllegalStateException if the digester is stopped, or a
+     *                               notification was not journaled within
+     *                               append-timeout
+     * @throws UncheckedIOException  if journaling one failed
+     */
+    public void enqueueAll(List<Notification> notifications) throws InterruptedException {
+        List<CompletableFuture<Void>> durable = new ArrayList<>(notifications.size());
+        synchronized (lock) {
+            if (!running) {
+                throw new IllegalStateException("Notification digester is not running");
+            }
+            long now = System.currentTimeMillis();
+            for (Notification notification : notifications) {
+                String id = notification.getId();
+                if (pending.containsKey(id) || recentlyDelivered.contains(id)) {
+                    continue;
+                }
+                // A retry racing its first attempt waits for the same write
+                CompletableFuture<Void> journaled = journaling.get(id);
+                if (journaled == null) {
+                    journaled = new CompletableFuture<>();
+                    journaling.put(id, journaled);
+                    toJournal.add(new Notification(id, notification.getRecipient(), notification.getMessage(), now));
+                }
+                durable.add(journaled);
+            }
+        }
+        if (durable.isEmpty()) {
+            return;
+        }
+        LockSupport.unpark(flusher);
+        try {
+            CompletableFuture.allOf(durable.toArray(new CompletableFuture<?>[0]))
+                    .get(appendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException failure) {
+                throw failure;
+            }
+            throw new IllegalStateException("Failed to queue notifications", cause);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Notifications not journaled within " + appendTimeout);
+        }
+    }
+
+    /**
+     * Journals whatever enqueues handed over since the last write, until
+     * stopped with nothing left to write.
+     */
+    private void flushLoop() {
+        while (true) {
+            List<Notification> batch;
+            synchronized (lock) {
+                batch = toJournal;
+                if (batch.isEmpty() && !running) {
+                    return;
+                }
+                if (!batch.isEmpty()) {
+                    toJournal = new ArrayList<>();
+                }
+            }
+            if (batch.isEmpty()) {
+                LockSupport.park(this);
+                continue;
+            }
+            synchronized (journalLock) {
+                RuntimeException failure = null;
+                try {
+                    journal.appendQueued(batch);
+                } catch (RuntimeException e) {
+                    logger.error("Failed to journal {} notification(s)", batch.size(), e);
+                    failure = e;
+                }
+                // Made pending under journalLock, so a compaction can't miss them
+                synchronized (lock) {
+                    for (Notification notification : batch) {
+                        if (failure == null) {
+                            pending.put(notification.getId(), notification);
+                        }
+                        CompletableFuture<Void> durable = journaling.remove(notification.getId());
+                        if (failure == null) {
+                            durable.complete(null);
+                        } else {
+                            durable.completeExceptionally(failure);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the digests that are due, or every queued notification when
+     * {@code flushAll} is set. Failed digests stay queued for the next tick.
+     */
+    private void deliver(boolean flushAll) {
+        long now = System.currentTimeMillis();
+        Map<String, List<Notification>> due = new LinkedHashMap<>();
+        synchronized (lock) {
+            Map<String, List<Notification>> byRecipient = new LinkedHashMap<>();
+            for (Notification notification : pending.values()) {
+                byRecipient.computeIfAbsent(notification.getRecipient(), recipient -> new ArrayList<>())
+                        .add(notification);
+            }
+            byRecipient.forEach((recipient, queued) -> {
+                // Queued in order, so the first one has waited longest
+                boolean windowElapsed = now - queued.get(0).getEnqueuedAtMillis() >= digestWindow.toMillis();
+                if (flushAll || windowElapsed || queued.size() >= maxDigestSize) {
+                    due.put(recipient, queued.subList(0, Math.min(queued.size(), maxDigestSize)));
+                }
+            });
+        }
+
+        for (Map.Entry<String, List<Notification>> digest : due.entrySet()) {
+            try {
+                send(digest.getKey(), digest.getValue());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Digest to {} failed, retrying on the next tick: {}", digest.getKey(), e.getMessage());
+                continue;
+            }
+            try {
+                markDelivered(digest.getValue());
+            } catch (RuntimeException e) {
+                // Still queued in the journal, so the digest is resent after a restart
+                logger.error("Failed to record delivery of digest to {}", digest.getKey(), e);
+            }
+        }
+    }
+
+    private void markDelivered(List<Notification> delivered) {
+        synchronized (journalLock) {
+            journal.appendDelivered(delivered);
+            List<Notification> stillPending;
+            synchronized (lock) {
+                for (Notification notification : delivered) {
+                    pending.remove(notification.getId());
+                    recentlyDelivered.add(notification.getId());
+                }
+                // pending only changes under journalLock, so this copy stays current until it is released
+                stillPending = journal.records() > COMPACT_AFTER_RECORDS && journal.records() > 4 * pending.size()
+                        ? new ArrayList<>(pending.values())
+                        : null;
+            }
+            if (stillPending != null) {
+                try {
+                    journal.compact(stillPending);
+                } catch (IOException e) {
+                    logger.warn("Failed to compact notification journal: {}", e.getMessage());
+                }
+            }
+        }
+        digestsSent.incrementAndGet();
+        notificationsDelivered.addAndGet(delivered.size());
+    }
+
+    /**
+     * Simulated delivery: one message (and one delivery latency) per digest.
+     */
+    private void send(String recipient, List<Notification> digest) throws InterruptedException {
+        StringBuilder body = new StringBuilder();
+        for (Notification notification : digest) {
+            body.append("\n  - ").append(notification.getMessage());
+        }
+        logger.info("Notification digest sent to {} ({} notification(s)):{}", recipient, digest.size(), body);
+        Thread.sleep(deliveryLatency.toMillis());
+    }
+
+    /**
+     * Stops accepting notifications and sends everything still queued;
+     * whatever fails to send stays in the journal for the next start.
+     */
+    @Override
+    public void stop() {
+        synchronized (lock) {
+            running = false;
+        }
+        // Let the flusher journal what was handed over before stopping, so it is delivered below
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(appendTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = getPendingCount();
+        while (remaining > 0) {
+            deliver(true);
+            int left = getPendingCount();
+            if (left >= remaining) {
+                break;
+            }
+            remaining = left;
+        }
+        synchronized (journalLock) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close notification journal: {}", e.getMessage());
+            }
+        }
+        int left = getPendingCount();
+        if (left > 0) {
+            logger.warn("{} notification(s) left in the journal for the next start", left);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after WorkerLifecycle, so activities that finish while the worker
+     * drains can still queue notifications.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1;
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public long getDigestsSent() {
+        return digestsSent.get();
+    }
+
+    public long getNotificationsDelivered() {
+        return notificationsDelivered.get();
+    }
+}
@@ -0,0 +1,186 @@
+package com.temporal.demos.helloworld.notifications;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Append-only file of queued and delivered notifications, so notifications
+ * accepted by an activity survive a worker restart until they are delivered.
+ *
+ * Each line is either "Q2" (queued: id, recipient, enqueue time, message) or
+ * "D2" (delivered: id), tab separated, with every text field Base64 encoded:
+ * ids and recipients come from requests, so a tab or newline in one would
+ * otherwise split a record or forge another. Lines tagged "Q" and "D" were
+ * written before ids and recipients were encoded and are still read. Every
+ * append is fsynced before it returns. Replaying the file gives the queued
+ * notifications without a matching delivery; {@link #compact} rewrites the
+ * file with only those.
+ *
+ * Not thread-safe; {@link NotificationDigester} serializes access.
+ */
+class NotificationJournal implements AutoCloseable {
+
+    private static final String QUEUED = "Q2";
+    private static final String DELIVERED = "D2";
+
+    private final Path path;
+    private FileChannel channel;
+    private int records;
+
+    NotificationJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Opens the journal, creating it if needed, and returns the notifications
+     * still waiting for delivery in the order they were queued.
+     */
+    Map<String, Notification> open() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Map<String, Notification> pending = new LinkedHashMap<>();
+        records = 0;
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split("\t");
+                    try {
+                        if (fields.length == 5 && QUEUED.equals(fields[0])) {
+                            String id = decode(fields[1]);
+                            pending.put(id, new Notification(id, decode(fields[2]), decode(fields[4]),
+                                    Long.parseLong(fields[3])));
+                        } else if (fields.length == 2 && DELIVERED.equals(fields[0])) {
+                            pending.remove(decode(fields[1]));
+                        } else if (fields.length == 5 && "Q".equals(fields[0])) {
+                            pending.put(fields[1], new Notification(fields[1], fields[2], decode(fields[4]),
+                                    Long.parseLong(fields[3])));
+                        } else if (fields.length == 2 && "D".equals(fields[0])) {
+                            pending.remove(fields[1]);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        // A torn line from a crash mid-append; the enqueue never returned, so the activity retries
+                    }
+                    records++;
+                }
+            }
+        }
+        boolean tornTail = false;
+        if (Files.exists(path)) {
+            try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer last = ByteBuffer.allocate(1);
+                tornTail = in.size() > 0 && in.read(last, in.size() - 1) == 1 && last.get(0) != '\n';
+            }
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        if (tornTail) {
+            // Terminate a torn line so the next record starts on its own line
+            append("\n");
+        }
+        return pending;
+    }
+
+    /**
+     * Journals a batch of queued notifications with a single write and
+     * fsync.
+     */
+    void appendQueued(Collection<Notification> queued) {
+        StringBuilder lines = new StringBuilder();
+        for (Notification notification : queued) {
+            lines.append(queuedLine(notification));
+        }
+        append(lines.toString());
+        records += queued.size();
+    }
+
+    /**
+     * Marks a batch as delivered with a single write and fsync.
+     */
+    void appendDelivered(Collection<Notification> delivered) {
+        StringBuilder lines = new StringBuilder();
+        for (Notification notification : delivered) {
+            lines.append(DELIVERED).append('\t').append(encode(notification.getId())).append('\n');
+        }
+        append(lines.toString());
+        records += delivered.size();
+    }
+
+    /**
+     * Number of lines in the file, to decide when compacting is worthwhile.
+     */
+    int records() {
+        return records;
+    }
+
+    /**
+     * Replaces the file with one holding only the given pending
+     * notifications. The new file is written and synced before it atomically
+     * replaces the old one, so a crash leaves one or the other.
+     */
+    void compact(Collection<Notification> pending) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder lines = new StringBuilder();
+            for (Notification notification : pending) {
+                lines.append(queuedLine(notification));
+            }
+            writeFully(out, lines.toString());
+            out.force(true);
+        }
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        records = pending.size();
+    }
+
+    private static String queuedLine(Notification notification) {
+        return QUEUED + "\t" + encode(notification.getId()) + "\t" + encode(notification.getRecipient()) + "\t"
+                + notification.getEnqueuedAtMillis() + "\t" + encode(notification.getMessage()) + "\n";
+    }
+
+    private static String encode(String text) {
+        return Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String field) {
+        return new String(Base64.getDecoder().decode(field), StandardCharsets.UTF_8);
+    }
+
+    private void append(String lines) {
+        try {
+            writeFully(channel, lines);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to notification journal " + path, e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, String lines) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.temporal.demos.helloworld.prewarm;
+
+import com.temporal.demos.helloworld.config.TemporalConfig;
+import com.temporal.demos.helloworld.models.PrewarmPlan;
+import com.temporal.demos.helloworld.workflows.PrewarmWorkflow;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.temporal.api.enums.v1.ScheduleOverlapPolicy;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.schedules.Schedule;
+import io.temporal.client.schedules.ScheduleActionStartWorkflow;
+import io.temporal.client.schedules.ScheduleAlreadyRunningException;
+import io.temporal.client.schedules.ScheduleClient;
+import io.temporal.client.schedules.ScheduleException;
+import io.temporal.client.schedules.ScheduleIntervalSpec;
+import io.temporal.client.schedules.ScheduleOptions;
+import io.temporal.client.schedules.SchedulePolicy;
+import io.temporal.client.schedules.ScheduleSpec;
+import io.temporal.client.schedules.ScheduleUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Temporal Schedule that starts a {@link PrewarmWorkflow} for the
+ * configured hot users every interval. Runs never overlap: one that comes
+ * due while the previous one is still running is skipped.
+ *
+ * Workers create the schedule, or update it to the current configuration,
+ * before they start polling ({@link com.temporal.demos.helloworld.config.WorkerLifecycle});
+ * with no hot users configured it is deleted. The API asks for an extra run
+ * through {@link #refresh} when it serves a stale result.
+ */
+@Component
+public class PrewarmSchedule {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrewarmSchedule.class);
+
+    public static final String SCHEDULE_ID = "orchestration-prewarm";
+    // Runs get this ID followed by their scheduled time
+    public static final String WORKFLOW_ID = "prewarm-orchestrations";
+
+    private static final long MIN_REFRESH_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ScheduleClient scheduleClient;
+    private final List<String> hotUsers;
+    private final Duration interval;
+
+    private final AtomicLong lastRefreshNanos = new AtomicLong(System.nanoTime() - MIN_REFRESH_INTERVAL_NANOS);
+    private volatile boolean upToDate;
+
+    public PrewarmSchedule(ScheduleClient scheduleClient,
+            @Value("${orchestration.prewarm.hot-users:}") List<String> hotUsers,
+            @Value("${orchestration.prewarm.interval:10m}") Duration interval) {
+        this.scheduleClient = scheduleClient;
+        this.hotUsers = hotUsers.stream().map(String::trim).filter(userId -> !userId.isEmpty()).distinct().toList();
+        this.interval = interval;
+    }
+
+    /**
+     * Creates or updates the schedule; a no-op once done. The first run
+     * starts right away when the schedule is created. Servers without
+     * schedules (the test server, for one) only get a warning.
+     *
+     * @throws ScheduleException if the frontend is unreachable or refuses the
+     *                           schedule for another reason
+     */
+    public void createOrUpdate() {
+        if (upToDate) {
+            return;
+        }
+        try {
+            if (hotUsers.isEmpty()) {
+                deleteIfPresent();
+            } else {
+                Schedule schedule = schedule();
+                try {
+                    scheduleClient.createSchedule(SCHEDULE_ID, schedule, ScheduleOptions.newBuilder()
+                            .setTriggerImmediately(true)
+                            .build());
+                    logger.info("Created schedule {}: pre-warm {} every {}", SCHEDULE_ID, hotUsers, interval);
+                } catch (ScheduleAlreadyRunningException e) {
+                    scheduleClient.getHandle(SCHEDULE_ID).update(input -> new ScheduleUpdate(schedule));
+                    logger.info("Updated schedule {}: pre-warm {} every {}", SCHEDULE_ID, hotUsers, interval);
+                }
+            }
+        } catch (ScheduleException e) {
+            Status.Code code = statusCode(e);
+            if (code != Status.Code.UNIMPLEMENTED && code != Status.Code.PERMISSION_DENIED) {
+                throw e;
+            }
+            logger.warn("Cannot manage schedule {} ({}); hot users will not be pre-warmed", SCHEDULE_ID, code);
+        }
+        upToDate = true;
+    }
+
+    /**
+     * Starts a pre-warm run now, unless one is running or a refresh was asked
+     * for within the last minute. Returns without waiting for the request.
+     */
+    public void refresh() {
+        long last = lastRefreshNanos.get();
+        long now = System.nanoTime();
+        if (hotUsers.isEmpty() || now - last < MIN_REFRESH_INTERVAL_NANOS
+                || !lastRefreshNanos.compareAndSet(last, now)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> scheduleClient.getHandle(SCHEDULE_ID)
+                .trigger(ScheduleOverlapPolicy.SCHEDULE_OVERLAP_POLICY_SKIP))
+                .exceptionally(e -> {
+                    logger.debug("Could not trigger schedule {}: {}", SCHEDULE_ID, e.getMessage());
+                    return null;
+                });
+    }
+
+    private Schedule schedule() {
+        return Schedule.newBuilder()
+                .setAction(ScheduleActionStartWorkflow.newBuilder()
+                        .setWorkflowType(PrewarmWorkflow.class)
+                        .setArguments(new PrewarmPlan(hotUsers))
+                        .setOptions(WorkflowOptions.newBuilder()
+                                .setWorkflowId(WORKFLOW_ID)
+                                .setTaskQueue(TemporalConfig.TASK_QUEUE)
+                                .build())
+                        .build())
+                .setSpec(ScheduleSpec.newBuilder()
+                        .setIntervals(List.of(new ScheduleIntervalSpec(interval)))
+                        .build())
+                .setPolicy(SchedulePolicy.newBuilder()
+                        .setOverlap(ScheduleOverlapPolicy.SCHEDULE_OVERLAP_POLICY_SKIP)
+                        // After an outage, a run missed within the last interval still starts; older ones don't
+                        .setCatchupWindow(interval)
+                        .build())
+                .build();
+    }
+
+    private void deleteIfPresent() {
+        try {
+            scheduleClient.getHandle(SCHEDULE_ID).delete();
+            logger.info("Deleted schedule {}: no hot users configured", SCHEDULE_ID);
+        } catch (ScheduleException e) {
+            if (statusCode(e) != Status.Code.NOT_FOUND) {
+                throw e;
+            }
+        }
+    }
+
+    private static Status.Code statusCode(ScheduleException e) {
+        return e.getCause() instanceof StatusRuntimeException status ? status.getStatus().getCode() : null;
+    }
+}
@@ -0,0 +1,169 @@
+package com.temporal.demos.helloworld.prewarm;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.temporal.demos.helloworld.models.PrewarmedResult;
+import com.temporal.demos.helloworld.models.PrewarmedResults;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The latest pre-warmed orchestration result of each hot user, kept in one
+ * file. Workers save each pre-warm run's results; the sync endpoint serves
+ * them. Works in any process that can see the file, so API-only instances
+ * can serve results when it is on a volume shared with the workers.
+ *
+ * A result is fresh for fresh-for after its orchestration completed and is
+ * served as is. After that it is stale, and is still served until it is
+ * max-staleness old, while the caller asks for a refresh. Older results are
+ * not served, and are dropped the next time the file is written.
+ *
+ * The file is replaced atomically on every save, and reread on lookup once
+ * its modification time changes, so a lookup is one stat call and a map
+ * read.
+ */
+@Component
+public class PrewarmedResultStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrewarmedResultStore.class);
+
+    public enum Freshness {
+        FRESH,
+        STALE
+    }
+
+    /**
+     * A result that may be served, with its age when it was looked up.
+     */
+    public record Hit(PrewarmedResult result, Freshness freshness, long ageMillis) {
+    }
+
+    private record Snapshot(FileTime modified, Map<String, PrewarmedResult> results) {
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(null, Collections.emptyMap());
+
+    private final Path path;
+    private final long freshForMillis;
+    private final long maxStalenessMillis;
+
+    private volatile Snapshot snapshot = EMPTY;
+
+    private final Counter fresh;
+    private final Counter stale;
+    private final Counter misses;
+
+    public PrewarmedResultStore(@Value("${orchestration.prewarm.store-path:data/prewarmed-results}") String path,
+            @Value("${orchestration.prewarm.fresh-for:15m}") Duration freshFor,
+            @Value("${orchestration.prewarm.max-staleness:1h}") Duration maxStaleness,
+            MeterRegistry meterRegistry) {
+        this.path = Path.of(path);
+        this.freshForMillis = freshFor.toMillis();
+        this.maxStalenessMillis = Math.max(maxStaleness.toMillis(), freshForMillis);
+        String name = "orchestration.prewarm.lookups";
+        fresh = meterRegistry.counter(name, "result", "fresh");
+        stale = meterRegistry.counter(name, "result", "stale");
+        misses = meterRegistry.counter(name, "result", "miss");
+    }
+
+    /**
+     * The result to serve for userId, or null if there is none or it is older
+     * than max-staleness.
+     */
+    public Hit find(String userId) {
+        PrewarmedResult result = current().results().get(userId);
+        long ageMillis = result == null ? 0 : System.currentTimeMillis() - result.getCompletedMillis();
+        if (result == null || ageMillis > maxStalenessMillis) {
+            misses.increment();
+            return null;
+        }
+        if (ageMillis <= freshForMillis) {
+            fresh.increment();
+            return new Hit(result, Freshness.FRESH, ageMillis);
+        }
+        stale.increment();
+        return new Hit(result, Freshness.STALE, ageMillis);
+    }
+
+    /**
+     * Adds a pre-warm run's results, replacing older results of the same
+     * users, and writes the file. Saves from one process are serialized;
+     * the pre-warm schedule never runs two pre-warms at once, so neither are
+     * saves across workers.
+     */
+    public synchronized void save(PrewarmedResults results) throws IOException {
+        long oldestServable = System.currentTimeMillis() - maxStalenessMillis;
+        Map<String, PrewarmedResult> merged = new LinkedHashMap<>();
+        for (PrewarmedResult result : current().results().values()) {
+            if (result.getCompletedMillis() >= oldestServable) {
+                merged.put(result.getUserId(), result);
+            }
+        }
+        for (PrewarmedResult result : results.getResults()) {
+            merged.merge(result.getUserId(), result, (existing, added) ->
+                    added.getCompletedMillis() >= existing.getCompletedMillis() ? added : existing);
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path written = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(written, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC)) {
+            CodedOutputStream output = CodedOutputStream.newInstance(out);
+            new PrewarmedResults(new ArrayList<>(merged.values())).writeTo(output);
+            output.flush();
+        }
+        Files.move(written, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        snapshot = new Snapshot(Files.getLastModifiedTime(path), merged);
+    }
+
+    private Snapshot current() {
+        Snapshot loaded = snapshot;
+        FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(path);
+        } catch (NoSuchFileException e) {
+            return EMPTY;
+        } catch (IOException e) {
+            logger.warn("Cannot read pre-warmed results {}, serving the last ones read: {}", path, e.getMessage());
+            return loaded;
+        }
+        if (modified.equals(loaded.modified())) {
+            return loaded;
+        }
+        try {
+            PrewarmedResults stored = new PrewarmedResults();
+            stored.mergeFrom(CodedInputStream.newInstance(Files.readAllBytes(path)));
+            Map<String, PrewarmedResult> results = new LinkedHashMap<>();
+            for (PrewarmedResult result : stored.getResults()) {
+                results.put(result.getUserId(), result);
+            }
+            // Concurrent lookups may both reread the file; either snapshot is current
+            Snapshot reread = new Snapshot(modified, results);
+            snapshot = reread;
+            return reread;
+        } catch (IOException e) {
+            logger.warn("Cannot read pre-warmed results {}, serving the last ones read: {}", path, e.getMessage());
+            return loaded;
+        }
+    }
+}
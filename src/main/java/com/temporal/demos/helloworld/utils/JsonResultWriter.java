@@ -0,0 +1,175 @@
+package com.temporal.demos.helloworld.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Minimal streaming JSON writer used to assemble service and orchestration
+ * results without String.format or intermediate collections.
+ *
+ * Each thread reuses one writer (and its buffer), so after the first result
+ * the buffer is already large enough and assembling a result allocates only
+ * the final String. A writer is not reentrant: finish one document before
+ * asking for the writer again on the same thread.
+ */
+public final class JsonResultWriter {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Larger buffers are dropped on reset so pooled workflow threads don't pin them
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<JsonResultWriter> WRITERS = ThreadLocal.withInitial(JsonResultWriter::new);
+
+    private StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+    private boolean needsSeparator;
+
+    private JsonResultWriter() {
+    }
+
+    /**
+     * Returns this thread's writer, emptied and ready for a new document.
+     */
+    public static JsonResultWriter forCurrentThread() {
+        JsonResultWriter writer = WRITERS.get();
+        writer.reset();
+        return writer;
+    }
+
+    private void reset() {
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = new StringBuilder(INITIAL_CAPACITY);
+        } else {
+            buffer.setLength(0);
+        }
+        needsSeparator = false;
+    }
+
+    public JsonResultWriter beginObject() {
+        separator();
+        buffer.append('{');
+        needsSeparator = false;
+        return this;
+    }
+
+    public JsonResultWriter endObject() {
+        buffer.append('}');
+        needsSeparator = true;
+        return this;
+    }
+
+    public JsonResultWriter beginArray() {
+        separator();
+        buffer.append('[');
+        needsSeparator = false;
+        return this;
+    }
+
+    public JsonResultWriter endArray() {
+        buffer.append(']');
+        needsSeparator = true;
+        return this;
+    }
+
+    public JsonResultWriter name(String name) {
+        separator();
+        appendQuoted(name);
+        buffer.append(':');
+        needsSeparator = false;
+        return this;
+    }
+
+    public JsonResultWriter value(String value) {
+        separator();
+        if (value == null) {
+            buffer.append("null");
+        } else {
+            appendQuoted(value);
+        }
+        needsSeparator = true;
+        return this;
+    }
+
+    public JsonResultWriter value(long value) {
+        separator();
+        buffer.append(value);
+        needsSeparator = true;
+        return this;
+    }
+
+    public JsonResultWriter value(boolean value) {
+        separator();
+        buffer.append(value);
+        needsSeparator = true;
+        return this;
+    }
+
+    /**
+     * Writes a decimal with a fixed number of fraction digits, rounding half
+     * up from the shortest decimal that represents the double, as
+     * String.format("%.2f") does. Unlike String.format this does not depend
+     * on the default locale, and never writes a negative zero.
+     */
+    public JsonResultWriter value(double value, int fractionDigits) {
+        separator();
+        needsSeparator = true;
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            buffer.append("null");
+            return this;
+        }
+        buffer.append(BigDecimal.valueOf(value).setScale(fractionDigits, RoundingMode.HALF_UP).toPlainString());
+        return this;
+    }
+
+    public JsonResultWriter field(String name, String value) {
+        return name(name).value(value);
+    }
+
+    public JsonResultWriter field(String name, long value) {
+        return name(name).value(value);
+    }
+
+    public JsonResultWriter field(String name, boolean value) {
+        return name(name).value(value);
+    }
+
+    public JsonResultWriter field(String name, double value, int fractionDigits) {
+        return name(name).value(value, fractionDigits);
+    }
+
+    public String toJson() {
+        return buffer.toString();
+    }
+
+    private void separator() {
+        if (needsSeparator) {
+            buffer.append(',');
+        }
+    }
+
+    private void appendQuoted(String value) {
+        buffer.append('"');
+        int runStart = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            buffer.append(value, runStart, i);
+            switch (c) {
+                case '"' -> buffer.append("\\\"");
+                case '\\' -> buffer.append("\\\\");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                case '\t' -> buffer.append("\\t");
+                default -> buffer.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            }
+            runStart = i + 1;
+        }
+        buffer.append(value, runStart, length);
+        buffer.append('"');
+    }
+}
@@ -0,0 +1,46 @@
+package com.temporal.demos.helloworld.utils;
+
+import com.temporal.demos.helloworld.models.DegradedServiceResult;
+import com.temporal.demos.helloworld.models.ServiceResult;
+
+/**
+ * Builds the JSON document returned by the orchestration workflow. Services
+ * that gave no result in a partial-results orchestration are also listed in
+ * degradedServices, which is left out when every service succeeded.
+ */
+public class OrchestrationResults {
+
+    public static String compile(String userId, boolean useAsyncPayment, ServiceResult... results) {
+        JsonResultWriter writer = JsonResultWriter.forCurrentThread();
+        writer.beginObject()
+                .name("orchestrationResult").beginObject()
+                .field("userId", userId)
+                .field("totalServices", results.length)
+                .field("paymentMode", useAsyncPayment ? "async" : "sync")
+                .name("services").beginArray();
+
+        for (ServiceResult result : results) {
+            result.writeJson(writer);
+        }
+
+        writer.endArray();
+
+        boolean degraded = false;
+        for (ServiceResult result : results) {
+            if (result instanceof DegradedServiceResult) {
+                if (!degraded) {
+                    writer.name("degradedServices").beginArray();
+                    degraded = true;
+                }
+                writer.value(result.getService());
+            }
+        }
+        if (degraded) {
+            writer.endArray();
+        }
+
+        writer.endObject()
+                .endObject();
+        return writer.toJson();
+    }
+}
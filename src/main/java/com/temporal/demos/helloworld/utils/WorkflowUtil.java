@@ -1,17 +1,46 @@
 package com.temporal.demos.helloworld.utils;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import io.grpc.Status;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.api.common.v1.Payloads;
 import io.temporal.api.common.v1.WorkflowExecution;
 import io.temporal.api.enums.v1.WorkflowExecutionStatus;
+import io.temporal.api.history.v1.WorkflowExecutionStartedEventAttributes;
+import io.temporal.api.workflow.v1.WorkflowExecutionInfo;
 import io.temporal.api.workflowservice.v1.DescribeWorkflowExecutionRequest;
 import io.temporal.api.workflowservice.v1.DescribeWorkflowExecutionResponse;
+import io.temporal.api.workflowservice.v1.GetWorkflowExecutionHistoryRequest;
+import io.temporal.api.workflowservice.v1.GetWorkflowExecutionHistoryResponse;
+import io.temporal.api.workflowservice.v1.ListWorkflowExecutionsRequest;
+import io.temporal.api.workflowservice.v1.ListWorkflowExecutionsResponse;
+import io.temporal.client.UpdateOptions;
 import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowNotFoundException;
 import io.temporal.client.WorkflowStub;
+import io.temporal.client.WorkflowUpdateException;
+import io.temporal.client.WorkflowUpdateTimeoutOrCancelledException;
+import io.temporal.common.SearchAttributeKey;
+import io.temporal.common.converter.DefaultDataConverter;
+import io.temporal.failure.ApplicationFailure;
 import io.temporal.serviceclient.WorkflowServiceStubs;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
@@ -54,26 +83,10 @@ public class WorkflowUtil {
                     .describeWorkflowExecution(request);
 
             // Get workflow execution info
-            var workflowExecutionInfo = response.getWorkflowExecutionInfo();
+            WorkflowExecutionInfo workflowExecutionInfo = response.getWorkflowExecutionInfo();
             WorkflowExecutionStatus executionStatus = workflowExecutionInfo.getStatus();
 
-            Map<String, Object> statusResponse = new HashMap<>();
-            statusResponse.put("workflowId", workflowId);
-            statusResponse.put("executionStatus", executionStatus.name());
-            statusResponse.put("workflowType", workflowExecutionInfo.getType().getName());
-
-            // Add timing information
-            if (workflowExecutionInfo.hasStartTime()) {
-                statusResponse.put("startTime", Instant.ofEpochSecond(
-                        workflowExecutionInfo.getStartTime().getSeconds(),
-                        workflowExecutionInfo.getStartTime().getNanos()).toString());
-            }
-
-            if (workflowExecutionInfo.hasCloseTime()) {
-                statusResponse.put("closeTime", Instant.ofEpochSecond(
-                        workflowExecutionInfo.getCloseTime().getSeconds(),
-                        workflowExecutionInfo.getCloseTime().getNanos()).toString());
-            }
+            Map<String, Object> statusResponse = buildExecutionInfo(workflowId, workflowExecutionInfo);
 
             // Handle running workflows with custom handler if provided
             if (executionStatus == WorkflowExecutionStatus.WORKFLOW_EXECUTION_STATUS_RUNNING
@@ -176,26 +189,10 @@ public class WorkflowUtil {
                     .describeWorkflowExecution(request);
 
             // Get workflow execution info
-            var workflowExecutionInfo = response.getWorkflowExecutionInfo();
+            WorkflowExecutionInfo workflowExecutionInfo = response.getWorkflowExecutionInfo();
             WorkflowExecutionStatus executionStatus = workflowExecutionInfo.getStatus();
 
-            Map<String, Object> resultResponse = new HashMap<>();
-            resultResponse.put("workflowId", workflowId);
-            resultResponse.put("executionStatus", executionStatus.name());
-            resultResponse.put("workflowType", workflowExecutionInfo.getType().getName());
-
-            // Add timing information
-            if (workflowExecutionInfo.hasStartTime()) {
-                resultResponse.put("startTime", Instant.ofEpochSecond(
-                        workflowExecutionInfo.getStartTime().getSeconds(),
-                        workflowExecutionInfo.getStartTime().getNanos()).toString());
-            }
-
-            if (workflowExecutionInfo.hasCloseTime()) {
-                resultResponse.put("closeTime", Instant.ofEpochSecond(
-                        workflowExecutionInfo.getCloseTime().getSeconds(),
-                        workflowExecutionInfo.getCloseTime().getNanos()).toString());
-            }
+            Map<String, Object> resultResponse = buildExecutionInfo(workflowId, workflowExecutionInfo);
 
             // If workflow is completed, get the result
             if (executionStatus == WorkflowExecutionStatus.WORKFLOW_EXECUTION_STATUS_COMPLETED) {
@@ -264,4 +261,272 @@ public class WorkflowUtil {
             String workflowId) {
         return getWorkflowResult(workflowClient, workflowId, null);
     }
+
+    /**
+     * Requests cancellation of a running workflow. The workflow decides how to
+     * wind down; its running activities are cancelled and stop at their next
+     * heartbeat.
+     * 
+     * @param workflowClient The Temporal workflow client
+     * @param workflowId     The workflow ID to cancel
+     * @return ResponseEntity with the cancellation request status
+     */
+    public static ResponseEntity<Map<String, Object>> cancelWorkflow(
+            WorkflowClient workflowClient,
+            String workflowId) {
+
+        try {
+            workflowClient.newUntypedWorkflowStub(workflowId).cancel();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("workflowId", workflowId);
+            response.put("status", "CANCEL_REQUESTED");
+            return ResponseEntity.ok(response);
+
+        } catch (WorkflowNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to cancel workflow: " + e.getMessage());
+            errorResponse.put("workflowId", workflowId);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    /**
+     * Runs the same update on many workflows, with at most
+     * {@code parallelism} updates in flight, and waits for all of them. Each
+     * workflow's validator and handler run as for a single update, so a
+     * workflow that turns the update away says so in its outcome.
+     *
+     * @param workflowClient The Temporal workflow client
+     * @param workflowIds    Workflows to update (current runs)
+     * @param options        Update options; wait for stage COMPLETED so each
+     *                       outcome carries the result
+     * @param parallelism    Maximum updates in flight at once
+     * @param resultHandler  Adds the fields of an update's result to its
+     *                       outcome
+     * @param args           Update arguments
+     * @return One outcome per workflow ID, in input order: workflowId and
+     *         status (COMPLETED, REJECTED by the validator, NOT_FOUND for
+     *         unknown or closed workflows, FAILED otherwise) plus error for
+     *         failures
+     * @throws InterruptedException if interrupted while waiting; updates
+     *                              already accepted are not rolled back
+     */
+    public static <R> List<Map<String, Object>> updateWorkflows(
+            WorkflowClient workflowClient,
+            List<String> workflowIds,
+            UpdateOptions<R> options,
+            int parallelism,
+            BiConsumer<Map<String, Object>, R> resultHandler,
+            Object... args) throws InterruptedException {
+
+        // Update calls block until the update completes, so each one in flight holds a thread
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism,
+                workflowIds.size())));
+        try {
+            List<Map<String, Object>> outcomes = new ArrayList<>(workflowIds.size());
+            List<CompletableFuture<Void>> updates = new ArrayList<>(workflowIds.size());
+            for (String workflowId : workflowIds) {
+                Map<String, Object> outcome = new LinkedHashMap<>();
+                outcome.put("workflowId", workflowId);
+                outcomes.add(outcome);
+                updates.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        R result = workflowClient.newUntypedWorkflowStub(workflowId)
+                                .startUpdate(options, args)
+                                .getResultAsync()
+                                .join();
+                        outcome.put("status", "COMPLETED");
+                        resultHandler.accept(outcome, result);
+                    } catch (RuntimeException e) {
+                        Throwable failure = e instanceof CompletionException ? e.getCause() : e;
+                        HttpStatus status = updateFailureStatus(failure);
+                        outcome.put("status", status == HttpStatus.NOT_FOUND ? "NOT_FOUND"
+                                : status == HttpStatus.CONFLICT ? "REJECTED" : "FAILED");
+                        outcome.put("error", updateFailureMessage(failure));
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(updates.toArray(new CompletableFuture<?>[0])).get();
+            return outcomes;
+        } catch (ExecutionException e) {
+            // Every failure is caught into its outcome
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The HTTP status for a failed update call: 404 for an unknown or closed
+     * workflow, 409 when the workflow's validator rejected the update, 400
+     * when the frontend found the request malformed, 503 when the update or
+     * the frontend could not answer in time and may be retried, and 500
+     * otherwise.
+     *
+     * @param failure What the update call threw (unwrapped from any
+     *                ExecutionException)
+     */
+    public static HttpStatus updateFailureStatus(Throwable failure) {
+        if (failure instanceof WorkflowNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (failure instanceof WorkflowUpdateException && failure.getCause() instanceof ApplicationFailure) {
+            return HttpStatus.CONFLICT;
+        }
+        if (failure instanceof WorkflowUpdateTimeoutOrCancelledException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        switch (Status.fromThrowable(failure).getCode()) {
+            case NOT_FOUND:
+                return HttpStatus.NOT_FOUND;
+            case INVALID_ARGUMENT:
+                return HttpStatus.BAD_REQUEST;
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+            case RESOURCE_EXHAUSTED:
+            case CANCELLED:
+                return HttpStatus.SERVICE_UNAVAILABLE;
+            default:
+                return HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+    }
+
+    /**
+     * The validator's own message for a rejected update, otherwise the
+     * failure's message.
+     */
+    public static String updateFailureMessage(Throwable failure) {
+        if (failure instanceof WorkflowNotFoundException) {
+            return "Workflow not found or already closed";
+        }
+        if (failure instanceof WorkflowUpdateException
+                && failure.getCause() instanceof ApplicationFailure rejection) {
+            return rejection.getOriginalMessage();
+        }
+        return failure.getMessage();
+    }
+
+    /**
+     * Builds the response fields shared by the status and result endpoints:
+     * workflowId, executionStatus, workflowType and, when set, startTime and
+     * closeTime.
+     *
+     * @param workflowId            The workflow ID being described
+     * @param workflowExecutionInfo Execution info from the describe response
+     * @return Mutable response map, sized for the endpoint-specific fields
+     *         added afterwards
+     */
+    public static Map<String, Object> buildExecutionInfo(String workflowId,
+            WorkflowExecutionInfo workflowExecutionInfo) {
+        Map<String, Object> response = new HashMap<>(16);
+        response.put("workflowId", workflowId);
+        response.put("executionStatus", workflowExecutionInfo.getStatus().name());
+        response.put("workflowType", workflowExecutionInfo.getType().getName());
+
+        // Add timing information
+        if (workflowExecutionInfo.hasStartTime()) {
+            response.put("startTime", toInstant(workflowExecutionInfo.getStartTime()).toString());
+        }
+
+        if (workflowExecutionInfo.hasCloseTime()) {
+            response.put("closeTime", toInstant(workflowExecutionInfo.getCloseTime()).toString());
+        }
+        return response;
+    }
+
+    /**
+     * Reads the leading workflow method arguments as the workflow's first run
+     * received them, from the first event of that run's history. Continued
+     * runs are followed back to the first one, so arguments a workflow stops
+     * passing on when it continues as new can still be read. Needs no
+     * worker, unlike a query.
+     *
+     * @param workflowClient The Temporal workflow client; its data converter
+     *                       decodes the arguments
+     * @param workflowId     The workflow ID (current run)
+     * @param types          Types of the first types.length arguments
+     * @return One decoded argument per type; null where the run was started
+     *         without it
+     */
+    public static Object[] getFirstRunArguments(
+            WorkflowClient workflowClient,
+            String workflowId,
+            Class<?>... types) {
+        WorkflowExecutionStartedEventAttributes started = getStartedEvent(workflowClient, workflowId, "");
+        // Every run names the first one; older servers only link to the previous run
+        while (!started.getContinuedExecutionRunId().isEmpty()) {
+            String runId = started.getFirstExecutionRunId().isEmpty()
+                    ? started.getContinuedExecutionRunId()
+                    : started.getFirstExecutionRunId();
+            started = getStartedEvent(workflowClient, workflowId, runId);
+        }
+        Object[] arguments = new Object[types.length];
+        if (started.hasInput()) {
+            Optional<Payloads> input = Optional.of(started.getInput());
+            for (int i = 0; i < types.length; i++) {
+                arguments[i] = workflowClient.getOptions().getDataConverter()
+                        .fromPayloads(i, input, types[i], types[i]);
+            }
+        }
+        return arguments;
+    }
+
+    private static WorkflowExecutionStartedEventAttributes getStartedEvent(WorkflowClient workflowClient,
+            String workflowId, String runId) {
+        GetWorkflowExecutionHistoryResponse history = workflowClient.getWorkflowServiceStubs().blockingStub()
+                .getWorkflowExecutionHistory(GetWorkflowExecutionHistoryRequest.newBuilder()
+                        .setNamespace(workflowClient.getOptions().getNamespace())
+                        .setExecution(WorkflowExecution.newBuilder().setWorkflowId(workflowId).setRunId(runId))
+                        .setMaximumPageSize(1)
+                        .build());
+        return history.getHistory().getEvents(0).getWorkflowExecutionStartedEventAttributes();
+    }
+
+    /**
+     * Lists one page of executions matching a visibility query, in a single
+     * RPC regardless of how many workflows match.
+     *
+     * @param workflowClient The Temporal workflow client
+     * @param query          Visibility list filter, e.g.
+     *                       "WorkflowType = 'ApprovalWorkflow'"
+     * @param pageSize       Maximum executions to return
+     * @param pageToken      Token from the previous page, or empty for the
+     *                       first page
+     * @return The page, with the token for the next one (empty when done)
+     */
+    public static ListWorkflowExecutionsResponse listWorkflows(
+            WorkflowClient workflowClient,
+            String query,
+            int pageSize,
+            ByteString pageToken) {
+        return workflowClient.getWorkflowServiceStubs().blockingStub()
+                .listWorkflowExecutions(ListWorkflowExecutionsRequest.newBuilder()
+                        .setNamespace(workflowClient.getOptions().getNamespace())
+                        .setQuery(query)
+                        .setPageSize(pageSize)
+                        .setNextPageToken(pageToken)
+                        .build());
+    }
+
+    /**
+     * Reads a keyword or datetime search attribute from a list or describe
+     * result, as its string form.
+     *
+     * @return The value, or null when the execution doesn't have it
+     */
+    public static String getSearchAttribute(WorkflowExecutionInfo workflowExecutionInfo,
+            SearchAttributeKey<?> key) {
+        Payload payload = workflowExecutionInfo.getSearchAttributes().getIndexedFieldsMap().get(key.getName());
+        if (payload == null) {
+            return null;
+        }
+        return DefaultDataConverter.STANDARD_INSTANCE.fromPayload(payload, String.class, String.class);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
+    }
 }
\ No newline at end of file
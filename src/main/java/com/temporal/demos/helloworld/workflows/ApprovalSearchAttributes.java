@@ -0,0 +1,35 @@
+package com.temporal.demos.helloworld.workflows;
+
+import io.temporal.common.SearchAttributeKey;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Custom search attributes that {@link ApprovalWorkflowImpl} keeps up to date
+ * at every state change, so pending approvals can be listed with a single
+ * visibility query instead of querying each workflow.
+ *
+ * They must exist on the namespace before a worker runs the workflow; the
+ * worker registers any missing ones before it starts polling.
+ */
+public final class ApprovalSearchAttributes {
+
+    /** An {@link ApprovalStatus} name. */
+    public static final SearchAttributeKey<String> APPROVAL_STATUS = SearchAttributeKey.forKeyword("ApprovalStatus");
+
+    /** The {@link ApprovalStep} the workflow is in, such as AWAITING_APPROVAL. */
+    public static final SearchAttributeKey<String> CURRENT_STEP = SearchAttributeKey.forKeyword("CurrentStep");
+
+    public static final SearchAttributeKey<String> REQUESTER_EMAIL = SearchAttributeKey.forKeyword("RequesterEmail");
+
+    /** When the request started waiting for an approver's decision. */
+    public static final SearchAttributeKey<OffsetDateTime> WAITING_SINCE =
+            SearchAttributeKey.forOffsetDateTime("WaitingSince");
+
+    public static final List<SearchAttributeKey<?>> ALL =
+            List.of(APPROVAL_STATUS, CURRENT_STEP, REQUESTER_EMAIL, WAITING_SINCE);
+
+    private ApprovalSearchAttributes() {
+    }
+}
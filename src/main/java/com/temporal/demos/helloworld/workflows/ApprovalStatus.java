@@ -0,0 +1,14 @@
+package com.temporal.demos.helloworld.workflows;
+
+/**
+ * Outcome of an approval, PENDING until it is decided, times out or is
+ * cancelled. Queries and the ApprovalStatus search attribute report the
+ * constant's name.
+ */
+public enum ApprovalStatus {
+    PENDING,
+    APPROVED,
+    REJECTED,
+    TIMEOUT,
+    CANCELLED
+}
@@ -0,0 +1,18 @@
+package com.temporal.demos.helloworld.workflows;
+
+/**
+ * The steps an approval moves through. Queries and the CurrentStep search
+ * attribute report the constant's name.
+ */
+public enum ApprovalStep {
+    SUBMITTED,
+    VALIDATING,
+    REJECTED_VALIDATION,
+    AWAITING_APPROVAL,
+    ESCALATED,
+    APPROVED,
+    REJECTED,
+    TIMEOUT,
+    CANCELLED,
+    COMPLETED
+}
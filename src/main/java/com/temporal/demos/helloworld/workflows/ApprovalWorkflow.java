@@ -1,25 +1,60 @@
 package com.temporal.demos.helloworld.workflows;
 
+import com.temporal.demos.helloworld.models.ApprovalPolicy;
+import com.temporal.demos.helloworld.models.ApprovalProgress;
+import com.temporal.demos.helloworld.models.ApprovalVote;
+import com.temporal.demos.helloworld.models.ApprovalVoteResult;
 import io.temporal.workflow.QueryMethod;
 import io.temporal.workflow.SignalMethod;
+import io.temporal.workflow.UpdateMethod;
+import io.temporal.workflow.UpdateValidatorMethod;
 import io.temporal.workflow.WorkflowInterface;
 import io.temporal.workflow.WorkflowMethod;
 
 @WorkflowInterface
 public interface ApprovalWorkflow {
 
+    /**
+     * @param policy   quorum, reminder, escalation and timeout rules; null
+     *                 for the defaults
+     * @param progress null when starting; set by the workflow itself when it
+     *                 continues as new during a long wait
+     */
     @WorkflowMethod
-    String processApprovalRequest(String requestId, String requestType, String requestDetails, String requesterEmail);
+    String processApprovalRequest(String requestId, String requestType, String requestDetails, String requesterEmail,
+            ApprovalPolicy policy, ApprovalProgress progress);
 
+    /**
+     * Counts one approver's vote and returns the request's state after it.
+     * Each approver votes once; resending the same vote returns the current
+     * state without counting it again.
+     */
+    @UpdateMethod
+    ApprovalVoteResult decide(ApprovalVote vote);
+
+    /**
+     * Turns away, before anything is written to history, votes from
+     * approvers outside the quorum, second votes that differ from the
+     * first, and votes on a request that is no longer pending.
+     */
+    @UpdateValidatorMethod(updateName = "decide")
+    void validateDecide(ApprovalVote vote);
+
+    /** Same as a {@link #decide} approval without an idempotency key; nothing is returned. */
     @SignalMethod
     void approve(String approverEmail, String comments);
 
+    /** Same as a {@link #decide} rejection without an idempotency key; nothing is returned. */
     @SignalMethod
     void reject(String approverEmail, String reason);
 
     @QueryMethod
     String getApprovalStatus();
 
+    /**
+     * Request ID, type and requester. The details text is not kept by a
+     * waiting workflow; read it from the ApprovalDetailsStore instead.
+     */
     @QueryMethod
     String getRequestDetails();
 
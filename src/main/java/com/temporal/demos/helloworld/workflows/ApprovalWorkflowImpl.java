@@ -1,76 +1,171 @@
 package com.temporal.demos.helloworld.workflows;
 
 import com.temporal.demos.helloworld.activities.ApprovalActivities;
+import com.temporal.demos.helloworld.models.ApprovalPolicy;
+import com.temporal.demos.helloworld.models.ApprovalProgress;
+import com.temporal.demos.helloworld.models.ApprovalVote;
+import com.temporal.demos.helloworld.models.ApprovalVoteResult;
 import io.temporal.activity.ActivityOptions;
+import io.temporal.failure.ActivityFailure;
+import io.temporal.failure.CanceledFailure;
+import io.temporal.failure.TemporalFailure;
+import io.temporal.workflow.CancellationScope;
 import io.temporal.workflow.Workflow;
 import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
+/**
+ * Validates an access request, then waits for an approver's decision while
+ * sending reminders, escalating to the second approver tier and finally
+ * timing out on the {@link ApprovalPolicy} schedule.
+ *
+ * Each run waits on a single durable timer. When it fires without a
+ * decision, the run sends the reminder or escalation and continues as new
+ * with its {@link ApprovalProgress}, so a request that waits for days keeps
+ * a history of one wait, and replaying it after a sticky cache eviction
+ * costs the same on day three as on day one.
+ *
+ * The first run continues as new as soon as the approvers are notified, so
+ * the run that waits never receives the request details; notifyApprovers
+ * saves them to the ApprovalDetailsStore, where activities that need them
+ * read them. What a parked approval
+ * keeps in the sticky cache is a few identifiers, enum-coded state and the
+ * votes cast so far.
+ *
+ * Approvers vote through the {@code decide} update, which answers with the
+ * request's state, or through the older approve/reject signals. Votes are
+ * counted once per approver against the policy's quorum; a repeated
+ * vote is answered without being counted, and the validator turns away
+ * invalid ones before they reach history.
+ */
 public class ApprovalWorkflowImpl implements ApprovalWorkflow {
 
-    private static final Logger logger = LoggerFactory.getLogger(ApprovalWorkflowImpl.class);
+    // Replay-aware: skips logging while history is replayed into a fresh instance
+    private static final Logger logger = Workflow.getLogger(ApprovalWorkflowImpl.class);
+
+    private static final ApprovalPolicy DEFAULT_POLICY = new ApprovalPolicy(
+            Duration.ofHours(4).getSeconds(), Duration.ofHours(12).getSeconds(), Duration.ofHours(24).getSeconds());
 
     private final ApprovalActivities activities = Workflow.newActivityStub(
             ApprovalActivities.class,
             ActivityOptions.newBuilder()
                     .setStartToCloseTimeout(Duration.ofMinutes(5))
+                    // Lets a cancelled request stop its running activity within seconds
+                    .setHeartbeatTimeout(Duration.ofSeconds(5))
                     .setRetryOptions(
                             io.temporal.common.RetryOptions.newBuilder()
                                     .setMaximumAttempts(3)
                                     .build())
                     .build());
 
-    // Simplified workflow state
-    private String approvalStatus = "PENDING";
-    private String currentStep = "SUBMITTED";
+    private ApprovalStatus approvalStatus = ApprovalStatus.PENDING;
+    private ApprovalStep currentStep = ApprovalStep.SUBMITTED;
     private String requestId;
-    private String requestDetails;
+    private String requestType;
     private String requesterEmail;
-    private String approverEmail;
-    private String approvalComments;
-    private String rejectionReason;
-    private Instant requestStartTime;
+    private long requestStartMillis;
     private boolean approvalReceived = false;
     private boolean rejectionReceived = false;
+    // False for requests started before the search attributes existed; they replay without upserts
+    private boolean indexed;
+    private ApprovalPolicy policy;
+    private ApprovalProgress progress;
+    // Keyed by normalised approver email, in the order the votes were counted
+    private final Map<String, ApprovalVote> votes = new LinkedHashMap<>();
+    private int approvals;
+    private int rejections;
 
     @Override
     public String processApprovalRequest(String requestId, String requestType, String requestDetails,
-            String requesterEmail) {
+            String requesterEmail, ApprovalPolicy policy, ApprovalProgress progress) {
         this.requestId = requestId;
-        this.requestDetails = requestDetails;
+        // One shared copy of the few request types across all cached approvals
+        this.requestType = requestType != null ? requestType.intern() : null;
         this.requesterEmail = requesterEmail;
-        this.requestStartTime = Instant.ofEpochMilli(Workflow.currentTimeMillis());
+        this.policy = policy != null ? policy : DEFAULT_POLICY;
+        this.progress = progress;
+        if (progress != null) {
+            progress.getVotes().forEach(this::count);
+        }
+        this.requestStartMillis = progress != null ? progress.getRequestStartMillis() : Workflow.currentTimeMillis();
+        this.indexed = Workflow.getVersion(WorkflowVersions.APPROVAL_SEARCH_ATTRIBUTES, Workflow.DEFAULT_VERSION, 1) == 1;
+        if (indexed && progress == null) {
+            Workflow.upsertTypedSearchAttributes(
+                    ApprovalSearchAttributes.REQUESTER_EMAIL.valueSet(requesterEmail));
+        }
 
-        logger.info("Starting approval process for access request: {}", requestId);
+        try {
+            if (progress != null) {
+                resumeWaiting();
+                return awaitDecision();
+            }
+            logger.info("Starting approval process for access request: {}", requestId);
+            return runApprovalProcess(requestDetails);
+        } catch (TemporalFailure e) {
+            // Cancellation surfaces as CanceledFailure from await/timers and as an
+            // ActivityFailure from a running activity
+            if (!CancellationScope.current().isCancelRequested()) {
+                throw e;
+            }
+            setState(ApprovalStep.CANCELLED, ApprovalStatus.CANCELLED);
+            // The workflow's own scope is cancelled; notify from a detached one so it still runs
+            Workflow.newDetachedCancellationScope(() -> activities.notifyRequester(requesterEmail,
+                    "Access request " + requestId + " was cancelled")).run();
+            throw e instanceof CanceledFailure ? e : new CanceledFailure("Access request cancelled");
+        }
+    }
 
+    private String runApprovalProcess(String requestDetails) {
         // Step 1: Validate request
-        currentStep = "VALIDATING";
+        setState(ApprovalStep.VALIDATING, approvalStatus);
         String validationResult = activities.validateRequest(requestId, requestDetails);
 
         if (!"VALID".equals(validationResult)) {
-            currentStep = "REJECTED_VALIDATION";
-            approvalStatus = "REJECTED";
+            setState(ApprovalStep.REJECTED_VALIDATION, ApprovalStatus.REJECTED);
             activities.notifyRequester(requesterEmail, "Request validation failed: " + validationResult);
             return "Request rejected during validation: " + validationResult;
         }
 
         // Step 2: Notify approvers
-        currentStep = "AWAITING_APPROVAL";
+        setState(ApprovalStep.AWAITING_APPROVAL, approvalStatus);
+        if (indexed) {
+            Workflow.upsertTypedSearchAttributes(ApprovalSearchAttributes.WAITING_SINCE.valueSet(
+                    OffsetDateTime.ofInstant(Instant.ofEpochMilli(Workflow.currentTimeMillis()), ZoneOffset.UTC)));
+        }
         activities.notifyApprovers(requestId, requestDetails, requesterEmail);
 
-        // Step 3: Wait for approval/rejection (24 hour timeout)
+        // Step 3: Wait for approval/rejection, reminding and escalating on the way
         logger.info("Waiting for approval decision for request: {}", requestId);
+        if (Workflow.getVersion(WorkflowVersions.APPROVAL_ESCALATION, Workflow.DEFAULT_VERSION, 1) == 1) {
+            long now = Workflow.currentTimeMillis();
+            progress = new ApprovalProgress(requestStartMillis, now, 1, 0, new ArrayList<>(votes.values()));
+            // Wait in a run that never had the details; this one still holds them as its arguments
+            if (Workflow.getVersion(WorkflowVersions.APPROVAL_SLIM_STATE, Workflow.DEFAULT_VERSION, 1) == 1
+                    && !approvalReceived && !rejectionReceived) {
+                Workflow.continueAsNew(requestId, requestType, null, requesterEmail, policy, progress);
+            }
+            return awaitDecision();
+        }
+
+        // Requests started before escalation existed keep their single 24 hour wait
 
         boolean decisionReceived = Workflow.await(
                 Duration.ofHours(24),
                 () -> approvalReceived || rejectionReceived);
 
         if (!decisionReceived) {
-            currentStep = "TIMEOUT";
-            approvalStatus = "TIMEOUT";
+            setState(ApprovalStep.TIMEOUT, ApprovalStatus.TIMEOUT);
             activities.notifyRequester(requesterEmail, "Request timed out after 24 hours without approval");
             return "Request timed out after 24 hours";
         }
@@ -85,69 +180,288 @@ public class ApprovalWorkflowImpl implements ApprovalWorkflow {
         return "Unexpected workflow state";
     }
 
+    /**
+     * The timeout in the words timeout messages have always used: the
+     * default policy gives "24 hours".
+     */
+    private static String describeWait(long seconds) {
+        if (seconds % 3600 == 0) {
+            return seconds / 3600 + (seconds == 3600 ? " hour" : " hours");
+        }
+        if (seconds % 60 == 0) {
+            return seconds / 60 + (seconds == 60 ? " minute" : " minutes");
+        }
+        return seconds + (seconds == 1 ? " second" : " seconds");
+    }
+
+    /**
+     * Restores the waiting state in a continued run. Whether search
+     * attributes survive continue-as-new depends on the server (the test
+     * server drops them), so they are set again in one upsert.
+     */
+    private void resumeWaiting() {
+        currentStep = progress.getTier() == 1 ? ApprovalStep.AWAITING_APPROVAL : ApprovalStep.ESCALATED;
+        if (indexed) {
+            Workflow.upsertTypedSearchAttributes(
+                    ApprovalSearchAttributes.REQUESTER_EMAIL.valueSet(requesterEmail),
+                    ApprovalSearchAttributes.CURRENT_STEP.valueSet(currentStep.name()),
+                    ApprovalSearchAttributes.APPROVAL_STATUS.valueSet(approvalStatus.name()),
+                    ApprovalSearchAttributes.WAITING_SINCE.valueSet(OffsetDateTime.ofInstant(
+                            Instant.ofEpochMilli(progress.getWaitingSinceMillis()), ZoneOffset.UTC)));
+        }
+    }
+
+    /**
+     * Waits until the next reminder, escalation or the timeout, whichever
+     * comes first. A decision ends the wait; otherwise this run handles what
+     * was due and continues as new.
+     */
+    private String awaitDecision() {
+        long waitingSince = progress.getWaitingSinceMillis();
+        int tier = progress.getTier();
+        int remindersSent = progress.getRemindersSent();
+        long reminderIntervalMillis = policy.getReminderIntervalSeconds() * 1000;
+        long timeoutAt = waitingSince + policy.getTimeoutSeconds() * 1000;
+        long escalateAt = tier == 1 && policy.getEscalateAfterSeconds() > 0
+                ? waitingSince + policy.getEscalateAfterSeconds() * 1000
+                : Long.MAX_VALUE;
+        long remindAt = reminderIntervalMillis > 0
+                ? waitingSince + (remindersSent + 1) * reminderIntervalMillis
+                : Long.MAX_VALUE;
+
+        long wakeAt = Math.min(timeoutAt, Math.min(escalateAt, remindAt));
+        boolean decided = Workflow.await(Duration.ofMillis(Math.max(0, wakeAt - Workflow.currentTimeMillis())),
+                () -> approvalReceived || rejectionReceived);
+
+        long now = Workflow.currentTimeMillis();
+        long waitingSeconds = (now - waitingSince) / 1000;
+        if (!decided && now >= timeoutAt) {
+            setState(ApprovalStep.TIMEOUT, ApprovalStatus.TIMEOUT);
+            String waited = describeWait(policy.getTimeoutSeconds());
+            activities.notifyRequester(requesterEmail, "Request timed out after " + waited + " without approval");
+            return "Request timed out after " + waited;
+        }
+        if (!decided && now >= escalateAt) {
+            tier = 2;
+            setState(ApprovalStep.ESCALATED, approvalStatus);
+            // The escalation notice stands in for any reminder due at the same time
+            if (reminderIntervalMillis > 0) {
+                remindersSent = (int) Math.max(remindersSent, (now - waitingSince) / reminderIntervalMillis);
+            }
+            notifyBestEffort(() -> activities.escalateRequest(requestId, null, requesterEmail, waitingSeconds));
+        } else if (!decided) {
+            remindersSent++;
+            int remindedTier = tier;
+            notifyBestEffort(() -> activities.remindApprovers(requestId, null, remindedTier, waitingSeconds));
+        }
+
+        // A decision may also have arrived while the reminder was being sent
+        if (approvalReceived) {
+            return processApproval();
+        } else if (rejectionReceived) {
+            return processRejection();
+        }
+        Workflow.continueAsNew(requestId, requestType, null, requesterEmail, policy,
+                new ApprovalProgress(requestStartMillis, waitingSince, tier, remindersSent,
+                        new ArrayList<>(votes.values())));
+        return "Continued as new";
+    }
+
+    /**
+     * Reminders and escalation notices are not worth failing the request
+     * over once their retries run out; cancellation still propagates.
+     */
+    private void notifyBestEffort(Runnable notification) {
+        try {
+            notification.run();
+        } catch (ActivityFailure e) {
+            if (CancellationScope.current().isCancelRequested()) {
+                throw e;
+            }
+            logger.warn("Approver notification for request {} failed: {}", requestId, e.getMessage());
+        }
+    }
+
+    @Override
+    public ApprovalVoteResult decide(ApprovalVote vote) {
+        boolean duplicate = votes.containsKey(voterKey(vote.getApproverEmail()));
+        if (duplicate) {
+            logger.info("Repeated vote from {} for request {} not counted again", vote.getApproverEmail(), requestId);
+        } else {
+            logger.info("{} received from {} for request {}", vote.isApprove() ? "Approval" : "Rejection",
+                    vote.getApproverEmail(), requestId);
+            count(vote);
+        }
+        ApprovalStatus status = approvalReceived ? ApprovalStatus.APPROVED
+                : rejectionReceived ? ApprovalStatus.REJECTED
+                : approvalStatus;
+        return new ApprovalVoteResult(status.name(), currentStep.name(), approvals, rejections, requiredApprovals(),
+                duplicate);
+    }
+
+    @Override
+    public void validateDecide(ApprovalVote vote) {
+        String problem = voteProblem(vote);
+        if (problem != null) {
+            throw new IllegalArgumentException(problem);
+        }
+    }
+
     @Override
     public void approve(String approverEmail, String comments) {
-        logger.info("Approval received from: {} for request: {}", approverEmail, requestId);
-        this.approverEmail = approverEmail;
-        this.approvalComments = comments != null ? comments : "No comments provided";
-        this.approvalReceived = true;
+        castBySignal(new ApprovalVote(approverEmail, true, comments, null));
     }
 
     @Override
     public void reject(String approverEmail, String reason) {
-        logger.info("Rejection received from: {} for request: {}", approverEmail, requestId);
-        this.approverEmail = approverEmail;
-        this.rejectionReason = reason != null ? reason : "No reason provided";
-        this.rejectionReceived = true;
+        castBySignal(new ApprovalVote(approverEmail, false, reason, null));
+    }
+
+    /**
+     * Signals cannot be turned away, so a vote the update validator would
+     * reject, or a repeat, is logged and dropped.
+     */
+    private void castBySignal(ApprovalVote vote) {
+        String problem = voteProblem(vote);
+        if (problem == null && !votes.containsKey(voterKey(vote.getApproverEmail()))) {
+            logger.info("{} received from {} for request {}", vote.isApprove() ? "Approval" : "Rejection",
+                    vote.getApproverEmail(), requestId);
+            count(vote);
+        } else {
+            logger.info("Vote signal from {} for request {} ignored: {}", vote.getApproverEmail(), requestId,
+                    problem != null ? problem : "already counted");
+        }
+    }
+
+    /**
+     * Why a vote cannot be counted, or null if it can. A resent vote (same
+     * approver and idempotency key) is fine: it is answered, not counted.
+     */
+    private String voteProblem(ApprovalVote vote) {
+        if (vote == null || vote.getApproverEmail() == null || vote.getApproverEmail().isBlank()) {
+            return "approverEmail is required";
+        }
+        ApprovalVote previous = votes.get(voterKey(vote.getApproverEmail()));
+        if (previous != null) {
+            return Objects.equals(previous.getIdempotencyKey(), vote.getIdempotencyKey())
+                    ? null
+                    : vote.getApproverEmail() + " already voted to " + (previous.isApprove() ? "approve" : "reject");
+        }
+        if (approvalReceived || rejectionReceived || approvalStatus != ApprovalStatus.PENDING) {
+            return "Request " + requestId + " is no longer pending";
+        }
+        if (!policy.getApprovers().isEmpty() && policy.getApprovers().stream()
+                .noneMatch(approver -> voterKey(approver).equals(voterKey(vote.getApproverEmail())))) {
+            return vote.getApproverEmail() + " is not an approver for request " + requestId;
+        }
+        return null;
+    }
+
+    /**
+     * Records a vote and checks the quorum. With a closed approver list the
+     * request is rejected once the approvers left cannot reach it; otherwise
+     * one rejection is enough.
+     */
+    private void count(ApprovalVote vote) {
+        String note = vote.getNote() != null
+                ? vote.getNote()
+                : vote.isApprove() ? "No comments provided" : "No reason provided";
+        votes.put(voterKey(vote.getApproverEmail()),
+                new ApprovalVote(vote.getApproverEmail(), vote.isApprove(), note, vote.getIdempotencyKey()));
+        if (vote.isApprove()) {
+            approvals++;
+        } else {
+            rejections++;
+        }
+        int maxRejections = policy.getApprovers().isEmpty() ? 0 : policy.getApprovers().size() - requiredApprovals();
+        approvalReceived = approvals >= requiredApprovals();
+        rejectionReceived = !approvalReceived && rejections > maxRejections;
+    }
+
+    private int requiredApprovals() {
+        return Math.max(1, policy.getRequiredApprovals());
+    }
+
+    private static String voterKey(String approverEmail) {
+        return approverEmail.trim().toLowerCase(Locale.ROOT);
     }
 
     private String processApproval() {
-        currentStep = "APPROVED";
-        approvalStatus = "APPROVED";
+        setState(ApprovalStep.APPROVED, ApprovalStatus.APPROVED);
+        List<ApprovalVote> approving = votesCast(true);
+        String approvers = approverNames(approving);
+        String comments = approving.get(approving.size() - 1).getNote();
 
-        String executionResult = activities.executeApprovedAction(requestId, requestDetails);
+        String executionResult = activities.executeApprovedAction(requestId, null);
 
         activities.notifyRequester(requesterEmail,
-                String.format("Access request approved by %s. Comments: %s", approverEmail, approvalComments));
-        activities.logApprovalDecision(requestId, "APPROVED", approverEmail, approvalComments);
+                String.format("Access request approved by %s. Comments: %s", approvers, comments));
+        for (ApprovalVote vote : approving) {
+            activities.logApprovalDecision(requestId, "APPROVED", vote.getApproverEmail(), vote.getNote());
+        }
 
-        currentStep = "COMPLETED";
-        return String.format("Access request approved by %s. Result: %s", approverEmail, executionResult);
+        setState(ApprovalStep.COMPLETED, approvalStatus);
+        return String.format("Access request approved by %s. Result: %s", approvers, executionResult);
     }
 
     private String processRejection() {
-        currentStep = "REJECTED";
-        approvalStatus = "REJECTED";
+        setState(ApprovalStep.REJECTED, ApprovalStatus.REJECTED);
+        List<ApprovalVote> rejecting = votesCast(false);
+        String approvers = approverNames(rejecting);
+        String reason = rejecting.get(rejecting.size() - 1).getNote();
 
         activities.notifyRequester(requesterEmail,
-                String.format("Access request rejected by %s. Reason: %s", approverEmail, rejectionReason));
-        activities.logApprovalDecision(requestId, "REJECTED", approverEmail, rejectionReason);
+                String.format("Access request rejected by %s. Reason: %s", approvers, reason));
+        for (ApprovalVote vote : rejecting) {
+            activities.logApprovalDecision(requestId, "REJECTED", vote.getApproverEmail(), vote.getNote());
+        }
+
+        setState(ApprovalStep.COMPLETED, approvalStatus);
+        return String.format("Access request rejected by %s. Reason: %s", approvers, reason);
+    }
+
+    private List<ApprovalVote> votesCast(boolean approve) {
+        return votes.values().stream().filter(vote -> vote.isApprove() == approve).collect(Collectors.toList());
+    }
+
+    private static String approverNames(List<ApprovalVote> votes) {
+        return votes.stream().map(ApprovalVote::getApproverEmail).collect(Collectors.joining(", "));
+    }
 
-        currentStep = "COMPLETED";
-        return String.format("Access request rejected by %s. Reason: %s", approverEmail, rejectionReason);
+    /**
+     * Updates the queryable state and, for indexed requests, the matching
+     * search attributes.
+     */
+    private void setState(ApprovalStep step, ApprovalStatus status) {
+        currentStep = step;
+        approvalStatus = status;
+        if (indexed) {
+            Workflow.upsertTypedSearchAttributes(
+                    ApprovalSearchAttributes.CURRENT_STEP.valueSet(step.name()),
+                    ApprovalSearchAttributes.APPROVAL_STATUS.valueSet(status.name()));
+        }
     }
 
     @Override
     public String getApprovalStatus() {
-        return approvalStatus;
+        return approvalStatus.name();
     }
 
     @Override
     public String getRequestDetails() {
-        return String.format("Request ID: %s, Type: ACCESS_REQUEST, Details: %s, Requester: %s",
-                requestId, requestDetails, requesterEmail);
+        return "Request ID: " + requestId + ", Type: " + requestType + ", Requester: " + requesterEmail;
     }
 
     @Override
     public String getCurrentStep() {
-        return currentStep;
+        return currentStep.name();
     }
 
     @Override
     public long getWaitingTimeInSeconds() {
-        if (requestStartTime == null) {
+        if (requestStartMillis == 0) {
             return 0;
         }
-        return Duration.between(requestStartTime, Instant.ofEpochMilli(Workflow.currentTimeMillis())).getSeconds();
+        return (Workflow.currentTimeMillis() - requestStartMillis) / 1000;
     }
 }
\ No newline at end of file
@@ -1,11 +1,20 @@
 package com.temporal.demos.helloworld.workflows;
 
+import com.temporal.demos.helloworld.models.OrchestrationProgress;
+import com.temporal.demos.helloworld.models.PartialResultsPolicy;
 import io.temporal.workflow.WorkflowInterface;
 import io.temporal.workflow.WorkflowMethod;
 
 @WorkflowInterface
 public interface OrchestrationWorkflow {
 
+    /**
+     * @param progress       null when started; set by the workflow itself when
+     *                       a long payment wait makes it continue as new
+     * @param partialResults latency budgets of the optional services, or null
+     *                       to require every service
+     */
     @WorkflowMethod
-    String orchestrateExternalApiCalls(String userId, boolean useAsyncPayment);
+    String orchestrateExternalApiCalls(String userId, boolean useAsyncPayment, OrchestrationProgress progress,
+            PartialResultsPolicy partialResults);
 }
\ No newline at end of file
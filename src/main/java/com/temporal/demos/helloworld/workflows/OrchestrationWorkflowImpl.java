@@ -1,21 +1,53 @@
 package com.temporal.demos.helloworld.workflows;
 
 import com.temporal.demos.helloworld.activities.ExternalApiActivities;
+import com.temporal.demos.helloworld.models.DegradedServiceResult;
+import com.temporal.demos.helloworld.models.NotificationServiceResult;
+import com.temporal.demos.helloworld.models.OrchestrationProgress;
+import com.temporal.demos.helloworld.models.OrderServiceResult;
+import com.temporal.demos.helloworld.models.PartialResultsPolicy;
+import com.temporal.demos.helloworld.models.PaymentInitiationResult;
+import com.temporal.demos.helloworld.models.PaymentStatusResult;
+import com.temporal.demos.helloworld.models.RecommendationServiceResult;
+import com.temporal.demos.helloworld.models.ServiceResult;
+import com.temporal.demos.helloworld.models.UserServiceResult;
+import com.temporal.demos.helloworld.utils.OrchestrationResults;
 import io.temporal.activity.ActivityOptions;
+import io.temporal.api.enums.v1.RetryState;
 import io.temporal.common.RetryOptions;
+import io.temporal.failure.ActivityFailure;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.failure.CanceledFailure;
+import io.temporal.failure.TimeoutFailure;
 import io.temporal.workflow.Async;
 import io.temporal.workflow.Promise;
 import io.temporal.workflow.Workflow;
+import io.temporal.workflow.WorkflowInfo;
 
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class OrchestrationWorkflowImpl implements OrchestrationWorkflow {
 
+        // Activities heartbeat while they wait; a missed heartbeat or a cancelled workflow
+        // stops them within a few seconds instead of after the start-to-close timeout
+        private static final Duration HEARTBEAT_TIMEOUT = Duration.ofSeconds(5);
+
+        // A payment still processing once a poll's retries run out is polled again after this, until the deadline
+        private static final Duration PAYMENT_POLL_INTERVAL = Duration.ofMinutes(1);
+        private static final Duration PAYMENT_DEADLINE = Duration.ofHours(24);
+
+        // History budget per run: a poll round adds about a dozen events and the last failure's stack trace, so a
+        // payment that takes hours continues as new a few times instead of replaying thousands of events
+        private static final int MAX_HISTORY_EVENTS = 1_000;
+        private static final long MAX_HISTORY_BYTES = 1024 * 1024;
+
         // Activity options with retry configuration
         private final ActivityOptions activityOptions = ActivityOptions.newBuilder()
                         .setStartToCloseTimeout(Duration.ofSeconds(45))
+                        .setHeartbeatTimeout(HEARTBEAT_TIMEOUT)
                         .setRetryOptions(RetryOptions.newBuilder()
                                         .setInitialInterval(Duration.ofSeconds(2))
                                         .setMaximumInterval(Duration.ofSeconds(30))
@@ -27,6 +59,7 @@ public class OrchestrationWorkflowImpl implements OrchestrationWorkflow {
         // Polling configuration for async payments
         private final ActivityOptions pollingActivityOptions = ActivityOptions.newBuilder()
                         .setStartToCloseTimeout(Duration.ofMinutes(5))
+                        .setHeartbeatTimeout(HEARTBEAT_TIMEOUT)
                         .setRetryOptions(RetryOptions.newBuilder()
                                         .setInitialInterval(Duration.ofSeconds(2))
                                         .setMaximumInterval(Duration.ofSeconds(30))
@@ -42,79 +75,203 @@ public class OrchestrationWorkflowImpl implements OrchestrationWorkflow {
                         pollingActivityOptions);
 
         @Override
-        public String orchestrateExternalApiCalls(String userId, boolean useAsyncPayment) {
-                Workflow.getLogger(OrchestrationWorkflowImpl.class).info(
-                                "Starting orchestration for user: {} (async payment: {})", userId, useAsyncPayment);
+        public String orchestrateExternalApiCalls(String userId, boolean useAsyncPayment,
+                        OrchestrationProgress progress, PartialResultsPolicy partialResults) {
+                OrchestrationProgress carried = progress != null ? progress : new OrchestrationProgress();
+                long startedMillis = carried.getStartedMillis() > 0
+                                ? carried.getStartedMillis()
+                                : Workflow.getInfo().getRunStartedTimestampMillis();
+                if (carried.getContinuedRuns() == 0) {
+                        Workflow.getLogger(OrchestrationWorkflowImpl.class).info(
+                                        "Starting orchestration for user: {} (async payment: {})", userId,
+                                        useAsyncPayment);
+                }
 
-                // Step 1: UserService (runs first)
-                String userServiceResult = activities.callUserService(userId);
+                // Order and notification only need the user ID, so they start alongside the user call;
+                // orchestrations started before this change start them once the user call returns
+                boolean parallelStart = Workflow.getVersion(WorkflowVersions.ORCHESTRATION_PARALLEL_START,
+                                Workflow.DEFAULT_VERSION, 1) == 1;
+                Promise<? extends ServiceResult> orderServicePromise = null;
+                Promise<? extends ServiceResult> notificationServicePromise = null;
+                if (parallelStart) {
+                        orderServicePromise = startOrderService(userId, carried, partialResults, startedMillis);
+                        notificationServicePromise = startNotificationService(userId, carried, partialResults,
+                                        startedMillis);
+                }
+
+                // Step 1: UserService
+                UserServiceResult userServiceResult = carried.getUserService() != null
+                                ? carried.getUserService()
+                                : activities.callUserService(userId);
 
                 // Step 2: Async Parallel services
-                Promise<String> orderServicePromise = Async.function(activities::callOrderService, userId);
-                Promise<String> notificationServicePromise = Async.function(activities::callNotificationService,
-                                userId);
+                if (!parallelStart) {
+                        orderServicePromise = startOrderService(userId, carried, partialResults, startedMillis);
+                        notificationServicePromise = startNotificationService(userId, carried, partialResults,
+                                        startedMillis);
+                }
 
                 // Step 3: PaymentService
-                String paymentServiceResult;
+                ServiceResult paymentServiceResult;
                 if (useAsyncPayment) {
                         // Async payment with polling, this can also be done with Promise and Async
                         // to demonstrate different patterns
-                        String paymentInitResult = activities.initiateAsyncPaymentProcess(userId, 150.75);
-                        String paymentId = extractPaymentId(paymentInitResult);
-                        paymentServiceResult = pollingActivities.pollPaymentStatus(paymentId);
+                        PaymentInitiationResult paymentInitResult = carried.getPaymentInitiation();
+                        long paymentInitiatedMillis = carried.getPaymentInitiatedMillis();
+                        if (paymentInitResult == null) {
+                                paymentInitResult = activities.initiateAsyncPaymentProcess(userId, 150.75);
+                                paymentInitiatedMillis = Workflow.currentTimeMillis();
+                        }
+                        paymentServiceResult = awaitPayment(userId, carried, partialResults, startedMillis,
+                                        userServiceResult, orderServicePromise, notificationServicePromise,
+                                        paymentInitResult, paymentInitiatedMillis);
                 } else {
                         // Synchronous payment
                         paymentServiceResult = activities.callPaymentService(userId);
                 }
 
                 // Step 4: Wait for parallel services to complete
-                String orderServiceResult = orderServicePromise.get();
-                String notificationServiceResult = notificationServicePromise.get();
+                ServiceResult orderServiceResult = orderServicePromise.get();
+                ServiceResult notificationServiceResult = notificationServicePromise.get();
 
                 // Step 5: RecommendationService - Starts after the parallel services complete.
-                String recommendationServiceResult = activities.callRecommendationService(userId);
+                ServiceResult recommendationServiceResult = callWithinBudget(RecommendationServiceResult.SERVICE,
+                                carried, partialResults, startedMillis,
+                                stub -> Async.function(stub::callRecommendationService, userId)).get();
 
                 Workflow.getLogger(OrchestrationWorkflowImpl.class).info("Orchestration completed for user: {}",
                                 userId);
 
-                return compileResults(userId, useAsyncPayment, userServiceResult, orderServiceResult,
+                return OrchestrationResults.compile(userId, useAsyncPayment, userServiceResult, orderServiceResult,
                                 paymentServiceResult, notificationServiceResult, recommendationServiceResult);
         }
 
-        private String compileResults(String userId, boolean useAsyncPayment, String userServiceResult,
-                        String orderServiceResult, String paymentServiceResult,
-                        String notificationServiceResult, String recommendationServiceResult) {
-                List<String> allResults = new ArrayList<>();
-                allResults.add(userServiceResult);
-                allResults.add(orderServiceResult);
-                allResults.add(paymentServiceResult);
-                allResults.add(notificationServiceResult);
-                allResults.add(recommendationServiceResult);
-
-                StringBuilder result = new StringBuilder();
-                result.append("{");
-                result.append("\"orchestrationResult\":{");
-                result.append("\"userId\":\"").append(userId).append("\",");
-                result.append("\"totalServices\":").append(allResults.size()).append(",");
-                result.append("\"paymentMode\":\"").append(useAsyncPayment ? "async" : "sync").append("\",");
-                result.append("\"services\":[");
-
-                for (int i = 0; i < allResults.size(); i++) {
-                        if (i > 0)
-                                result.append(",");
-                        result.append(allResults.get(i));
+        /**
+         * Polls until the payment settles. Each poll retries on its own for a few minutes; a payment still
+         * processing after that is polled again after PAYMENT_POLL_INTERVAL, until PAYMENT_DEADLINE. Those rounds
+         * are what grow the history, so once it passes the budget the workflow continues as new with everything
+         * finished so far, waiting for the parallel calls first because a new run can't inherit them.
+         */
+        private PaymentStatusResult awaitPayment(String userId, OrchestrationProgress carried,
+                        PartialResultsPolicy partialResults, long startedMillis, UserServiceResult userServiceResult,
+                        Promise<? extends ServiceResult> orderServicePromise,
+                        Promise<? extends ServiceResult> notificationServicePromise,
+                        PaymentInitiationResult paymentInitResult, long paymentInitiatedMillis) {
+                // Orchestrations started before poll rounds failed as soon as one poll gave up
+                boolean pollRounds = Workflow.getVersion(WorkflowVersions.ORCHESTRATION_HISTORY_GUARD,
+                                Workflow.DEFAULT_VERSION, 1) == 1;
+                int maxHistoryEvents = carried.getMaxHistoryEvents() > 0
+                                ? carried.getMaxHistoryEvents()
+                                : MAX_HISTORY_EVENTS;
+                long maxHistoryBytes = carried.getMaxHistoryBytes() > 0
+                                ? carried.getMaxHistoryBytes()
+                                : MAX_HISTORY_BYTES;
+                int rounds = carried.getPollRounds();
+                while (true) {
+                        try {
+                                return pollingActivities.pollPaymentStatus(paymentInitResult.getPaymentId());
+                        } catch (ActivityFailure e) {
+                                boolean stillProcessing = e.getCause() instanceof ApplicationFailure failure
+                                                && ExternalApiActivities.PAYMENT_STILL_PROCESSING
+                                                                .equals(failure.getType());
+                                long waitedMillis = Workflow.currentTimeMillis() - paymentInitiatedMillis;
+                                if (!pollRounds || !stillProcessing
+                                                || waitedMillis >= PAYMENT_DEADLINE.toMillis()) {
+                                        throw e;
+                                }
+                        }
+                        rounds++;
+                        Workflow.sleep(PAYMENT_POLL_INTERVAL);
+
+                        WorkflowInfo info = Workflow.getInfo();
+                        if (info.getHistoryLength() >= maxHistoryEvents || info.getHistorySize() >= maxHistoryBytes
+                                        || info.isContinueAsNewSuggested()) {
+                                Workflow.getLogger(OrchestrationWorkflowImpl.class).info(
+                                                "Payment {} still processing after {} poll rounds; continuing as new"
+                                                                + " at {} history events",
+                                                paymentInitResult.getPaymentId(), rounds, info.getHistoryLength());
+                                ServiceResult order = orderServicePromise.get();
+                                ServiceResult notification = notificationServicePromise.get();
+                                List<DegradedServiceResult> degraded = Stream.of(order, notification)
+                                                .filter(DegradedServiceResult.class::isInstance)
+                                                .map(DegradedServiceResult.class::cast)
+                                                .toList();
+                                Workflow.continueAsNew(userId, true, new OrchestrationProgress(userServiceResult,
+                                                order instanceof OrderServiceResult result ? result : null,
+                                                notification instanceof NotificationServiceResult result
+                                                                ? result
+                                                                : null,
+                                                degraded, paymentInitResult, paymentInitiatedMillis, startedMillis,
+                                                rounds, carried.getContinuedRuns() + 1,
+                                                carried.getMaxHistoryEvents(), carried.getMaxHistoryBytes()),
+                                                partialResults);
+                        }
                 }
+        }
+
+        private Promise<? extends ServiceResult> startOrderService(String userId, OrchestrationProgress carried,
+                        PartialResultsPolicy partialResults, long startedMillis) {
+                return carried.getOrderService() != null
+                                ? Workflow.newPromise(carried.getOrderService())
+                                : callWithinBudget(OrderServiceResult.SERVICE, carried, partialResults, startedMillis,
+                                                stub -> Async.function(stub::callOrderService, userId));
+        }
 
-                result.append("]}");
-                result.append("}");
+        private Promise<? extends ServiceResult> startNotificationService(String userId,
+                        OrchestrationProgress carried, PartialResultsPolicy partialResults, long startedMillis) {
+                return carried.getNotificationService() != null
+                                ? Workflow.newPromise(carried.getNotificationService())
+                                : callWithinBudget(NotificationServiceResult.SERVICE, carried, partialResults,
+                                                startedMillis,
+                                                stub -> Async.function(stub::callNotificationService, userId));
+        }
 
-                return result.toString();
+        /**
+         * Calls an optional service within its latency budget. Without partial results, or with a budget of 0,
+         * the service is required and is called with the usual retries. Otherwise its retries stop at the budget
+         * or the orchestration's deadline, whichever comes first, and a service that has not succeeded by then
+         * yields a DegradedServiceResult instead of failing the orchestration.
+         */
+        private Promise<? extends ServiceResult> callWithinBudget(String service, OrchestrationProgress carried,
+                        PartialResultsPolicy partialResults, long startedMillis,
+                        Function<ExternalApiActivities, Promise<? extends ServiceResult>> call) {
+                DegradedServiceResult carriedDegraded = carried.degraded(service);
+                if (carriedDegraded != null) {
+                        return Workflow.newPromise(carriedDegraded);
+                }
+                long budgetMillis = partialResults != null ? partialResults.budgetMillis(service) : 0;
+                if (budgetMillis <= 0) {
+                        return call.apply(activities);
+                }
+                long remainingMillis = budgetMillis;
+                if (partialResults.getDeadlineMillis() > 0) {
+                        long deadlineMillis = startedMillis + partialResults.getDeadlineMillis();
+                        remainingMillis = Math.min(budgetMillis, deadlineMillis - Workflow.currentTimeMillis());
+                }
+                if (remainingMillis <= 0) {
+                        return Workflow.newPromise(degraded(service, DegradedServiceResult.DEADLINE_PASSED));
+                }
+                ExternalApiActivities budgeted = Workflow.newActivityStub(ExternalApiActivities.class,
+                                ActivityOptions.newBuilder(activityOptions)
+                                                .setScheduleToCloseTimeout(Duration.ofMillis(remainingMillis))
+                                                .build());
+                return call.apply(budgeted).<ServiceResult>thenApply(result -> result).exceptionally(failure -> {
+                        // A cancelled orchestration stays cancelled
+                        if (!(failure instanceof ActivityFailure activityFailure)
+                                        || failure.getCause() instanceof CanceledFailure) {
+                                throw failure instanceof RuntimeException e ? e : new RuntimeException(failure);
+                        }
+                        // Retries that would overrun the budget end with the last failure and a TIMEOUT retry state
+                        boolean budgetExceeded = activityFailure.getRetryState() == RetryState.RETRY_STATE_TIMEOUT
+                                        || failure.getCause() instanceof TimeoutFailure;
+                        return degraded(service, budgetExceeded
+                                        ? DegradedServiceResult.BUDGET_EXCEEDED
+                                        : DegradedServiceResult.FAILED);
+                });
         }
 
-        private String extractPaymentId(String jsonResult) {
-                // Simple string parsing for demo purposes
-                int startIndex = jsonResult.indexOf("\"paymentId\":\"") + 13;
-                int endIndex = jsonResult.indexOf("\"", startIndex);
-                return jsonResult.substring(startIndex, endIndex);
+        private static DegradedServiceResult degraded(String service, String reason) {
+                Workflow.getLogger(OrchestrationWorkflowImpl.class).warn("{} degraded: {}", service, reason);
+                return new DegradedServiceResult(service, reason);
         }
-}
\ No newline at end of file
+}
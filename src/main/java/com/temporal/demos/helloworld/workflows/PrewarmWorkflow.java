@@ -0,0 +1,19 @@
+package com.temporal.demos.helloworld.workflows;
+
+import com.temporal.demos.helloworld.models.PrewarmPlan;
+import io.temporal.workflow.WorkflowInterface;
+import io.temporal.workflow.WorkflowMethod;
+
+/**
+ * Started by the pre-warm schedule: orchestrates every hot user and stores
+ * the results for the sync endpoint to serve.
+ */
+@WorkflowInterface
+public interface PrewarmWorkflow {
+
+    /**
+     * @return the number of users whose results were stored
+     */
+    @WorkflowMethod
+    int prewarm(PrewarmPlan plan);
+}
@@ -0,0 +1,70 @@
+package com.temporal.demos.helloworld.workflows;
+
+import com.temporal.demos.helloworld.activities.PrewarmActivities;
+import com.temporal.demos.helloworld.models.PrewarmPlan;
+import com.temporal.demos.helloworld.models.PrewarmedResult;
+import com.temporal.demos.helloworld.models.PrewarmedResults;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.workflow.Async;
+import io.temporal.workflow.ChildWorkflowOptions;
+import io.temporal.workflow.Promise;
+import io.temporal.workflow.Workflow;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs one orchestration per hot user as a child workflow, all at once. They
+ * use a sync payment, the lightest orchestration that produces a full
+ * result, and require every service, so a stored result can answer any
+ * sync request for that user. A user whose orchestration fails is left out
+ * and keeps its previous result.
+ */
+public class PrewarmWorkflowImpl implements PrewarmWorkflow {
+
+    private static final Logger logger = Workflow.getLogger(PrewarmWorkflowImpl.class);
+
+    private final PrewarmActivities activities = Workflow.newActivityStub(
+            PrewarmActivities.class,
+            ActivityOptions.newBuilder()
+                    .setStartToCloseTimeout(Duration.ofSeconds(30))
+                    .build());
+
+    @Override
+    public int prewarm(PrewarmPlan plan) {
+        String workflowId = Workflow.getInfo().getWorkflowId();
+        List<Promise<PrewarmedResult>> orchestrations = new ArrayList<>();
+        for (String userId : plan.getUserIds()) {
+            String childId = workflowId + "-" + userId;
+            OrchestrationWorkflow orchestration = Workflow.newChildWorkflowStub(OrchestrationWorkflow.class,
+                    ChildWorkflowOptions.newBuilder()
+                            .setWorkflowId(childId)
+                            .build());
+            // Timestamped when the child completes, not when this loop gets to it
+            orchestrations.add(Async.function(orchestration::orchestrateExternalApiCalls, userId, false, null, null)
+                    .handle((result, failure) -> {
+                        if (failure != null) {
+                            logger.warn("Pre-warm orchestration for user {} failed: {}", userId,
+                                    failure.getMessage());
+                            return null;
+                        }
+                        return new PrewarmedResult(userId, childId, result, Workflow.currentTimeMillis());
+                    }));
+        }
+
+        List<PrewarmedResult> warmed = new ArrayList<>();
+        for (Promise<PrewarmedResult> orchestration : orchestrations) {
+            PrewarmedResult result = orchestration.get();
+            if (result != null) {
+                warmed.add(result);
+            }
+        }
+        if (!warmed.isEmpty()) {
+            activities.storePrewarmedResults(new PrewarmedResults(warmed));
+        }
+        logger.info("Pre-warmed {} of {} users", warmed.size(), plan.getUserIds().size());
+        return warmed.size();
+    }
+}
@@ -0,0 +1,33 @@
+package com.temporal.demos.helloworld.workflows;
+
+/**
+ * Change IDs passed to Workflow.getVersion, one per change to a workflow's
+ * sequence of commands. Executions started before a change replay its
+ * DEFAULT_VERSION branch; new ones record the marker and take the new one.
+ *
+ * To change the steps of a workflow: add an ID here, keep the old steps
+ * behind DEFAULT_VERSION, capture histories of the current code first
+ * (ReplayCompatibility --capture) and check that every captured history still
+ * replays. A branch can be removed once no execution that took it is running
+ * and its captured histories are deleted.
+ */
+public final class WorkflowVersions {
+
+    /** Approvals keep ApprovalStatus, CurrentStep, RequesterEmail and WaitingSince up to date */
+    public static final String APPROVAL_SEARCH_ATTRIBUTES = "approval-search-attributes";
+
+    /** Approvals remind and escalate with one timer per run instead of one 24 hour wait */
+    public static final String APPROVAL_ESCALATION = "approval-escalation";
+
+    /** Approvals continue as new once their approvers are notified, so waiting runs hold no details */
+    public static final String APPROVAL_SLIM_STATE = "approval-slim-state";
+
+    /** Orchestrations poll a still-processing payment again in rounds instead of failing */
+    public static final String ORCHESTRATION_HISTORY_GUARD = "orchestration-history-guard";
+
+    /** Orchestrations start the order and notification calls alongside the user call */
+    public static final String ORCHESTRATION_PARALLEL_START = "orchestration-parallel-start";
+
+    private WorkflowVersions() {
+    }
+}
@@ -0,0 +1,128 @@
+package com.temporal.demos.helloworld.activities;
+
+import com.temporal.demos.helloworld.approvals.ApprovalDetailsStore;
+import com.temporal.demos.helloworld.audit.AuditLog;
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.models.ApprovalPolicy;
+import com.temporal.demos.helloworld.notifications.Notification;
+import com.temporal.demos.helloworld.notifications.NotificationDigester;
+import com.temporal.demos.helloworld.workflows.ApprovalSearchAttributes;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflow;
+import com.temporal.demos.helloworld.workflows.ApprovalWorkflowImpl;
+import io.grpc.Status;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.testing.TestActivityEnvironment;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs an approval to its timeout through a reminder and an escalation
+ * while its first run can no longer be read, as once the namespace's
+ * retention has deleted it: the notices must still carry the request's
+ * details, read from the ApprovalDetailsStore. Timers are fast-forwarded by
+ * the in-process test server.
+ */
+class ApprovalDetailsTest {
+
+    private static final String TASK_QUEUE = "approval-details-test";
+
+    private static final String DETAILS = "Read access to the billing reports";
+
+    @TempDir
+    Path directory;
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+
+    private ApprovalDetailsStore store;
+    private WorkflowClient deletedFirstRun;
+    private ApprovalActivitiesImpl activities;
+
+    @BeforeEach
+    void createActivities() throws InterruptedException {
+        NotificationDigester notifications = mock(NotificationDigester.class);
+        doAnswer(invocation -> {
+            List<Notification> queued = invocation.getArgument(0);
+            queued.forEach(notification -> messages.add(notification.getMessage()));
+            return null;
+        }).when(notifications).enqueueAll(anyList());
+        // Every history read fails the way it does for a run retention has deleted
+        deletedFirstRun = mock(WorkflowClient.class);
+        when(deletedFirstRun.getWorkflowServiceStubs()).thenThrow(Status.NOT_FOUND
+                .withDescription("Workflow execution not found").asRuntimeException());
+        store = new ApprovalDetailsStore(directory.toString(), Duration.ofDays(30));
+        activities = new ApprovalActivitiesImpl(notifications, List.of("approvers@company.com"),
+                List.of("approval-managers@company.com"), mock(AuditLog.class), store, deletedFirstRun);
+    }
+
+    @Test
+    void remindersAndEscalationCarryTheDetailsAfterTheFirstRunIsDeleted() throws Exception {
+        try (TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance(
+                TestEnvironmentOptions.newBuilder()
+                        .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                                .setDataConverter(CompactPayloadConverter.newDataConverter())
+                                .build())
+                        .build())) {
+            ApprovalSearchAttributes.ALL.forEach(key -> environment.registerSearchAttribute(key.getName(),
+                    key.getValueType()));
+            Worker worker = environment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(ApprovalWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            environment.start();
+
+            ApprovalWorkflow approval = environment.getWorkflowClient().newWorkflowStub(ApprovalWorkflow.class,
+                    WorkflowOptions.newBuilder()
+                            .setWorkflowId("approval-details-test")
+                            .setTaskQueue(TASK_QUEUE)
+                            .build());
+            String result = approval.processApprovalRequest("approval-details-test", "ACCESS_REQUEST", DETAILS,
+                    "requester@example.com", new ApprovalPolicy(Duration.ofHours(1).getSeconds(),
+                            Duration.ofHours(2).getSeconds(), Duration.ofHours(3).getSeconds()), null);
+
+            assertTrue(result.startsWith("Request timed out"), result);
+        }
+        assertEquals(DETAILS, store.find("approval-details-test"));
+        List<String> reminders = messages.stream().filter(message -> message.startsWith("REMINDER")).toList();
+        List<String> escalations = messages.stream().filter(message -> message.startsWith("ESCALATED")).toList();
+        assertTrue(!reminders.isEmpty() && !escalations.isEmpty(), "Notices sent: " + messages);
+        reminders.forEach(message -> assertTrue(message.endsWith(": " + DETAILS), message));
+        escalations.forEach(message -> assertTrue(message.contains("Details: " + DETAILS + ","), message));
+    }
+
+    @Test
+    void noticesGoOutWithoutDetailsNeitherSavedNorInTheFirstRun() throws Exception {
+        TestActivityEnvironment environment = TestActivityEnvironment.newInstance();
+        try {
+            environment.registerActivitiesImplementations(activities);
+            ApprovalActivities stub = environment.newActivityStub(ApprovalActivities.class);
+
+            // An approval notified before details were saved, whose first run is gone
+            stub.remindApprovers("approval-notified-before-the-store", null, 1, 3600);
+
+            assertEquals(1, messages.size(), "Notices sent: " + messages);
+            assertTrue(messages.get(0).endsWith(": (details unavailable)"), messages.get(0));
+            assertNull(store.find("test-workflow-id", deletedFirstRun));
+        } finally {
+            environment.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.temporal.demos.helloworld.config;
+
+import io.temporal.common.converter.CodecDataConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TemporalConfigTest {
+
+    private final Locale defaultLocale = Locale.getDefault();
+
+    @AfterEach
+    void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    void compressionAlgorithmIsReadTheSameInEveryLocale() {
+        // Upper-casing "gzip" in Turkish gives "GZİP", with a dotted capital I
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+
+        assertInstanceOf(CodecDataConverter.class, new TemporalConfig().dataConverter("compact", "gzip", 1024));
+        assertInstanceOf(CodecDataConverter.class, new TemporalConfig().dataConverter("compact", "Deflate", 1024));
+    }
+
+    @Test
+    void unknownCompressionAlgorithmNamesTheValidOnes() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new TemporalConfig().dataConverter("compact", "zstd", 1024));
+
+        assertEquals("Unknown temporal.payload.compression.algorithm 'zstd'; expected none or one of [deflate, gzip]",
+                e.getMessage());
+    }
+}
@@ -0,0 +1,92 @@
+package com.temporal.demos.helloworld.controllers;
+
+import com.temporal.demos.helloworld.admission.AdmissionControl;
+import com.temporal.demos.helloworld.config.WorkflowIdScheme;
+import com.temporal.demos.helloworld.models.OrchestrationRequest;
+import com.temporal.demos.helloworld.prewarm.PrewarmedResultStore;
+import com.temporal.demos.helloworld.workflows.OrchestrationWorkflow;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Workflow IDs of requests that carry neither an Idempotency-Key nor a
+ * request ID. Each stub answers with the user it was started for, so a
+ * request answered from another user's workflow shows up in its result.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrchestrationControllerTest {
+
+    @Mock
+    private WorkflowClient workflowClient;
+
+    @Mock
+    private AdmissionControl admissionControl;
+
+    @Mock
+    private PrewarmedResultStore prewarmedResults;
+
+    @Spy
+    private WorkflowIdScheme workflowIdScheme = new WorkflowIdScheme(new MockEnvironment());
+
+    @InjectMocks
+    private OrchestrationController controller;
+
+    @BeforeEach
+    void startWorkflowsInline() {
+        lenient().when(admissionControl.call(anyString(), any())).thenAnswer(
+                invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(workflowClient.newWorkflowStub(eq(OrchestrationWorkflow.class), any(WorkflowOptions.class)))
+                .thenAnswer(invocation -> {
+                    String workflowId = invocation.<WorkflowOptions>getArgument(1).getWorkflowId();
+                    return (OrchestrationWorkflow) (userId, useAsyncPayment, progress, partialResults) ->
+                            "{\"workflowId\":\"" + workflowId + "\",\"userId\":\"" + userId + "\"}";
+                });
+    }
+
+    @Test
+    void unkeyedSyncRequestsOfDifferentUsersGetTheirOwnWorkflows() {
+        Map<String, Object> alice = controller.executeOrchestrationSync(
+                new OrchestrationRequest("alice", false, null, false), null).getBody();
+        Map<String, Object> bob = controller.executeOrchestrationSync(
+                new OrchestrationRequest("bob", false, null, false), " ").getBody();
+
+        assertEquals("COMPLETED", alice.get("status"));
+        assertEquals("COMPLETED", bob.get("status"));
+        assertNotEquals(alice.get("workflowId"), bob.get("workflowId"));
+        assertTrue(alice.get("workflowId").toString().startsWith("orchestration-"));
+        assertFalse(alice.get("workflowId").toString().endsWith("null"), alice.get("workflowId").toString());
+        assertTrue(alice.get("result").toString().contains("\"userId\":\"alice\""), alice.get("result").toString());
+        assertTrue(bob.get("result").toString().contains("\"userId\":\"bob\""), bob.get("result").toString());
+    }
+
+    @Test
+    void unkeyedSyncRequestsOfTheSameUserAreNotMerged() {
+        OrchestrationRequest request = new OrchestrationRequest("alice", false, "", false);
+
+        Object first = controller.executeOrchestrationSync(request, null).getBody().get("workflowId");
+        Object second = controller.executeOrchestrationSync(request, null).getBody().get("workflowId");
+
+        assertNotEquals(first, second);
+    }
+}
@@ -0,0 +1,76 @@
+package com.temporal.demos.helloworld.models;
+
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.JacksonJsonPayloadConverter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Decodes activity results the way orchestrations recorded them before
+ * results were typed: the result object as a JSON string, in a json/plain
+ * payload.
+ */
+class LegacyServiceResultsTest {
+
+    private final DataConverter converter = CompactPayloadConverter.newDataConverter();
+
+    @Test
+    void readsServiceResultsRecordedAsJsonStrings() {
+        UserServiceResult user = decode("{\"service\":\"UserService\",\"userId\":\"u1\",\"name\":\"John Doe\","
+                + "\"email\":\"john.doe@example.com\"}", UserServiceResult.class);
+        assertEquals("u1", user.getUserId());
+        assertEquals("John Doe", user.getName());
+        assertEquals("john.doe@example.com", user.getEmail());
+
+        OrderServiceResult order = decode("{\"service\":\"OrderService\",\"userId\":\"u1\",\"totalOrders\":5,"
+                + "\"totalAmount\":1250.50}", OrderServiceResult.class);
+        assertEquals(5, order.getTotalOrders());
+        assertEquals(1250.50, order.getTotalAmount());
+
+        PaymentServiceResult payment = decode("{\"service\":\"PaymentService\",\"userId\":\"u1\","
+                + "\"defaultMethod\":\"**** 1234\",\"creditScore\":750}", PaymentServiceResult.class);
+        assertEquals("**** 1234", payment.getDefaultMethod());
+        assertEquals(750, payment.getCreditScore());
+
+        NotificationServiceResult notification = decode("{\"service\":\"NotificationService\",\"userId\":\"u1\","
+                + "\"unreadCount\":3}", NotificationServiceResult.class);
+        assertEquals(3, notification.getUnreadCount());
+
+        RecommendationServiceResult recommendation = decode("{\"service\":\"RecommendationService\","
+                + "\"userId\":\"u1\",\"recommendations\":[\"Product A\",\"Product B\"]}",
+                RecommendationServiceResult.class);
+        assertEquals(List.of("Product A", "Product B"), recommendation.getRecommendations());
+    }
+
+    @Test
+    void readsAsyncPaymentResultsRecordedAsJsonStrings() {
+        PaymentInitiationResult initiation = decode("{\"service\":\"AsyncPaymentService\","
+                + "\"paymentId\":\"payment-1\",\"userId\":\"u1\",\"amount\":150.75,\"status\":\"INITIATED\"}",
+                PaymentInitiationResult.class);
+        assertEquals("payment-1", initiation.getPaymentId());
+        assertEquals(150.75, initiation.getAmount());
+        assertEquals("INITIATED", initiation.getStatus());
+
+        PaymentStatusResult completed = decode("{\"service\":\"AsyncPaymentService-Poll\","
+                + "\"paymentId\":\"payment-1\",\"status\":\"COMPLETED\",\"totalPolls\":2,"
+                + "\"transactionId\":\"txn-1a2b\"}", PaymentStatusResult.class);
+        assertEquals(2, completed.getTotalPolls());
+        assertEquals("txn-1a2b", completed.getTransactionId());
+
+        PaymentStatusResult failed = decode("{\"service\":\"AsyncPaymentService-Poll\","
+                + "\"paymentId\":\"payment-1\",\"status\":\"FAILED\",\"totalPolls\":3}", PaymentStatusResult.class);
+        assertEquals("FAILED", failed.getStatus());
+        assertNull(failed.getTransactionId());
+    }
+
+    private <T> T decode(String legacyJson, Class<T> type) {
+        Payload payload = new JacksonJsonPayloadConverter().toData(legacyJson).orElseThrow();
+        return converter.fromPayload(payload, type, type);
+    }
+}
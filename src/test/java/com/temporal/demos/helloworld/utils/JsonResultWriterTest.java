@@ -0,0 +1,48 @@
+package com.temporal.demos.helloworld.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Decimals must read as they did when results were assembled with
+ * String.format("%.2f"), apart from the locale and negative zero.
+ */
+class JsonResultWriterTest {
+
+    @Test
+    void decimalsMatchStringFormat() {
+        List<Double> values = new ArrayList<>(List.of(0.0, 0.005, 0.015, 0.125, 0.5, 1.005, 1.115, 2.675, 10.345,
+                99.995, 149.99, 1234567.895, 4.35, 8.875, 1e12 + 0.005, 9.2e16, 1e20, Double.MAX_VALUE,
+                Double.MIN_VALUE));
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            values.add(random.nextInt(1_000_000) / 1000.0);
+            values.add(random.nextDouble() * Math.pow(10, random.nextInt(12)));
+        }
+        values.addAll(values.stream().map(value -> -value).toList());
+
+        for (double value : values) {
+            for (int digits : new int[] {0, 1, 2, 4}) {
+                String expected = String.format(Locale.ROOT, "%." + digits + "f", value);
+                if (expected.matches("-0(\\.0+)?")) {
+                    expected = expected.substring(1);
+                }
+                assertEquals("{\"v\":" + expected + "}", JsonResultWriter.forCurrentThread()
+                        .beginObject().field("v", value, digits).endObject().toJson(), "Writing " + value);
+            }
+        }
+    }
+
+    @Test
+    void nonFiniteDecimalsAreNull() {
+        assertEquals("[null,null,null]", JsonResultWriter.forCurrentThread().beginArray()
+                .value(Double.NaN, 2).value(Double.POSITIVE_INFINITY, 2).value(Double.NEGATIVE_INFINITY, 2)
+                .endArray().toJson());
+    }
+}
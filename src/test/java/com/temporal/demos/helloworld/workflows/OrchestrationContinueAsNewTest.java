@@ -0,0 +1,164 @@
+package com.temporal.demos.helloworld.workflows;
+
+import com.temporal.demos.helloworld.activities.ExternalApiActivities;
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.models.NotificationServiceResult;
+import com.temporal.demos.helloworld.models.OrchestrationProgress;
+import com.temporal.demos.helloworld.models.OrderServiceResult;
+import com.temporal.demos.helloworld.models.PaymentInitiationResult;
+import com.temporal.demos.helloworld.models.PaymentServiceResult;
+import com.temporal.demos.helloworld.models.PaymentStatusResult;
+import com.temporal.demos.helloworld.models.RecommendationServiceResult;
+import com.temporal.demos.helloworld.models.UserServiceResult;
+import io.temporal.activity.Activity;
+import io.temporal.api.history.v1.History;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives an async-payment orchestration whose payment stays processing for
+ * many poll rounds, with and without a history budget: the budgeted one must
+ * continue as new along the way, keep every run within its budget, and
+ * still return the same result. Timers and retry backoff are fast-forwarded
+ * by the in-process test server.
+ */
+class OrchestrationContinueAsNewTest {
+
+    private static final String TASK_QUEUE = "orchestration-continue-as-new-test";
+
+    // Poll attempts that see the payment still processing; each poll round is 10 attempts
+    private static final int POLLS = 300;
+
+    private static final int MAX_EVENTS = 200;
+
+    private TestWorkflowEnvironment environment;
+    private WorkflowClient client;
+
+    @BeforeEach
+    void startWorker() {
+        environment = TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                        .setDataConverter(CompactPayloadConverter.newDataConverter())
+                        .build())
+                .build());
+        Worker worker = environment.newWorker(TASK_QUEUE);
+        worker.registerWorkflowImplementationTypes(OrchestrationWorkflowImpl.class);
+        worker.registerActivitiesImplementations(new SlowPayment());
+        environment.start();
+        client = environment.getWorkflowClient();
+    }
+
+    @AfterEach
+    void closeEnvironment() {
+        environment.close();
+    }
+
+    @Test
+    void longPaymentWaitContinuesAsNewWithTheSameResult() {
+        String budgeted = orchestrate("continue-as-new-budgeted", OrchestrationProgress.withHistoryBudget(
+                MAX_EVENTS, 0));
+        String unbounded = orchestrate("continue-as-new-unbounded", OrchestrationProgress.withHistoryBudget(
+                Integer.MAX_VALUE, Long.MAX_VALUE));
+
+        assertEquals(unbounded, budgeted);
+        List<Integer> budgetedRuns = eventsPerRun("continue-as-new-budgeted");
+        assertTrue(budgetedRuns.size() > 1, "Expected a continue-as-new, got runs of " + budgetedRuns + " events");
+        // The budget is checked between poll rounds, so a run may overshoot it by at most one round
+        budgetedRuns.forEach(events -> assertTrue(events < 2 * MAX_EVENTS,
+                "Run of " + events + " events, history budget " + MAX_EVENTS));
+        assertEquals(1, eventsPerRun("continue-as-new-unbounded").size());
+    }
+
+    private String orchestrate(String workflowId, OrchestrationProgress budget) {
+        OrchestrationWorkflow workflow = client.newWorkflowStub(OrchestrationWorkflow.class,
+                WorkflowOptions.newBuilder()
+                        .setWorkflowId(workflowId)
+                        .setTaskQueue(TASK_QUEUE)
+                        .build());
+        return workflow.orchestrateExternalApiCalls("continue-as-new-user", true, budget, null);
+    }
+
+    /**
+     * Events in each run of workflowId, oldest first, following the
+     * continue-as-new chain back from the last run.
+     */
+    private List<Integer> eventsPerRun(String workflowId) {
+        List<Integer> runs = new ArrayList<>();
+        String runId = null;
+        do {
+            History history = (runId == null
+                    ? client.fetchHistory(workflowId)
+                    : client.fetchHistory(workflowId, runId)).getHistory();
+            runs.add(0, history.getEventsCount());
+            runId = history.getEvents(0).getWorkflowExecutionStartedEventAttributes().getContinuedExecutionRunId();
+        } while (!runId.isEmpty());
+        return runs;
+    }
+
+    /**
+     * Instant services, except a payment that reports processing for the
+     * first POLLS polls of each workflow ID, across all of its runs.
+     */
+    private static class SlowPayment implements ExternalApiActivities {
+
+        private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+        @Override
+        public UserServiceResult callUserService(String userId) {
+            return new UserServiceResult(userId, "John Doe", "john.doe@example.com");
+        }
+
+        @Override
+        public OrderServiceResult callOrderService(String userId) {
+            return new OrderServiceResult(userId, 5, 1250.50);
+        }
+
+        @Override
+        public PaymentServiceResult callPaymentService(String userId) {
+            return new PaymentServiceResult(userId, "**** 1234", 750);
+        }
+
+        @Override
+        public NotificationServiceResult callNotificationService(String userId) {
+            return new NotificationServiceResult(userId, 3);
+        }
+
+        @Override
+        public RecommendationServiceResult callRecommendationService(String userId) {
+            return new RecommendationServiceResult(userId, List.of("Product 0", "Product 1"));
+        }
+
+        @Override
+        public PaymentInitiationResult initiateAsyncPaymentProcess(String userId, double amount) {
+            return new PaymentInitiationResult("payment-" + userId, userId, amount, "INITIATED");
+        }
+
+        @Override
+        public PaymentStatusResult pollPaymentStatus(String paymentId) {
+            String workflowId = Activity.getExecutionContext().getInfo().getWorkflowId();
+            int attempt = attempts.computeIfAbsent(workflowId, id -> new AtomicInteger()).incrementAndGet();
+            if (attempt <= POLLS) {
+                throw ApplicationFailure.newFailure("Payment " + paymentId + " is still processing. Poll #" + attempt,
+                        PAYMENT_STILL_PROCESSING);
+            }
+            return new PaymentStatusResult(paymentId, "COMPLETED", attempt, "txn-" + attempt);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.temporal.demos.helloworld.workflows;
+
+import com.temporal.demos.helloworld.converters.CompactPayloadConverter;
+import com.temporal.demos.helloworld.converters.CompressionAlgorithm;
+import com.temporal.demos.helloworld.converters.CompressionPayloadCodec;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.common.converter.CodecDataConverter;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowReplayer;
+import io.temporal.worker.Worker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Replays every history captured under src/jmh/histories against the
+ * current workflow code, one test per run, so a change that would break
+ * executions still running on an older version fails the build. Capture new
+ * histories with ReplayCompatibility before changing a workflow.
+ */
+class WorkflowReplayTest {
+
+    private static final Path HISTORIES = Paths.get("src/jmh/histories");
+
+    private static TestWorkflowEnvironment environment;
+    private static Worker worker;
+
+    @BeforeAll
+    static void startWorker() {
+        // The application's default converter: compact payloads, deflated above 1 KB
+        environment = TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                        .setDataConverter(new CodecDataConverter(CompactPayloadConverter.newDataConverter(),
+                                List.of(new CompressionPayloadCodec(CompressionAlgorithm.DEFLATE, 1024))))
+                        .build())
+                .build());
+        worker = environment.newWorker("workflow-replay-test");
+        worker.registerWorkflowImplementationTypes(OrchestrationWorkflowImpl.class, ApprovalWorkflowImpl.class,
+                HelloWorldWorkflowImpl.class, PrewarmWorkflowImpl.class);
+    }
+
+    @AfterAll
+    static void closeEnvironment() {
+        environment.close();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> capturedHistoriesReplay() throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(HISTORIES)) {
+            files = walk.filter(file -> file.toString().endsWith(".json")).sorted().toList();
+        }
+        assertFalse(files.isEmpty(), "No histories under " + HISTORIES.toAbsolutePath());
+        return files.stream().map(file -> DynamicTest.dynamicTest(HISTORIES.relativize(file).toString(), () -> {
+            // Replayed under its own workflow ID, which workflows may derive child IDs from
+            String workflowId = file.getFileName().toString().replaceFirst("-run\\d+\\.json$", "");
+            WorkflowReplayer.replayWorkflowExecution(WorkflowExecutionHistory.fromJson(
+                    Files.readString(file, StandardCharsets.UTF_8), workflowId), worker);
+        }));
+    }
+}